@@ -13,5 +13,9 @@ public class JwtProperties {
     private long accessTokenExpiry;
     private long refreshTokenExpiry;
     private String issuer;
+
+    // Migration only: keep accepting HS256 tokens (no kid) signed with secretKey.
+    // Turn off once every HS256 token has expired (refreshTokenExpiry after the EdDSA deploy)
+    private boolean acceptHmac = false;
 }
 
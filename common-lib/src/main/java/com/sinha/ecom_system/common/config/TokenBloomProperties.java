@@ -0,0 +1,23 @@
+package com.sinha.ecom_system.common.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Sizing of the rotating Bloom filter of revoked token IDs
+ * Must be identical in auth-service (writer) and api-gateway (reader)
+ * The ring covers jwt.access-token-expiry + clockSkew of token expiries
+ */
+@Configuration
+@ConfigurationProperties(prefix = "token-bloom")
+@Data
+public class TokenBloomProperties {
+
+    private boolean enabled = true;
+    private int bitsPerBucket = 1 << 23;      // 1 MiB per bucket
+    private int hashFunctions = 7;
+    private long bucketWidth = 300000;        // 5 minutes of token expiry per bucket
+    private long clockSkew = 60000;           // Slack on top of jwt.access-token-expiry for clock differences between hosts
+    private int maxAheadOfRing = 10000;       // Revocations kept for expiries beyond the ring before answering conservatively
+}
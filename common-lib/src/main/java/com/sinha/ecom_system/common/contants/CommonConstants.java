@@ -8,4 +8,15 @@ public interface CommonConstants {
     String HEADER_USER_ROLES = "X-User-Roles";
     String HEADER_USER_PERMISSIONS = "X-User-Permissions";
     String HEADER_REQUEST_ID = "X-Request-ID";
+    String HEADER_USER_CONTEXT = "X-User-Context";  // Signed binary user context, see UserContext
+
+    // Redis keys and channels shared by auth-service and api-gateway
+    String TOKEN_BLACKLIST_PREFIX = "token:blacklist:";
+    String TOKEN_REVOCATION_CHANNEL = "token:revocations";
+    String TOKEN_BLOOM_PREFIX = "token:bloom:";  // + bucket index, Redis bitmap
+    String TOKEN_REVOKED_BEFORE_PREFIX = "token:revoked-before:";  // + authId, epoch millis watermark
+    String SESSION_REVOCATION_CHANNEL = "token:session-revocations";
+
+    // Redis stream of UserChangedEvent, written by user-service
+    String USER_EVENTS_STREAM = "user:events";
 }
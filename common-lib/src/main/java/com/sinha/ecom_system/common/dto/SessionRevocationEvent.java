@@ -0,0 +1,49 @@
+package com.sinha.ecom_system.common.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * Revocation of every session of a user, published by auth-service on the session revocation channel
+ * Access tokens of the user issued at or before revokedBefore are no longer accepted
+ *
+ * Wire format: "{authId}|{revokedBeforeEpochMillis}"
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SessionRevocationEvent {
+
+    private static final char SEPARATOR = '|';
+
+    private UUID authId;
+    private long revokedBefore;  // Epoch millis, compared with the iat_ms claim (tokens issued at or before are revoked)
+
+    public String toMessage() {
+        return authId.toString() + SEPARATOR + revokedBefore;
+    }
+
+    /**
+     * Parse a channel message, returns null if it is not a valid event
+     */
+    public static SessionRevocationEvent fromMessage(String message) {
+        if (message == null) {
+            return null;
+        }
+        int idx = message.indexOf(SEPARATOR);
+        if (idx <= 0 || idx == message.length() - 1) {
+            return null;
+        }
+        try {
+            return new SessionRevocationEvent(UUID.fromString(message.substring(0, idx)),
+                    Long.parseLong(message.substring(idx + 1)));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
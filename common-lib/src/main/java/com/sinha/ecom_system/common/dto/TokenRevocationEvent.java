@@ -0,0 +1,46 @@
+package com.sinha.ecom_system.common.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Revocation event published by auth-service on the token revocation channel
+ * Gateways apply it to their local blacklist near-cache
+ *
+ * Wire format: "{tokenId}|{expiresAtEpochMillis}"
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TokenRevocationEvent {
+
+    private static final char SEPARATOR = '|';
+
+    private String tokenId;
+    private long expiresAt;  // Epoch millis; the event is irrelevant after this
+
+    public String toMessage() {
+        return tokenId + SEPARATOR + expiresAt;
+    }
+
+    /**
+     * Parse a channel message, returns null if it is not a valid event
+     */
+    public static TokenRevocationEvent fromMessage(String message) {
+        if (message == null) {
+            return null;
+        }
+        int idx = message.indexOf(SEPARATOR);
+        if (idx <= 0 || idx == message.length() - 1) {
+            return null;
+        }
+        try {
+            return new TokenRevocationEvent(message.substring(0, idx), Long.parseLong(message.substring(idx + 1)));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.sinha.ecom_system.common.dto;
+
+import com.sinha.ecom_system.common.enums.UserStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Profile change event published by user-service on the user events stream
+ * Carries the full current profile, so consumers can upsert without calling back
+ *
+ * version is the change time in epoch millis; consumers ignore events older
+ * than what they already have, so redelivery and reordering are harmless
+ *
+ * Stream entry fields: see toFields / fromFields
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserChangedEvent {
+
+    private UUID userId;
+    private String firstName;
+    private String lastName;
+    private String email;
+    private String mobileNumber;
+    private LocalDate dob;
+    private UserStatus userStatus;
+    private long version;
+
+    public Map<String, String> toFields() {
+        Map<String, String> fields = new HashMap<>();
+        fields.put("userId", userId.toString());
+        put(fields, "firstName", firstName);
+        put(fields, "lastName", lastName);
+        put(fields, "email", email);
+        put(fields, "mobileNumber", mobileNumber);
+        put(fields, "dob", dob != null ? dob.toString() : null);
+        put(fields, "userStatus", userStatus != null ? userStatus.name() : null);
+        fields.put("version", Long.toString(version));
+        return fields;
+    }
+
+    /**
+     * Parse stream entry fields, returns null if it is not a valid event
+     */
+    public static UserChangedEvent fromFields(Map<String, String> fields) {
+        try {
+            String dob = fields.get("dob");
+            String userStatus = fields.get("userStatus");
+            return UserChangedEvent.builder()
+                    .userId(UUID.fromString(fields.get("userId")))
+                    .firstName(fields.get("firstName"))
+                    .lastName(fields.get("lastName"))
+                    .email(fields.get("email"))
+                    .mobileNumber(fields.get("mobileNumber"))
+                    .dob(dob != null ? LocalDate.parse(dob) : null)
+                    .userStatus(userStatus != null ? UserStatus.valueOf(userStatus) : null)
+                    .version(Long.parseLong(fields.get("version")))
+                    .build();
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static void put(Map<String, String> fields, String name, String value) {
+        if (value != null) {
+            fields.put(name, value);
+        }
+    }
+}
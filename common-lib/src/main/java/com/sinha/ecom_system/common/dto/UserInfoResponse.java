@@ -2,8 +2,10 @@ package com.sinha.ecom_system.common.dto;
 
 
 import com.sinha.ecom_system.common.enums.*;
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -14,6 +16,8 @@ import java.util.UUID;
  */
 @Data
 @Builder
+@NoArgsConstructor
+@AllArgsConstructor
 public class UserInfoResponse {
 
     // Basic Information
@@ -0,0 +1,21 @@
+package com.sinha.ecom_system.common.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Response DTO for a page of the user listing
+ * nextCursor is passed back to fetch the following page; null on the last page
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserPageResponse {
+    private List<UserSummary> users;
+    private String nextCursor;
+}
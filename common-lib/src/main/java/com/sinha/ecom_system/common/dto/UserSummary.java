@@ -0,0 +1,29 @@
+package com.sinha.ecom_system.common.dto;
+
+import com.sinha.ecom_system.common.enums.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Response DTO for one row of the user listing (subset of UserInfoResponse)
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserSummary {
+    private UUID userId;
+    private String firstName;
+    private String lastName;
+    private String email;
+    private UserStatus userStatus;
+    private AccountType accountType;
+    private KycStatus kycStatus;
+    private TradingStatus tradingStatus;
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,103 @@
+package com.sinha.ecom_system.common.enums;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Permissions granted through roles, each a fixed bit in a permission mask
+ *
+ * Bits are part of the JWT "perm" claim and the user-context wire format:
+ * append new permissions, never renumber existing ones
+ */
+public enum Permission {
+    TRADE(0),
+    WITHDRAW(1),
+    MANAGE_USERS(2),
+    VIEW_REPORTS(3),
+    MODIFY_ORDERS(4),
+    ACCESS_API(5);
+
+    private static final Permission[] VALUES = values();
+
+    private final int mask;
+
+    Permission(int bit) {
+        this.mask = 1 << bit;
+    }
+
+    public int mask() {
+        return mask;
+    }
+
+    public boolean isIn(int permissionMask) {
+        return (permissionMask & mask) != 0;
+    }
+
+    /**
+     * Permission for a name, ignoring case and underscores ("MANAGE_USERS", "manageusers");
+     * returns null if unknown
+     */
+    public static Permission fromName(String name) {
+        if (name == null) {
+            return null;
+        }
+        for (Permission permission : VALUES) {
+            if (permission.matches(name)) {
+                return permission;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Names of the permissions in a mask, in bit order
+     */
+    public static List<String> namesOf(int permissionMask) {
+        List<String> names = new ArrayList<>(Integer.bitCount(permissionMask));
+        for (Permission permission : VALUES) {
+            if (permission.isIn(permissionMask)) {
+                names.add(permission.name());
+            }
+        }
+        return names;
+    }
+
+    private boolean matches(String candidate) {
+        String name = name();
+        int i = 0;
+        for (int j = 0; j < candidate.length(); j++) {
+            char c = candidate.charAt(j);
+            if (c == '_') {
+                continue;
+            }
+            while (i < name.length() && name.charAt(i) == '_') {
+                i++;
+            }
+            if (i == name.length() || Character.toUpperCase(c) != name.charAt(i)) {
+                return false;
+            }
+            i++;
+        }
+        while (i < name.length() && name.charAt(i) == '_') {
+            i++;
+        }
+        return i == name.length();
+    }
+
+    /**
+     * Mask of permission names (as in the JWT permissions claim); unknown names are ignored
+     */
+    public static int maskOf(Collection<String> names) {
+        int result = 0;
+        for (String name : names) {
+            for (Permission permission : VALUES) {
+                if (permission.name().equals(name)) {
+                    result |= permission.mask;
+                    break;
+                }
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,48 @@
+package com.sinha.ecom_system.common.enums;
+
+/**
+ * Roles with a stable small ID, used where role names are too large to carry (user-context header)
+ *
+ * IDs are part of the wire format: append new roles, never renumber existing ones
+ */
+public enum SystemRole {
+    ROLE_ADMIN(1),
+    ROLE_TRADER(2),
+    ROLE_USER(3);
+
+    private static final SystemRole[] VALUES = values();
+
+    private final int id;
+
+    SystemRole(int id) {
+        this.id = id;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * Role for a role name, or null if the role has no ID
+     */
+    public static SystemRole fromName(String name) {
+        for (SystemRole role : VALUES) {
+            if (role.name().equals(name)) {
+                return role;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Role for an ID, or null if unknown
+     */
+    public static SystemRole fromId(int id) {
+        for (SystemRole role : VALUES) {
+            if (role.id == id) {
+                return role;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,56 @@
+package com.sinha.ecom_system.common.security;
+
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.PublicKey;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Ed25519 public keys as JWKs (RFC 8037, kty OKP)
+ *
+ * An X.509-encoded Ed25519 key is a fixed 12-byte prefix followed by the
+ * 32-byte raw key, which is the JWK "x" value
+ */
+public final class Ed25519Jwk {
+
+    public static final String ALGORITHM = "EdDSA";
+
+    private static final byte[] X509_PREFIX = {
+            0x30, 0x2a, 0x30, 0x05, 0x06, 0x03, 0x2b, 0x65, 0x70, 0x03, 0x21, 0x00
+    };
+    private static final int KEY_LENGTH = 32;
+
+    private Ed25519Jwk() {
+    }
+
+    public static Map<String, Object> toJwk(String keyId, PublicKey publicKey) {
+        byte[] encoded = publicKey.getEncoded();
+        byte[] raw = Arrays.copyOfRange(encoded, encoded.length - KEY_LENGTH, encoded.length);
+
+        Map<String, Object> jwk = new LinkedHashMap<>();
+        jwk.put("kty", "OKP");
+        jwk.put("crv", "Ed25519");
+        jwk.put("x", Base64.getUrlEncoder().withoutPadding().encodeToString(raw));
+        jwk.put("kid", keyId);
+        jwk.put("alg", ALGORITHM);
+        jwk.put("use", "sig");
+        return jwk;
+    }
+
+    /**
+     * Rebuild a public key from the JWK "x" value
+     */
+    public static PublicKey fromX(String x) throws GeneralSecurityException {
+        byte[] raw = Base64.getUrlDecoder().decode(x);
+        if (raw.length != KEY_LENGTH) {
+            throw new GeneralSecurityException("Invalid Ed25519 key length: " + raw.length);
+        }
+        byte[] encoded = Arrays.copyOf(X509_PREFIX, X509_PREFIX.length + KEY_LENGTH);
+        System.arraycopy(raw, 0, encoded, X509_PREFIX.length, KEY_LENGTH);
+        return KeyFactory.getInstance("Ed25519").generatePublic(new X509EncodedKeySpec(encoded));
+    }
+}
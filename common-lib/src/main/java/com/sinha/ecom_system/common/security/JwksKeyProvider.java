@@ -0,0 +1,158 @@
+package com.sinha.ecom_system.common.security;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.security.PublicKey;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * JWKS Key Provider
+ * Verification keys fetched from auth-service's JWKS endpoint and kept in memory
+ *
+ * - the key set is loaded on start and refreshed in the background
+ * - every published key ID stays usable, so tokens signed with the previous
+ *   key keep verifying after a rotation
+ * - auth-service publishes new keys before signing with them, so a refresh
+ *   normally sees a key before the first token carrying its kid arrives
+ * - an unknown kid triggers an early background refresh (at most once per
+ *   minRefreshGap); lookups never block on the network
+ * - the endpoint is resolved on every refresh, so it can come from service
+ *   discovery and follow auth-service instances as they change
+ *
+ * If a refresh fails, the last known key set is kept. Until the first
+ * successful load, refreshes are retried every minRefreshGap.
+ */
+@Slf4j
+public class JwksKeyProvider implements JwtKeyProvider, AutoCloseable {
+
+    private final Supplier<URI> jwksUri;
+    private final Duration refreshInterval;
+    private final Duration minRefreshGap;
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ScheduledExecutorService scheduler;
+
+    private volatile Map<String, PublicKey> keys = Map.of();
+    private volatile long lastRefreshStartedAt;
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+
+    public JwksKeyProvider(URI jwksUri, Duration refreshInterval, Duration minRefreshGap) {
+        this(() -> jwksUri, refreshInterval, minRefreshGap);
+    }
+
+    public JwksKeyProvider(Supplier<URI> jwksUri, Duration refreshInterval, Duration minRefreshGap) {
+        this.jwksUri = jwksUri;
+        this.refreshInterval = refreshInterval;
+        this.minRefreshGap = minRefreshGap;
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "jwks-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Load the key set once (waiting up to the timeout), then refresh periodically
+     */
+    public void start(Duration initialLoadTimeout) {
+        try {
+            refreshAsync().get(initialLoadTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (Exception e) {
+            log.warn("Initial JWKS load failed, will retry in background: {}", e.getMessage());
+        }
+        scheduleRefresh();
+    }
+
+    private void scheduleRefresh() {
+        if (scheduler.isShutdown()) {
+            return;
+        }
+        Duration delay = keys.isEmpty() ? minRefreshGap : refreshInterval;
+        scheduler.schedule(() -> {
+            refreshAsync().whenComplete((v, e) -> scheduleRefresh());
+        }, delay.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public PublicKey verificationKey(String keyId) {
+        PublicKey key = keys.get(keyId);
+        if (key == null && System.currentTimeMillis() - lastRefreshStartedAt >= minRefreshGap.toMillis()) {
+            log.info("Unknown JWT key ID {}, refreshing JWKS", keyId);
+            scheduler.execute(this::refreshAsync);
+        }
+        return key;
+    }
+
+    private CompletableFuture<Void> refreshAsync() {
+        if (!refreshing.compareAndSet(false, true)) {
+            return CompletableFuture.completedFuture(null);
+        }
+        lastRefreshStartedAt = System.currentTimeMillis();
+        URI uri;
+        try {
+            uri = jwksUri.get();
+        } catch (RuntimeException e) {
+            refreshing.set(false);
+            log.warn("JWKS endpoint not available, keeping {} known keys: {}", keys.size(), e.getMessage());
+            return CompletableFuture.failedFuture(e);
+        }
+        HttpRequest request = HttpRequest.newBuilder(uri)
+                .timeout(Duration.ofSeconds(5))
+                .header("Accept", "application/json")
+                .GET()
+                .build();
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                .thenAccept(response -> {
+                    if (response.statusCode() != 200) {
+                        throw new IllegalStateException("JWKS endpoint returned " + response.statusCode());
+                    }
+                    keys = parse(response.body());
+                    log.debug("Loaded {} JWT verification keys from {}", keys.size(), uri);
+                })
+                .whenComplete((v, e) -> {
+                    refreshing.set(false);
+                    if (e != null) {
+                        log.warn("JWKS refresh from {} failed, keeping {} known keys: {}",
+                                uri, keys.size(), e.getMessage());
+                    }
+                });
+    }
+
+    private Map<String, PublicKey> parse(String body) {
+        Map<String, PublicKey> parsed = new HashMap<>();
+        try {
+            for (JsonNode jwk : objectMapper.readTree(body).path("keys")) {
+                String keyId = jwk.path("kid").asText(null);
+                if (keyId == null || !"OKP".equals(jwk.path("kty").asText()) || !"Ed25519".equals(jwk.path("crv").asText())) {
+                    continue;
+                }
+                parsed.put(keyId, Ed25519Jwk.fromX(jwk.path("x").asText()));
+            }
+        } catch (Exception e) {
+            throw new IllegalStateException("Invalid JWKS document: " + e.getMessage(), e);
+        }
+        return Map.copyOf(parsed);
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+}
@@ -0,0 +1,41 @@
+package com.sinha.ecom_system.common.security;
+
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.LocatorAdapter;
+
+import javax.crypto.SecretKey;
+import java.security.Key;
+
+/**
+ * JWT Key Locator
+ * Picks the verification key for each token from its header
+ *
+ * - kid present: public key from the JwtKeyProvider (EdDSA)
+ * - no kid: the shared HMAC secret, only while HS256 tokens are still accepted
+ *
+ * jjwt checks the key type against the header alg, so an HS256 token can never
+ * be verified with a public key (or the reverse)
+ */
+public class JwtKeyLocator extends LocatorAdapter<Key> {
+
+    private final JwtKeyProvider keyProvider;
+    private final SecretKey hmacKey;
+
+    /**
+     * @param keyProvider asymmetric keys, or null if only HMAC is in use
+     * @param hmacKey     legacy HS256 key, or null once HS256 is no longer accepted
+     */
+    public JwtKeyLocator(JwtKeyProvider keyProvider, SecretKey hmacKey) {
+        this.keyProvider = keyProvider;
+        this.hmacKey = hmacKey;
+    }
+
+    @Override
+    protected Key locate(JwsHeader header) {
+        String keyId = header.getKeyId();
+        if (keyId == null) {
+            return hmacKey;
+        }
+        return keyProvider != null ? keyProvider.verificationKey(keyId) : null;
+    }
+}
@@ -0,0 +1,29 @@
+package com.sinha.ecom_system.common.security;
+
+import java.security.PrivateKey;
+import java.security.PublicKey;
+
+/**
+ * JWT Key Provider
+ * Source of asymmetric JWT keys, looked up by key ID (kid header)
+ *
+ * - auth-service: keys from its database, signs and verifies
+ * - verifiers (gateway): public keys fetched from the JWKS endpoint, never sign
+ */
+public interface JwtKeyProvider {
+
+    /**
+     * Key to sign new tokens with, or null if this service does not sign
+     */
+    default SigningKey signingKey() {
+        return null;
+    }
+
+    /**
+     * Public key for a key ID, or null if the key is unknown
+     */
+    PublicKey verificationKey(String keyId);
+
+    record SigningKey(String keyId, PrivateKey privateKey) {
+    }
+}
@@ -0,0 +1,125 @@
+package com.sinha.ecom_system.common.security;
+
+import com.sinha.ecom_system.common.enums.Permission;
+import com.sinha.ecom_system.common.enums.SystemRole;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+/**
+ * User Context
+ * Read-only view over a verified X-User-Context header, set by the gateway after JWT validation
+ *
+ * Fields are read straight from the decoded bytes when asked for; nothing is
+ * split or parsed up front (the email is decoded on first use only)
+ *
+ * Layout (big-endian), sealed with a truncated HMAC-SHA256 and sent base64url:
+ *   version(1) | userId(16) | expiresAt epoch seconds(4) | permission mask(4)
+ *   | role count(1) | role IDs(1 each) | email length(2) | email UTF-8 | mac(16)
+ *
+ * See UserContextCodec for signing and verification
+ */
+public final class UserContext {
+
+    /**
+     * Request attribute holding the UserContext of the current request in downstream services
+     */
+    public static final String REQUEST_ATTR = UserContext.class.getName();
+
+    public static final byte VERSION = 1;
+    public static final int USER_ID_OFFSET = 1;
+    public static final int EXPIRES_AT_OFFSET = 17;
+    public static final int PERMISSIONS_OFFSET = 21;
+    public static final int ROLE_COUNT_OFFSET = 25;
+    public static final int ROLES_OFFSET = 26;
+    public static final int MAC_LENGTH = 16;
+    public static final int MAX_ROLES = 255;
+    public static final int MAX_EMAIL_BYTES = 0xFFFF;
+
+    private final byte[] data;
+    private final int emailOffset;
+    private final int emailLength;
+    private String email;
+
+    private UserContext(byte[] data, int emailOffset, int emailLength) {
+        this.data = data;
+        this.emailOffset = emailOffset;
+        this.emailLength = emailLength;
+    }
+
+    /**
+     * Wrap verified bytes; returns null if the layout is inconsistent with the length
+     */
+    static UserContext wrap(byte[] data) {
+        int payloadLength = data.length - MAC_LENGTH;
+        if (payloadLength < ROLES_OFFSET + 2 || data[0] != VERSION) {
+            return null;
+        }
+        int emailLengthOffset = ROLES_OFFSET + (data[ROLE_COUNT_OFFSET] & 0xFF);
+        if (emailLengthOffset + 2 > payloadLength) {
+            return null;
+        }
+        int emailLength = readShort(data, emailLengthOffset);
+        int emailOffset = emailLengthOffset + 2;
+        if (emailOffset + emailLength != payloadLength) {
+            return null;
+        }
+        return new UserContext(data, emailOffset, emailLength);
+    }
+
+    public UUID getUserId() {
+        return new UUID(readLong(data, USER_ID_OFFSET), readLong(data, USER_ID_OFFSET + 8));
+    }
+
+    /**
+     * Expiry of the access token this context was built from, epoch millis
+     */
+    public long getExpiresAt() {
+        return (readInt(data, EXPIRES_AT_OFFSET) & 0xFFFFFFFFL) * 1000;
+    }
+
+    public int getPermissionMask() {
+        return readInt(data, PERMISSIONS_OFFSET);
+    }
+
+    public boolean hasPermission(Permission permission) {
+        return permission.isIn(getPermissionMask());
+    }
+
+    public int getRoleCount() {
+        return data[ROLE_COUNT_OFFSET] & 0xFF;
+    }
+
+    public int getRoleId(int index) {
+        return data[ROLES_OFFSET + index] & 0xFF;
+    }
+
+    public boolean hasRole(SystemRole role) {
+        int count = getRoleCount();
+        for (int i = 0; i < count; i++) {
+            if (getRoleId(i) == role.getId()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public String getEmail() {
+        if (email == null && emailLength > 0) {
+            email = new String(data, emailOffset, emailLength, StandardCharsets.UTF_8);
+        }
+        return email;
+    }
+
+    private static int readShort(byte[] b, int off) {
+        return ((b[off] & 0xFF) << 8) | (b[off + 1] & 0xFF);
+    }
+
+    private static int readInt(byte[] b, int off) {
+        return ((b[off] & 0xFF) << 24) | ((b[off + 1] & 0xFF) << 16) | ((b[off + 2] & 0xFF) << 8) | (b[off + 3] & 0xFF);
+    }
+
+    private static long readLong(byte[] b, int off) {
+        return ((long) readInt(b, off) << 32) | (readInt(b, off + 4) & 0xFFFFFFFFL);
+    }
+}
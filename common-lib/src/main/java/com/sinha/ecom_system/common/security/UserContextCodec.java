@@ -0,0 +1,84 @@
+package com.sinha.ecom_system.common.security;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * User Context Codec
+ * Seals and verifies X-User-Context headers with HMAC-SHA256 over the gateway secret
+ *
+ * The gateway builds the payload (see UserContext for the layout) and seals it;
+ * services verify the MAC and expiry and get a UserContext view over the same bytes
+ */
+public class UserContextCodec {
+
+    private static final String MAC_ALGORITHM = "HmacSHA256";
+
+    private final ThreadLocal<Mac> mac;
+
+    public UserContextCodec(String secret) {
+        SecretKeySpec key = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), MAC_ALGORITHM);
+        this.mac = ThreadLocal.withInitial(() -> {
+            try {
+                Mac instance = Mac.getInstance(MAC_ALGORITHM);
+                instance.init(key);
+                return instance;
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("HmacSHA256 not available", e);
+            }
+        });
+    }
+
+    /**
+     * Append the MAC to payload[0, length) and encode the header value
+     * The array must have MAC_LENGTH spare bytes after the payload
+     */
+    public String seal(byte[] payload, int length) {
+        Mac instance = mac.get();
+        instance.update(payload, 0, length);
+        byte[] digest = instance.doFinal();
+        System.arraycopy(digest, 0, payload, length, UserContext.MAC_LENGTH);
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(length + UserContext.MAC_LENGTH == payload.length
+                        ? payload
+                        : Arrays.copyOf(payload, length + UserContext.MAC_LENGTH));
+    }
+
+    /**
+     * Verify a header value; returns null if it is malformed, forged or expired
+     */
+    public UserContext decode(String header) {
+        byte[] data;
+        try {
+            data = Base64.getUrlDecoder().decode(header);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        int payloadLength = data.length - UserContext.MAC_LENGTH;
+        if (payloadLength <= 0) {
+            return null;
+        }
+
+        Mac instance = mac.get();
+        instance.update(data, 0, payloadLength);
+        byte[] expected = instance.doFinal();
+        // Constant-time comparison of the truncated MAC
+        int diff = 0;
+        for (int i = 0; i < UserContext.MAC_LENGTH; i++) {
+            diff |= expected[i] ^ data[payloadLength + i];
+        }
+        if (diff != 0) {
+            return null;
+        }
+
+        UserContext context = UserContext.wrap(data);
+        if (context == null || context.getExpiresAt() <= System.currentTimeMillis()) {
+            return null;
+        }
+        return context;
+    }
+}
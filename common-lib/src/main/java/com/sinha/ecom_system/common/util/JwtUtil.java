@@ -1,8 +1,12 @@
 package com.sinha.ecom_system.common.util;
 
 import com.sinha.ecom_system.common.config.JwtProperties;
+import com.sinha.ecom_system.common.enums.Permission;
+import com.sinha.ecom_system.common.security.JwtKeyLocator;
+import com.sinha.ecom_system.common.security.JwtKeyProvider;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
@@ -21,19 +25,43 @@ import java.util.UUID;
  * - Token parsing and validation
  * - Claims extraction
  * 
- * Uses HMAC-SHA256 algorithm for signing
+ * Signs with EdDSA (Ed25519) and a kid header when a JwtKeyProvider with a
+ * signing key is present (auth-service), otherwise with HMAC-SHA256.
+ * Verification picks the key per token (see JwtKeyLocator), so HS256 tokens
+ * issued before the switch stay valid while jwt.accept-hmac is true.
  */
 @Component
 public class JwtUtil {
 
+    /**
+     * Permission bitmask claim; tokens issued before it carry a "permissions" name list instead
+     */
+    public static final String PERMISSION_MASK_CLAIM = "perm";
+
+    /**
+     * Issue time in epoch millis; iat has second precision, too coarse to order a
+     * token against a logout-all in the same second (session watermark)
+     */
+    public static final String ISSUED_AT_MILLIS_CLAIM = "iat_ms";
+
     private final JwtProperties jwtProperties;
     private final SecretKey secretKey;
+    private final JwtKeyProvider keyProvider;
+    private final JwtParser jwtParser;
 
     @Autowired
-    public JwtUtil(JwtProperties jwtProperties) {
+    public JwtUtil(JwtProperties jwtProperties, ObjectProvider<JwtKeyProvider> keyProvider) {
         this.jwtProperties = jwtProperties;
         // Generate secure key from secret string
-        this.secretKey = Keys.hmacShaKeyFor(jwtProperties.getSecretKey().getBytes(StandardCharsets.UTF_8));
+        String secret = jwtProperties.getSecretKey();
+        this.secretKey = secret != null && !secret.isBlank()
+                ? Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8))
+                : null;
+        this.keyProvider = keyProvider.getIfAvailable();
+        // Built once; the locator resolves the key for each token
+        this.jwtParser = Jwts.parser()
+                .keyLocator(new JwtKeyLocator(this.keyProvider, jwtProperties.isAcceptHmac() ? secretKey : null))
+                .build();
     }
 
     /**
@@ -43,25 +71,26 @@ public class JwtUtil {
      * @param userId User's unique identifier
      * @param email User's email
      * @param roles List of role names (e.g., "ROLE_USER", "ROLE_ADMIN")
-     * @param permissions List of permission names
+     * @param permissionMask Permission bitmask (see Permission), sent as the "perm" claim
      * @return Signed JWT token string
      */
-    public String generateAccessToken(UUID userId, String email, List<String> roles, List<String> permissions) {
+    public String generateAccessToken(UUID userId, String email, List<String> roles, int permissionMask) {
         Date now = new Date();
         Date expiryDate = new Date(now.getTime() + jwtProperties.getAccessTokenExpiry());
 
-        return Jwts.builder()
+        JwtBuilder builder = Jwts.builder()
                 .subject(userId.toString())
                 .claim("email", email)
                 .claim("roles", roles)
-                .claim("permissions", permissions)
+                .claim(PERMISSION_MASK_CLAIM, permissionMask)
+                .claim(ISSUED_AT_MILLIS_CLAIM, now.getTime())
                 .claim("type", "ACCESS")
                 .issuer(jwtProperties.getIssuer())
                 .issuedAt(now)
                 .expiration(expiryDate)
-                .id(UUID.randomUUID().toString()) // jti - used for blacklisting
-                .signWith(secretKey, Jwts.SIG.HS256)
-                .compact();
+                .id(UUID.randomUUID().toString()); // jti - used for blacklisting
+
+        return sign(builder);
     }
 
     /**
@@ -76,13 +105,29 @@ public class JwtUtil {
         Date now = new Date();
         Date expiryDate = new Date(now.getTime() + jwtProperties.getRefreshTokenExpiry());
 
-        return Jwts.builder()
+        JwtBuilder builder = Jwts.builder()
                 .subject(userId.toString())
                 .claim("type", "REFRESH")
                 .issuer(jwtProperties.getIssuer())
                 .issuedAt(now)
                 .expiration(expiryDate)
-                .id(UUID.randomUUID().toString())
+                .id(UUID.randomUUID().toString());
+
+        return sign(builder);
+    }
+
+    /**
+     * Sign with the current EdDSA key if there is one, else with the HMAC secret
+     */
+    private String sign(JwtBuilder builder) {
+        JwtKeyProvider.SigningKey signingKey = keyProvider != null ? keyProvider.signingKey() : null;
+        if (signingKey != null) {
+            return builder
+                    .header().keyId(signingKey.keyId()).and()
+                    .signWith(signingKey.privateKey(), Jwts.SIG.EdDSA)
+                    .compact();
+        }
+        return builder
                 .signWith(secretKey, Jwts.SIG.HS256)
                 .compact();
     }
@@ -97,9 +142,7 @@ public class JwtUtil {
      */
     public Claims parseToken(String token) {
         try {
-            return Jwts.parser()
-                    .verifyWith(secretKey)
-                    .build()
+            return jwtParser
                     .parseSignedClaims(token)
                     .getPayload();
         } catch (JwtException e) {
@@ -133,12 +176,24 @@ public class JwtUtil {
     }
 
     /**
-     * Extract permissions list from custom claim
+     * Extract permission names from the permission mask claim
      */
-    @SuppressWarnings("unchecked")
     public List<String> getPermissionsFromToken(String token) {
+        return Permission.namesOf(getPermissionMaskFromToken(token));
+    }
+
+    /**
+     * Extract permission bitmask, falling back to the name list of older tokens
+     */
+    @SuppressWarnings("unchecked")
+    public int getPermissionMaskFromToken(String token) {
         Claims claims = parseToken(token);
-        return claims.get("permissions", List.class);
+        Integer mask = claims.get(PERMISSION_MASK_CLAIM, Integer.class);
+        if (mask != null) {
+            return mask;
+        }
+        List<String> permissions = claims.get("permissions", List.class);
+        return permissions != null ? Permission.maskOf(permissions) : 0;
     }
 
     /**
@@ -0,0 +1,139 @@
+package com.sinha.ecom_system.common.util;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Precompiled Path Matcher
+ * Character trie over path rules, built once and then only read
+ *
+ * Rule syntax:
+ * - "/v1/api/auth/login"  exact match only
+ * - "/actuator/health/**" the path itself and everything below it
+ * - "/**"                 every path
+ *
+ * match() walks the path once, returns the value of the longest matching rule
+ * (exact wins over prefix for the same path) and does not allocate.
+ *
+ * Immutable after construction, so one instance can be shared by all request threads.
+ */
+public class PathTrie<V> {
+
+    private static final String PREFIX_SUFFIX = "/**";
+
+    private final Node<V> root = new Node<>();
+
+    /**
+     * Start an empty trie; add rules with put() before sharing it
+     */
+    public PathTrie() {
+    }
+
+    /**
+     * Trie where every rule maps to the same value, for plain allow/deny lists
+     */
+    public static PathTrie<Boolean> of(Collection<String> rules) {
+        PathTrie<Boolean> trie = new PathTrie<>();
+        for (String rule : rules) {
+            trie.put(rule, Boolean.TRUE);
+        }
+        return trie;
+    }
+
+    /**
+     * Add a rule; a later rule for the same pattern replaces the earlier one
+     */
+    public PathTrie<V> put(String rule, V value) {
+        if (rule == null || rule.isBlank()) {
+            throw new IllegalArgumentException("Path rule must not be blank");
+        }
+        String pattern = rule.trim();
+        boolean prefix = pattern.endsWith(PREFIX_SUFFIX);
+        if (prefix) {
+            pattern = pattern.substring(0, pattern.length() - PREFIX_SUFFIX.length());
+        }
+
+        Node<V> node = root;
+        for (int i = 0; i < pattern.length(); i++) {
+            node = node.childOrCreate(pattern.charAt(i));
+        }
+        if (prefix) {
+            node.prefixValue = value;
+        } else {
+            node.exactValue = value;
+        }
+        return this;
+    }
+
+    /**
+     * Value of the longest rule matching the path, or null if none matches
+     */
+    public V match(String path) {
+        if (path == null) {
+            return null;
+        }
+        V best = null;
+        Node<V> node = root;
+        int length = path.length();
+        for (int i = 0; ; i++) {
+            // A prefix rule only matches on a segment boundary
+            if (node.prefixValue != null && (i == length || path.charAt(i) == '/')) {
+                best = node.prefixValue;
+            }
+            if (i == length) {
+                return node.exactValue != null ? node.exactValue : best;
+            }
+            node = node.child(path.charAt(i));
+            if (node == null) {
+                return best;
+            }
+        }
+    }
+
+    public boolean matches(String path) {
+        return match(path) != null;
+    }
+
+    private static final class Node<V> {
+
+        private static final char[] NO_KEYS = new char[0];
+
+        // Children sorted by key; paths are short and fan-out is small
+        private char[] keys = NO_KEYS;
+        private Node<V>[] children = newArray(0);
+        private V exactValue;
+        private V prefixValue;
+
+        Node<V> child(char c) {
+            int index = Arrays.binarySearch(keys, c);
+            return index >= 0 ? children[index] : null;
+        }
+
+        Node<V> childOrCreate(char c) {
+            int index = Arrays.binarySearch(keys, c);
+            if (index >= 0) {
+                return children[index];
+            }
+            int insertAt = -index - 1;
+            Node<V> child = new Node<>();
+
+            char[] newKeys = new char[keys.length + 1];
+            Node<V>[] newChildren = newArray(keys.length + 1);
+            System.arraycopy(keys, 0, newKeys, 0, insertAt);
+            System.arraycopy(children, 0, newChildren, 0, insertAt);
+            newKeys[insertAt] = c;
+            newChildren[insertAt] = child;
+            System.arraycopy(keys, insertAt, newKeys, insertAt + 1, keys.length - insertAt);
+            System.arraycopy(children, insertAt, newChildren, insertAt + 1, keys.length - insertAt);
+
+            keys = newKeys;
+            children = newChildren;
+            return child;
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <V> Node<V>[] newArray(int size) {
+            return (Node<V>[]) new Node[size];
+        }
+    }
+}
@@ -0,0 +1,309 @@
+package com.sinha.ecom_system.common.util;
+
+import com.sinha.ecom_system.common.config.TokenBloomProperties;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Rotating Bloom Filter for revoked token IDs
+ *
+ * Entries are grouped into buckets by the expiry time of the token they belong to.
+ * A bucket can be dropped as soon as its time window is over, because every token
+ * in it has expired. Buckets live in a fixed ring of slots, so memory stays at
+ * (slots * bitsPerBucket) bits no matter how many tokens are revoked.
+ *
+ * Bit offsets match Redis bitmaps (SETBIT), so auth-service can maintain the
+ * same filter in Redis and gateways can replicate it with a plain GET.
+ *
+ * The ring covers expiries from now to now + maxTokenLifetime. A token whose
+ * expiry falls outside it never touches a slot: lookups answer "might be revoked"
+ * (the caller checks Redis), and adds for expiries ahead of the ring are kept
+ * in a small side map until they expire, so no live bucket is ever recycled early.
+ * The side map is pruned whenever a bucket rotates and is capped: once full, further
+ * adds only widen an expiry range that is answered "might be revoked" until it passes.
+ *
+ * Thread-safe: bits are set with CAS and buckets are swapped atomically.
+ */
+public class RotatingBloomFilter {
+
+    private static final long SEED_1 = 0x9E3779B97F4A7C15L;
+    private static final long SEED_2 = 0xC2B2AE3D27D4EB4FL;
+    private static final int DEFAULT_MAX_AHEAD_OF_RING = 10000;
+
+    private final int bitsPerBucket;
+    private final int hashFunctions;
+    private final long bucketWidth;
+    private final AtomicReferenceArray<Bucket> slots;
+    // Revoked token ID -> expiry, for expiries beyond the ring (clock skew, longer-lived tokens)
+    private final Map<String, Long> aheadOfRing = new ConcurrentHashMap<>();
+    private final int maxAheadOfRing;
+    // Expiries of ahead-of-ring adds dropped because the side map was full
+    private final AtomicReference<ExpiryRange> overflow = new AtomicReference<>();
+
+    public RotatingBloomFilter(int bitsPerBucket, int hashFunctions, long bucketWidth, long maxTokenLifetime) {
+        this(bitsPerBucket, hashFunctions, bucketWidth, maxTokenLifetime, DEFAULT_MAX_AHEAD_OF_RING);
+    }
+
+    public RotatingBloomFilter(int bitsPerBucket, int hashFunctions, long bucketWidth, long maxTokenLifetime,
+                               int maxAheadOfRing) {
+        if (bitsPerBucket <= 0 || bitsPerBucket % 64 != 0) {
+            throw new IllegalArgumentException("bitsPerBucket must be a positive multiple of 64");
+        }
+        this.bitsPerBucket = bitsPerBucket;
+        this.hashFunctions = hashFunctions;
+        this.bucketWidth = bucketWidth;
+        this.maxAheadOfRing = maxAheadOfRing;
+        // One extra slot for the bucket currently being written while the oldest drains
+        this.slots = new AtomicReferenceArray<>((int) ((maxTokenLifetime + bucketWidth - 1) / bucketWidth) + 1);
+    }
+
+    /**
+     * Ring sized for access tokens: their lifetime plus the configured clock skew
+     */
+    public RotatingBloomFilter(TokenBloomProperties properties, long accessTokenExpiryMillis) {
+        this(properties.getBitsPerBucket(), properties.getHashFunctions(),
+                properties.getBucketWidth(), accessTokenExpiryMillis + properties.getClockSkew(),
+                properties.getMaxAheadOfRing());
+    }
+
+    /**
+     * Bucket a token belongs to, derived from its expiry
+     */
+    public long bucketIndex(long expiresAtMillis) {
+        return expiresAtMillis / bucketWidth;
+    }
+
+    /**
+     * End of a bucket's window; after this every token in it has expired
+     */
+    public long bucketExpiresAt(long bucketIndex) {
+        return (bucketIndex + 1) * bucketWidth;
+    }
+
+    /**
+     * Bucket indexes that may still hold unexpired tokens at the given time
+     */
+    public long firstLiveBucket(long nowMillis) {
+        return bucketIndex(nowMillis);
+    }
+
+    public long lastLiveBucket(long nowMillis) {
+        return firstLiveBucket(nowMillis) + slots.length() - 1;
+    }
+
+    public void add(String tokenId, long expiresAtMillis) {
+        add(tokenId, expiresAtMillis, System.currentTimeMillis());
+    }
+
+    public void add(String tokenId, long expiresAtMillis, long nowMillis) {
+        long bucketIndex = bucketIndex(expiresAtMillis);
+        if (bucketIndex < firstLiveBucket(nowMillis)) {
+            return; // Token already expired
+        }
+        if (bucketIndex > lastLiveBucket(nowMillis)) {
+            addAheadOfRing(tokenId, expiresAtMillis, nowMillis);
+            return;
+        }
+        Bucket bucket = bucketFor(bucketIndex, true, nowMillis);
+        if (bucket == null) {
+            return;
+        }
+        long h1 = hash(tokenId, SEED_1);
+        long h2 = hash(tokenId, SEED_2);
+        for (int i = 0; i < hashFunctions; i++) {
+            bucket.set(offset(h1, h2, i));
+        }
+    }
+
+    /**
+     * False means the token was definitely not revoked; true means it might have been
+     */
+    public boolean mightContain(String tokenId, long expiresAtMillis) {
+        return mightContain(tokenId, expiresAtMillis, System.currentTimeMillis());
+    }
+
+    public boolean mightContain(String tokenId, long expiresAtMillis, long nowMillis) {
+        long bucketIndex = bucketIndex(expiresAtMillis);
+        if (bucketIndex < firstLiveBucket(nowMillis) || bucketIndex > lastLiveBucket(nowMillis)
+                || aheadOfRing.containsKey(tokenId)) {
+            return true; // Outside the ring: not tracked here, let the caller ask Redis
+        }
+        ExpiryRange dropped = overflow.get();
+        if (dropped != null && dropped.covers(expiresAtMillis)) {
+            return true; // May be one of the adds the full side map could not keep
+        }
+        Bucket bucket = bucketFor(bucketIndex, false, nowMillis);
+        if (bucket == null) {
+            return false; // Nothing was added to this live bucket
+        }
+        long h1 = hash(tokenId, SEED_1);
+        long h2 = hash(tokenId, SEED_2);
+        for (int i = 0; i < hashFunctions; i++) {
+            if (!bucket.get(offset(h1, h2, i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Bit offsets for a token, used to mirror add() with Redis SETBIT
+     */
+    public long[] offsets(String tokenId) {
+        long h1 = hash(tokenId, SEED_1);
+        long h2 = hash(tokenId, SEED_2);
+        long[] offsets = new long[hashFunctions];
+        for (int i = 0; i < hashFunctions; i++) {
+            offsets[i] = offset(h1, h2, i);
+        }
+        return offsets;
+    }
+
+    /**
+     * Replace a bucket with a Redis bitmap (GET of the bucket key)
+     * Redis stores bit 0 as the most significant bit of the first byte
+     */
+    public void loadBucket(long bucketIndex, byte[] redisBitmap) {
+        Bucket bucket = new Bucket(bucketIndex, bitsPerBucket);
+        int length = Math.min(redisBitmap.length, bitsPerBucket / 8);
+        for (int i = 0; i < length; i++) {
+            int value = redisBitmap[i] & 0xFF;
+            if (value == 0) {
+                continue;
+            }
+            for (int bit = 0; bit < 8; bit++) {
+                if ((value & (0x80 >>> bit)) != 0) {
+                    bucket.set(i * 8L + bit);
+                }
+            }
+        }
+        // Keep bits added by events that arrived while the bitmap was loading,
+        // merging again after the swap for adds that raced with it
+        Bucket current = slots.getAndSet(slot(bucketIndex), bucket);
+        if (current != null && current.index == bucketIndex) {
+            bucket.merge(current);
+        } else {
+            pruneAheadOfRing(System.currentTimeMillis()); // The slot rotated to a newer bucket
+        }
+    }
+
+    /**
+     * Number of revocations held outside the ring
+     */
+    public int aheadOfRingSize() {
+        return aheadOfRing.size();
+    }
+
+    private void addAheadOfRing(String tokenId, long expiresAtMillis, long nowMillis) {
+        pruneAheadOfRing(nowMillis);
+        if (aheadOfRing.size() < maxAheadOfRing || aheadOfRing.containsKey(tokenId)) {
+            aheadOfRing.put(tokenId, expiresAtMillis);
+            return;
+        }
+        // Full: remember only the expiry, so lookups in that range stay conservative
+        overflow.accumulateAndGet(new ExpiryRange(expiresAtMillis, expiresAtMillis),
+                (current, added) -> current == null ? added : current.widen(added));
+    }
+
+    private void pruneAheadOfRing(long nowMillis) {
+        aheadOfRing.values().removeIf(expiresAt -> expiresAt <= nowMillis);
+        ExpiryRange dropped = overflow.get();
+        if (dropped != null && dropped.until <= nowMillis) {
+            overflow.compareAndSet(dropped, null);
+        }
+    }
+
+    private Bucket bucketFor(long bucketIndex, boolean create, long nowMillis) {
+        int slot = slot(bucketIndex);
+        while (true) {
+            Bucket bucket = slots.get(slot);
+            if (bucket != null && bucket.index == bucketIndex) {
+                return bucket;
+            }
+            if (!create || (bucket != null && bucket.index > bucketIndex)) {
+                return null;
+            }
+            // Slot holds an expired bucket (or nothing yet): recycle it
+            if (slots.compareAndSet(slot, bucket, new Bucket(bucketIndex, bitsPerBucket))) {
+                pruneAheadOfRing(nowMillis);
+                return slots.get(slot);
+            }
+        }
+    }
+
+    private int slot(long bucketIndex) {
+        return (int) Math.floorMod(bucketIndex, (long) slots.length());
+    }
+
+    private long offset(long h1, long h2, int i) {
+        return Math.floorMod(h1 + i * h2, (long) bitsPerBucket);
+    }
+
+    /**
+     * 64-bit FNV-1a over the UTF-16 chars, finished with the murmur3 mixer
+     */
+    private static long hash(String value, long seed) {
+        long h = seed;
+        for (int i = 0; i < value.length(); i++) {
+            h ^= value.charAt(i);
+            h *= 0x100000001B3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    private record ExpiryRange(long from, long until) {
+
+        boolean covers(long expiresAtMillis) {
+            return expiresAtMillis >= from && expiresAtMillis <= until;
+        }
+
+        ExpiryRange widen(ExpiryRange other) {
+            return new ExpiryRange(Math.min(from, other.from), Math.max(until, other.until));
+        }
+    }
+
+    private static final class Bucket {
+
+        private final long index;
+        private final AtomicLongArray words;
+
+        Bucket(long index, int bits) {
+            this.index = index;
+            this.words = new AtomicLongArray(bits / 64);
+        }
+
+        void set(long offset) {
+            int word = (int) (offset >>> 6);
+            long mask = 1L << (offset & 63);
+            long current;
+            do {
+                current = words.get(word);
+                if ((current & mask) != 0) {
+                    return;
+                }
+            } while (!words.compareAndSet(word, current, current | mask));
+        }
+
+        boolean get(long offset) {
+            return (words.get((int) (offset >>> 6)) & (1L << (offset & 63))) != 0;
+        }
+
+        void merge(Bucket other) {
+            for (int i = 0; i < words.length(); i++) {
+                long bits = other.words.get(i);
+                if (bits != 0) {
+                    words.accumulateAndGet(i, bits, (a, b) -> a | b);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.sinha.ecom_system.common.security;
+
+import com.sinha.ecom_system.common.enums.Permission;
+import com.sinha.ecom_system.common.enums.SystemRole;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UserContextCodecTest {
+
+    private static final String SECRET = "gateway-secret-for-tests";
+    private static final UUID USER_ID = UUID.fromString("0192f0c8-3a1b-7c2d-8e3f-405162738495");
+
+    private final UserContextCodec codec = new UserContextCodec(SECRET);
+
+    @Test
+    void sealedContextRoundTrips() {
+        long expiresAt = inSeconds(600);
+        int mask = Permission.TRADE.mask() | Permission.VIEW_REPORTS.mask();
+        String header = seal(codec, expiresAt, mask, "trader@example.com", SystemRole.ROLE_TRADER, SystemRole.ROLE_USER);
+
+        UserContext context = codec.decode(header);
+
+        assertThat(context).isNotNull();
+        assertThat(context.getUserId()).isEqualTo(USER_ID);
+        assertThat(context.getExpiresAt()).isEqualTo(expiresAt);
+        assertThat(context.getPermissionMask()).isEqualTo(mask);
+        assertThat(context.hasPermission(Permission.VIEW_REPORTS)).isTrue();
+        assertThat(context.hasPermission(Permission.MANAGE_USERS)).isFalse();
+        assertThat(context.getRoleCount()).isEqualTo(2);
+        assertThat(context.hasRole(SystemRole.ROLE_TRADER)).isTrue();
+        assertThat(context.hasRole(SystemRole.ROLE_ADMIN)).isFalse();
+        assertThat(context.getEmail()).isEqualTo("trader@example.com");
+    }
+
+    @Test
+    void contextWithoutRolesOrEmailRoundTrips() {
+        UserContext context = codec.decode(seal(codec, inSeconds(600), 0, ""));
+
+        assertThat(context).isNotNull();
+        assertThat(context.getRoleCount()).isEqualTo(0);
+        assertThat(context.getEmail()).isNull();
+    }
+
+    @Test
+    void tamperedPayloadIsRejected() {
+        byte[] data = Base64.getUrlDecoder().decode(
+                seal(codec, inSeconds(600), Permission.TRADE.mask(), "user@example.com"));
+        // Grant MANAGE_USERS without re-sealing
+        data[UserContext.PERMISSIONS_OFFSET + 3] |= (byte) Permission.MANAGE_USERS.mask();
+
+        assertThat(codec.decode(Base64.getUrlEncoder().withoutPadding().encodeToString(data))).isNull();
+    }
+
+    @Test
+    void tamperedMacIsRejected() {
+        byte[] data = Base64.getUrlDecoder().decode(seal(codec, inSeconds(600), 0, "user@example.com"));
+        data[data.length - 1] ^= 1;
+
+        assertThat(codec.decode(Base64.getUrlEncoder().withoutPadding().encodeToString(data))).isNull();
+    }
+
+    @Test
+    void contextSealedWithAnotherSecretIsRejected() {
+        String header = seal(new UserContextCodec("another-secret"), inSeconds(600), 0, "user@example.com");
+
+        assertThat(codec.decode(header)).isNull();
+    }
+
+    @Test
+    void expiredContextIsRejected() {
+        String header = seal(codec, inSeconds(-1), 0, "user@example.com");
+
+        assertThat(codec.decode(header)).isNull();
+    }
+
+    @Test
+    void malformedHeadersAreRejected() {
+        assertThat(codec.decode("not base64 !")).isNull();
+        assertThat(codec.decode("")).isNull();
+        assertThat(codec.decode(Base64.getUrlEncoder().encodeToString(new byte[UserContext.MAC_LENGTH]))).isNull();
+    }
+
+    @Test
+    void inconsistentLengthIsRejectedEvenWhenSigned() {
+        // Claims 3 roles but carries none: MAC is valid, layout is not
+        byte[] data = payload(inSeconds(600), 0, "");
+        data[UserContext.ROLE_COUNT_OFFSET] = 3;
+
+        assertThat(codec.decode(codec.seal(data, data.length - UserContext.MAC_LENGTH))).isNull();
+    }
+
+    /**
+     * Builds a payload the way the gateway's UserContextEncoder does
+     */
+    private static byte[] payload(long expiresAt, int permissionMask, String email, SystemRole... roles) {
+        byte[] emailBytes = email.getBytes(StandardCharsets.UTF_8);
+        byte[] data = new byte[UserContext.ROLES_OFFSET + roles.length + 2 + emailBytes.length + UserContext.MAC_LENGTH];
+        data[0] = UserContext.VERSION;
+        writeLong(data, UserContext.USER_ID_OFFSET, USER_ID.getMostSignificantBits());
+        writeLong(data, UserContext.USER_ID_OFFSET + 8, USER_ID.getLeastSignificantBits());
+        writeInt(data, UserContext.EXPIRES_AT_OFFSET, (int) (expiresAt / 1000));
+        writeInt(data, UserContext.PERMISSIONS_OFFSET, permissionMask);
+        data[UserContext.ROLE_COUNT_OFFSET] = (byte) roles.length;
+        int offset = UserContext.ROLES_OFFSET;
+        for (SystemRole role : roles) {
+            data[offset++] = (byte) role.getId();
+        }
+        data[offset++] = (byte) (emailBytes.length >>> 8);
+        data[offset++] = (byte) emailBytes.length;
+        System.arraycopy(emailBytes, 0, data, offset, emailBytes.length);
+        return data;
+    }
+
+    private static String seal(UserContextCodec codec, long expiresAt, int permissionMask, String email,
+                               SystemRole... roles) {
+        byte[] data = payload(expiresAt, permissionMask, email, roles);
+        return codec.seal(data, data.length - UserContext.MAC_LENGTH);
+    }
+
+    private static long inSeconds(long seconds) {
+        return (System.currentTimeMillis() / 1000 + seconds) * 1000;
+    }
+
+    private static void writeInt(byte[] b, int off, int value) {
+        b[off] = (byte) (value >>> 24);
+        b[off + 1] = (byte) (value >>> 16);
+        b[off + 2] = (byte) (value >>> 8);
+        b[off + 3] = (byte) value;
+    }
+
+    private static void writeLong(byte[] b, int off, long value) {
+        writeInt(b, off, (int) (value >>> 32));
+        writeInt(b, off + 4, (int) value);
+    }
+}
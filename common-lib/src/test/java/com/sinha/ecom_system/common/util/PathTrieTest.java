@@ -0,0 +1,73 @@
+package com.sinha.ecom_system.common.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PathTrieTest {
+
+    private final PathTrie<Boolean> bypass = PathTrie.of(List.of(
+            "/v1/api/auth/login",
+            "/actuator/health/**"));
+
+    @Test
+    void exactRuleMatchesOnlyThatPath() {
+        assertThat(bypass.matches("/v1/api/auth/login")).isTrue();
+
+        assertThat(bypass.matches("/v1/api/auth/login/")).isFalse();
+        assertThat(bypass.matches("/v1/api/auth/login/x")).isFalse();
+        assertThat(bypass.matches("/v1/api/auth/loginx")).isFalse();
+        assertThat(bypass.matches("/v1/api/auth/log")).isFalse();
+        assertThat(bypass.matches("/v1/api/auth/login/../../users")).isFalse();
+        assertThat(bypass.matches("/V1/api/auth/login")).isFalse();
+    }
+
+    @Test
+    void prefixRuleMatchesOnSegmentBoundaries() {
+        assertThat(bypass.matches("/actuator/health")).isTrue();
+        assertThat(bypass.matches("/actuator/health/")).isTrue();
+        assertThat(bypass.matches("/actuator/health/liveness")).isTrue();
+
+        assertThat(bypass.matches("/actuator/healthz")).isFalse();
+        assertThat(bypass.matches("/actuator/heal")).isFalse();
+        assertThat(bypass.matches("/actuator")).isFalse();
+    }
+
+    @Test
+    void catchAllMatchesEveryPath() {
+        PathTrie<Boolean> all = PathTrie.of(List.of("/**"));
+
+        assertThat(all.matches("/")).isTrue();
+        assertThat(all.matches("/anything/below")).isTrue();
+    }
+
+    @Test
+    void longestRuleWinsAndExactBeatsPrefix() {
+        PathTrie<String> trie = new PathTrie<String>()
+                .put("/**", "default")
+                .put("/v1/api/**", "api")
+                .put("/v1/api/auth/**", "auth")
+                .put("/v1/api/auth", "auth-root");
+
+        assertThat(trie.match("/other")).isEqualTo("default");
+        assertThat(trie.match("/v1/api/users")).isEqualTo("api");
+        assertThat(trie.match("/v1/api/auth/login")).isEqualTo("auth");
+        assertThat(trie.match("/v1/api/auth")).isEqualTo("auth-root");
+        assertThat(trie.match("/v1/api/authx")).isEqualTo("api");
+    }
+
+    @Test
+    void missingPathMatchesNothing() {
+        assertThat(bypass.match(null)).isNull();
+        assertThat(bypass.matches("")).isFalse();
+    }
+
+    @Test
+    void blankRuleIsRejected() {
+        assertThatThrownBy(() -> new PathTrie<Boolean>().put(" ", true))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,119 @@
+package com.sinha.ecom_system.common.util;
+
+import com.sinha.ecom_system.common.config.TokenBloomProperties;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RotatingBloomFilterTest {
+
+    private static final long WIDTH = 1000;
+    private static final long LIFETIME = 3000;
+    private static final long NOW = 1_000_000;
+
+    private final RotatingBloomFilter filter = new RotatingBloomFilter(64 * 64, 5, WIDTH, LIFETIME);
+
+    @Test
+    void addedTokensAreAlwaysReported() {
+        for (int i = 0; i < 200; i++) {
+            filter.add("jti-" + i, NOW + 1 + (i * 13L) % LIFETIME, NOW);
+        }
+        for (int i = 0; i < 200; i++) {
+            assertThat(filter.mightContain("jti-" + i, NOW + 1 + (i * 13L) % LIFETIME, NOW)).isTrue();
+        }
+    }
+
+    @Test
+    void tokenInEmptyLiveBucketIsNotRevoked() {
+        assertThat(filter.mightContain("never-added", NOW + 500, NOW)).isFalse();
+    }
+
+    @Test
+    void expiryBeyondRingFallsThroughToRedis() {
+        assertThat(filter.mightContain("never-added", NOW + LIFETIME + 5 * WIDTH, NOW)).isTrue();
+    }
+
+    @Test
+    void expiryBeforeRingFallsThroughToRedis() {
+        assertThat(filter.mightContain("never-added", NOW - 2 * WIDTH, NOW)).isTrue();
+    }
+
+    @Test
+    void addBeyondRingDoesNotRecycleLiveBucket() {
+        long liveExpiry = NOW + WIDTH;
+        filter.add("live", liveExpiry, NOW);
+
+        // Same ring slot as the live bucket, one full ring later
+        long slots = filter.lastLiveBucket(NOW) - filter.firstLiveBucket(NOW) + 1;
+        filter.add("ahead", liveExpiry + slots * WIDTH, NOW);
+
+        assertThat(filter.mightContain("live", liveExpiry, NOW)).isTrue();
+    }
+
+    @Test
+    void tokenAddedAheadOfRingIsReportedOnceRingCatchesUp() {
+        long expiry = NOW + LIFETIME + 2 * WIDTH;
+        filter.add("ahead", expiry, NOW);
+
+        long later = NOW + 3 * WIDTH;
+        assertThat(filter.bucketIndex(expiry)).isLessThanOrEqualTo(filter.lastLiveBucket(later));
+        assertThat(filter.mightContain("ahead", expiry, later)).isTrue();
+    }
+
+    @Test
+    void aheadOfRingIsPrunedWhenBucketRotates() {
+        long expiry = NOW + LIFETIME + 2 * WIDTH;
+        filter.add("ahead", expiry, NOW);
+        assertThat(filter.aheadOfRingSize()).isEqualTo(1);
+
+        // First add into a fresh bucket after the side entry expired
+        long later = expiry + 1;
+        filter.add("rotating", later + WIDTH, later);
+
+        assertThat(filter.aheadOfRingSize()).isZero();
+    }
+
+    @Test
+    void fullAheadOfRingAnswersConservativelyInsteadOfGrowing() {
+        RotatingBloomFilter capped = new RotatingBloomFilter(64 * 64, 5, WIDTH, LIFETIME, 2);
+        long ahead = NOW + LIFETIME + 2 * WIDTH;
+        capped.add("first", ahead, NOW);
+        capped.add("second", ahead + 10, NOW);
+        capped.add("dropped", ahead + 20, NOW);
+        capped.add("dropped-later", ahead + 40, NOW);
+
+        assertThat(capped.aheadOfRingSize()).isEqualTo(2);
+        // Once the ring catches up, dropped tokens are still reported
+        long later = NOW + 3 * WIDTH;
+        assertThat(capped.mightContain("dropped", ahead + 20, later)).isTrue();
+        assertThat(capped.mightContain("dropped-later", ahead + 40, later)).isTrue();
+        // Outside the dropped range the filter stays precise
+        assertThat(capped.mightContain("never-added", NOW + 3 * WIDTH + 500, later)).isFalse();
+    }
+
+    @Test
+    void ringCoversAccessTokenExpiryPlusClockSkew() {
+        TokenBloomProperties properties = new TokenBloomProperties();
+        properties.setBitsPerBucket(64);
+        properties.setBucketWidth(300000);
+        properties.setClockSkew(60000);
+        RotatingBloomFilter sized = new RotatingBloomFilter(properties, 900000);
+
+        long now = 0;
+        assertThat(sized.lastLiveBucket(now))
+                .isGreaterThanOrEqualTo(sized.bucketIndex(now + 900000 + 60000));
+    }
+
+    @Test
+    void loadedRedisBitmapMatchesOffsets() {
+        long expiry = NOW + 1500;
+        byte[] bitmap = new byte[64 * 64 / 8];
+        for (long offset : filter.offsets("from-redis")) {
+            bitmap[(int) (offset / 8)] |= (byte) (0x80 >>> (offset % 8));
+        }
+
+        filter.loadBucket(filter.bucketIndex(expiry), bitmap);
+
+        assertThat(filter.mightContain("from-redis", expiry, NOW)).isTrue();
+    }
+}
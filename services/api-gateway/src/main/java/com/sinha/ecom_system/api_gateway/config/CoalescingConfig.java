@@ -0,0 +1,19 @@
+package com.sinha.ecom_system.api_gateway.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Request Coalescing Configuration
+ * Limits for collapsing identical concurrent GETs, read from api-gateway.coalescing
+ */
+@Configuration
+@ConfigurationProperties(prefix = "api-gateway.coalescing")
+@Data
+public class CoalescingConfig {
+
+    private boolean enabled = true;
+    private int maxBodyBytes = 256 * 1024;   // Larger responses are not shared; waiters call downstream themselves
+    private long maxWaitMillis = 5000;       // Waiters give up and call downstream after this
+}
@@ -0,0 +1,20 @@
+package com.sinha.ecom_system.api_gateway.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Gateway Metrics Configuration
+ * Per-route / per-stage latency timers, read from api-gateway.metrics
+ */
+@Configuration
+@ConfigurationProperties(prefix = "api-gateway.metrics")
+@Data
+public class GatewayMetricsConfig {
+
+    private boolean enabled = true;
+    private double sampleRate = 1.0;          // Fraction of requests timed; unsampled requests skip all timing
+    private boolean histogram = true;         // Publish percentile histogram buckets (HdrHistogram-backed)
+    private long slowStageMillis = 500;       // Log stages slower than this with the request ID
+}
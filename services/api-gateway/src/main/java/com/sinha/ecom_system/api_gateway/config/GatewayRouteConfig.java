@@ -1,10 +1,15 @@
 package com.sinha.ecom_system.api_gateway.config;
 
+import com.sinha.ecom_system.api_gateway.filter.RequestCoalescingGatewayFilterFactory;
+import com.sinha.ecom_system.api_gateway.filter.ResponseCacheGatewayFilterFactory;
 import org.springframework.cloud.gateway.route.RouteLocator;
 import org.springframework.cloud.gateway.route.builder.RouteLocatorBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.time.Duration;
+import java.util.List;
+
 /**
  * Gateway Route Configuration
  * Defines routing rules for microservices
@@ -13,12 +18,22 @@ import org.springframework.context.annotation.Configuration;
 public class GatewayRouteConfig {
 
     @Bean
-    public RouteLocator customRouteLocator(RouteLocatorBuilder builder) {
+    public RouteLocator customRouteLocator(RouteLocatorBuilder builder,
+                                           ResponseCacheGatewayFilterFactory responseCache,
+                                           RequestCoalescingGatewayFilterFactory requestCoalescing) {
         return builder.routes()
                 // User Service Routes
                 .route("user-service", r -> r
                         .path("/v1/api/user-service/**")
                         .filters(f -> f
+                                // Cache GETs per user; PUT/PATCH/POST invalidate the path,
+                                // except POSTs that only read (batch lookups)
+                                .filter(responseCache.apply(c -> {
+                                    c.setTtl(Duration.ofSeconds(30));
+                                    c.setReadOnlyPaths(List.of("/v1/api/user-service/users/batch-get"));
+                                }))
+                                // Cache misses for the same user/path share one downstream call
+                                .filter(requestCoalescing.apply(c -> { }))
                                 .rewritePath("/v1/api/user-service/(?<segment>.*)", "/${segment}")
                                 .removeRequestHeader("Cookie")) // Remove cookies for stateless behavior
                         .uri("lb://USER-SERVICE"))
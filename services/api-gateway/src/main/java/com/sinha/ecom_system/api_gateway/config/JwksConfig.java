@@ -0,0 +1,61 @@
+package com.sinha.ecom_system.api_gateway.config;
+
+import com.sinha.ecom_system.common.security.JwksKeyProvider;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * JWKS Configuration
+ * Verification keys for EdDSA tokens, fetched from auth-service (JWT_JWKS_URI)
+ *
+ * - default: lb://auth-service/.well-known/jwks.json, resolved through service
+ *   discovery to a registered auth-service instance on every refresh
+ * - an http(s) URI is used as is
+ * - a blank JWT_JWKS_URI fails startup: auth-service signs every token with
+ *   EdDSA, so without keys the gateway would reject all of them
+ */
+@Configuration
+public class JwksConfig {
+
+    private static final String LOAD_BALANCED_SCHEME = "lb";
+
+    @Bean(destroyMethod = "close")
+    public JwksKeyProvider jwksKeyProvider(JwtConfig jwtConfig, DiscoveryClient discoveryClient) {
+        String configured = jwtConfig.getJwksUri();
+        if (configured == null || configured.isBlank()) {
+            throw new IllegalStateException("JWT_JWKS_URI must not be blank: EdDSA tokens cannot be verified without it");
+        }
+        URI jwksUri = URI.create(configured.trim());
+        Supplier<URI> resolver = LOAD_BALANCED_SCHEME.equals(jwksUri.getScheme())
+                ? () -> resolve(discoveryClient, jwksUri)
+                : () -> jwksUri;
+
+        JwksKeyProvider provider = new JwksKeyProvider(
+                resolver,
+                Duration.ofMillis(jwtConfig.getJwksRefreshInterval()),
+                Duration.ofSeconds(30));
+        // Blocks startup briefly so the first requests can already verify EdDSA tokens
+        provider.start(Duration.ofSeconds(10));
+        return provider;
+    }
+
+    /**
+     * lb://service-id/path -> http(s)://host:port/path of a random registered instance
+     */
+    private static URI resolve(DiscoveryClient discoveryClient, URI jwksUri) {
+        List<ServiceInstance> instances = discoveryClient.getInstances(jwksUri.getHost());
+        if (instances.isEmpty()) {
+            throw new IllegalStateException("No registered instance of " + jwksUri.getHost());
+        }
+        ServiceInstance instance = instances.get(ThreadLocalRandom.current().nextInt(instances.size()));
+        return instance.getUri().resolve(jwksUri.getRawPath());
+    }
+}
@@ -12,7 +12,7 @@ import org.springframework.context.annotation.Configuration;
 @Data
 public class JwtConfig {
     
-    @Value("${JWT_SECRET_KEY}")
+    @Value("${JWT_SECRET_KEY:}") // Only needed while JWT_ACCEPT_HMAC is true
     private String secretKey;
     
     @Value("${JWT_ACCESS_TOKEN_EXPIRY:900000}") // Default: 15 minutes
@@ -23,5 +23,20 @@ public class JwtConfig {
     
     @Value("${JWT_ISSUER:trading-platform}")
     private String issuer;
+
+    @Value("${JWT_VERIFIED_CACHE_ENABLED:true}") // Cache verified claims per token digest
+    private boolean verifiedCacheEnabled;
+
+    @Value("${JWT_VERIFIED_CACHE_MAX_SIZE:100000}") // Max distinct tokens kept in memory
+    private long verifiedCacheMaxSize;
+
+    @Value("${JWT_ACCEPT_HMAC:false}") // Migration only: accept HS256 tokens (no kid) until those issued before EdDSA have expired
+    private boolean acceptHmac;
+
+    @Value("${JWT_JWKS_URI:lb://auth-service/.well-known/jwks.json}") // auth-service JWKS endpoint (lb:// = via discovery)
+    private String jwksUri;
+
+    @Value("${JWT_JWKS_REFRESH_INTERVAL:300000}") // Default: 5 minutes
+    private long jwksRefreshInterval;
 }
 
@@ -0,0 +1,21 @@
+package com.sinha.ecom_system.api_gateway.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Public Endpoint Configuration
+ * Paths that skip JWT authentication, read from api-gateway.public-endpoints
+ * "/a/b" matches exactly, "/a/b/**" matches the path and everything below it
+ */
+@Configuration
+@ConfigurationProperties(prefix = "api-gateway")
+@Data
+public class PublicEndpointConfig {
+
+    private List<String> publicEndpoints = new ArrayList<>();
+}
@@ -0,0 +1,48 @@
+package com.sinha.ecom_system.api_gateway.config;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Rate Limit Configuration
+ * Token bucket policies per path, read from api-gateway.rate-limit
+ *
+ * lease-size trades accuracy for Redis traffic: each gateway takes that many
+ * tokens from the shared Redis bucket at once and spends them locally, so a key
+ * can overshoot its limit by at most (gateways * lease-size). 1 = exact.
+ *
+ * trusted-proxy-hops is the number of proxies (load balancers) in front of the
+ * gateway that append to X-Forwarded-For. The client IP is taken that many entries
+ * from the right; 0 uses the TCP peer address and ignores the header.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "api-gateway.rate-limit")
+@Data
+public class RateLimitConfig {
+
+    private boolean enabled = true;
+    private int leaseSize = 10;
+    private long localBucketIdleMillis = 60000;   // Drop local buckets (and unspent leases) after this
+    private int trustedProxyHops = 0;             // Proxies in front of the gateway that set X-Forwarded-For
+    private Policy defaultPolicy = new Policy(new ArrayList<>(), 200, 100, null);
+    private Map<String, Policy> policies = new LinkedHashMap<>();
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Policy {
+
+        private List<String> paths = new ArrayList<>();   // PathTrie rules, "/a/b" or "/a/b/**"
+        private long capacity;                             // Burst size
+        private double refillPerSecond;                    // Sustained rate
+        private Integer leaseSize;                         // Overrides the global lease size
+    }
+}
@@ -1,14 +1,19 @@
 package com.sinha.ecom_system.api_gateway.config;
 
+import io.lettuce.core.resource.ClientResources;
+import io.lettuce.core.resource.DefaultClientResources;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
 import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
 import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceClientConfiguration;
 import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
 import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.listener.ReactiveRedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
 /**
@@ -27,19 +32,32 @@ public class ReactiveRedisConfig {
     @Value("${REDIS_PASSWORD:}")
     private String redisPassword;
 
+    /**
+     * Shared Lettuce resources
+     * Exposed as a bean so components can watch connection events on its event bus
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ClientResources lettuceClientResources() {
+        return DefaultClientResources.create();
+    }
+
     /**
      * Configure Reactive Redis Connection Factory
      */
     @Bean
     @Primary
-    public ReactiveRedisConnectionFactory reactiveRedisConnectionFactory() {
+    public ReactiveRedisConnectionFactory reactiveRedisConnectionFactory(ClientResources clientResources) {
         RedisStandaloneConfiguration config = new RedisStandaloneConfiguration(redisHost, redisPort);
         
         if (redisPassword != null && !redisPassword.isEmpty()) {
             config.setPassword(redisPassword);
         }
+
+        LettuceClientConfiguration clientConfig = LettuceClientConfiguration.builder()
+                .clientResources(clientResources)
+                .build();
         
-        return new LettuceConnectionFactory(config);
+        return new LettuceConnectionFactory(config, clientConfig);
     }
 
     /**
@@ -62,5 +80,33 @@ public class ReactiveRedisConfig {
         
         return new ReactiveRedisTemplate<>(connectionFactory, context);
     }
-}
 
+    /**
+     * Reactive Redis Template for binary values (cached responses)
+     */
+    @Bean
+    public ReactiveRedisTemplate<String, byte[]> reactiveRedisBytesTemplate(
+            ReactiveRedisConnectionFactory connectionFactory) {
+
+        StringRedisSerializer serializer = new StringRedisSerializer();
+
+        RedisSerializationContext<String, byte[]> context = RedisSerializationContext
+                .<String, byte[]>newSerializationContext(serializer)
+                .key(serializer)
+                .value(RedisSerializer.byteArray())
+                .hashKey(serializer)
+                .hashValue(RedisSerializer.byteArray())
+                .build();
+
+        return new ReactiveRedisTemplate<>(connectionFactory, context);
+    }
+
+    /**
+     * Listener container for Redis pub/sub channels (token revocations, cache invalidations)
+     */
+    @Bean(destroyMethod = "destroy")
+    public ReactiveRedisMessageListenerContainer reactiveRedisMessageListenerContainer(
+            ReactiveRedisConnectionFactory connectionFactory) {
+        return new ReactiveRedisMessageListenerContainer(connectionFactory);
+    }
+}
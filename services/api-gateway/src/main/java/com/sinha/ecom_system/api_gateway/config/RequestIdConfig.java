@@ -0,0 +1,28 @@
+package com.sinha.ecom_system.api_gateway.config;
+
+import com.sinha.ecom_system.api_gateway.util.RandomRequestIdGenerator;
+import com.sinha.ecom_system.api_gateway.util.RequestIdGenerator;
+import com.sinha.ecom_system.api_gateway.util.TimeOrderedRequestIdGenerator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Request ID Configuration
+ * api-gateway.request-id.generator: time-ordered (default) or random
+ */
+@Configuration
+public class RequestIdConfig {
+
+    @Value("${api-gateway.request-id.generator:time-ordered}")
+    private String generator;
+
+    @Bean
+    public RequestIdGenerator requestIdGenerator() {
+        return switch (generator) {
+            case "time-ordered" -> new TimeOrderedRequestIdGenerator();
+            case "random" -> new RandomRequestIdGenerator();
+            default -> throw new IllegalArgumentException("Unknown request ID generator: " + generator);
+        };
+    }
+}
@@ -0,0 +1,22 @@
+package com.sinha.ecom_system.api_gateway.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Response Cache Configuration
+ * Storage limits for the opt-in response cache, read from api-gateway.response-cache
+ * (which routes are cached, and for how long, is set per route in GatewayRouteConfig)
+ */
+@Configuration
+@ConfigurationProperties(prefix = "api-gateway.response-cache")
+@Data
+public class ResponseCacheConfig {
+
+    private boolean enabled = true;
+    private long maxMemoryBytes = 64L * 1024 * 1024;   // In-memory layer, bounded by body bytes
+    private int maxBodyBytes = 256 * 1024;             // Larger responses are never cached
+    private long maxTtlMillis = 300000;                // Upper bound for downstream max-age
+    private boolean redisEnabled = false;              // Shared second layer across gateways
+}
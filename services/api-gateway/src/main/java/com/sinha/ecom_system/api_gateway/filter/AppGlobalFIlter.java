@@ -1,34 +1,75 @@
 package com.sinha.ecom_system.api_gateway.filter;
 
+import com.sinha.ecom_system.api_gateway.util.RequestIdGenerator;
+import com.sinha.ecom_system.api_gateway.util.StageTimer;
+import com.sinha.ecom_system.api_gateway.util.StageTimer.Stage;
 import com.sinha.ecom_system.common.contants.CommonConstants;
 import org.springframework.cloud.gateway.filter.GatewayFilterChain;
 import org.springframework.cloud.gateway.filter.GlobalFilter;
 import org.springframework.core.annotation.Order;
-import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.stereotype.Component;
 import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
 
-import java.util.UUID;
-
+/**
+ * Runs first: assigns the request ID and times the whole request
+ *
+ * An incoming X-Request-ID is kept; otherwise one is generated. The ID is only
+ * stored as an exchange attribute here: JwtAuthenticationGlobalFilter adds the
+ * header in the same request copy as the user headers.
+ */
 @Component
-@Order(1)
+@Order(-200)
 public class AppGlobalFIlter implements GlobalFilter {
+
+    /**
+     * Exchange attribute holding the request ID
+     */
+    public static final String REQUEST_ID_ATTR = AppGlobalFIlter.class.getName() + ".requestId";
+
+    private static final int MAX_REQUEST_ID_LENGTH = 128;
+
+    private final RequestIdGenerator requestIdGenerator;
+    private final StageTimer stageTimer;
+
+    public AppGlobalFIlter(RequestIdGenerator requestIdGenerator, StageTimer stageTimer) {
+        this.requestIdGenerator = requestIdGenerator;
+        this.stageTimer = stageTimer;
+    }
+
     @Override
     public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
 
-        UUID requestId = UUID.randomUUID();
+        stageTimer.sample(exchange);
+        long startedAt = stageTimer.start(exchange);
 
-        ServerHttpRequest request = exchange.getRequest();
+        String requestId = exchange.getRequest().getHeaders().getFirst(CommonConstants.HEADER_REQUEST_ID);
+        if (!isValidRequestId(requestId)) {
+            requestId = requestIdGenerator.nextId();
+        }
+        exchange.getAttributes().put(REQUEST_ID_ATTR, requestId);
 
-        ServerHttpRequest mutatedRequest = request.mutate()
-                .header(CommonConstants.HEADER_REQUEST_ID, requestId.toString())
-                .build();
+        stageTimer.stop(exchange, Stage.REQUEST_ID, startedAt);
 
-        ServerWebExchange mutatedExchange = exchange.mutate()
-                .request(mutatedRequest)
-                .build();
+        return chain.filter(exchange)
+                .doFinally(signal -> stageTimer.stop(exchange, Stage.TOTAL, startedAt));
+    }
 
-        return chain.filter(mutatedExchange);
+    /**
+     * Reject client IDs that could break log lines or headers downstream
+     */
+    private boolean isValidRequestId(String requestId) {
+        if (requestId == null || requestId.isEmpty() || requestId.length() > MAX_REQUEST_ID_LENGTH) {
+            return false;
+        }
+        for (int i = 0; i < requestId.length(); i++) {
+            char c = requestId.charAt(i);
+            boolean allowed = (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')
+                    || c == '-' || c == '_' || c == '.' || c == ':';
+            if (!allowed) {
+                return false;
+            }
+        }
+        return true;
     }
 }
@@ -0,0 +1,36 @@
+package com.sinha.ecom_system.api_gateway.filter;
+
+import com.sinha.ecom_system.api_gateway.util.StageTimer;
+import com.sinha.ecom_system.api_gateway.util.StageTimer.Stage;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+/**
+ * Times the downstream call (until response headers arrive)
+ * Runs just before the routing filter, after every other gateway filter
+ */
+@Component
+public class DownstreamTimingGlobalFilter implements GlobalFilter, Ordered {
+
+    private final StageTimer stageTimer;
+
+    public DownstreamTimingGlobalFilter(StageTimer stageTimer) {
+        this.stageTimer = stageTimer;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        long startedAt = stageTimer.start(exchange);
+        return chain.filter(exchange)
+                .doFinally(signal -> stageTimer.stop(exchange, Stage.DOWNSTREAM, startedAt));
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.LOWEST_PRECEDENCE - 1;
+    }
+}
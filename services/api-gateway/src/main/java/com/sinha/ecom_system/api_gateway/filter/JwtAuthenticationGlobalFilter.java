@@ -1,8 +1,15 @@
 package com.sinha.ecom_system.api_gateway.filter;
 
+import com.sinha.ecom_system.api_gateway.config.PublicEndpointConfig;
+import com.sinha.ecom_system.api_gateway.model.VerifiedClaims;
 import com.sinha.ecom_system.api_gateway.service.ReactiveTokenBlacklistService;
+import com.sinha.ecom_system.api_gateway.util.ErrorResponseWriter;
 import com.sinha.ecom_system.api_gateway.util.ReactiveJwtUtil;
+import com.sinha.ecom_system.api_gateway.util.StageTimer;
+import com.sinha.ecom_system.api_gateway.util.StageTimer.Stage;
+import com.sinha.ecom_system.api_gateway.util.UserContextEncoder;
 import com.sinha.ecom_system.common.contants.CommonConstants;
+import com.sinha.ecom_system.common.util.PathTrie;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cloud.gateway.filter.GatewayFilterChain;
 import org.springframework.cloud.gateway.filter.GlobalFilter;
@@ -10,13 +17,11 @@ import org.springframework.core.Ordered;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.server.reactive.ServerHttpRequest;
-import org.springframework.http.server.reactive.ServerHttpResponse;
 import org.springframework.stereotype.Component;
 import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
 
 import java.util.List;
-import java.util.UUID;
 
 /**
  * Global JWT Authentication Filter for API Gateway
@@ -28,23 +33,25 @@ public class JwtAuthenticationGlobalFilter implements GlobalFilter, Ordered {
 
     private final ReactiveJwtUtil jwtUtil;
     private final ReactiveTokenBlacklistService blacklistService;
+    private final ErrorResponseWriter errorResponseWriter;
+    private final StageTimer stageTimer;
+    private final UserContextEncoder userContextEncoder;
 
-    // Public endpoints that don't require JWT authentication
-    private static final List<String> PUBLIC_ENDPOINTS = List.of(
-        "/v1/api/auth-service/auth/login",
-        "/v1/api/auth-service/auth/register",
-        "/v1/api/auth-service/auth/refresh",
-        "/v1/api/auth-service/auth/forgot-password",
-        "/v1/api/auth-service/auth/reset-password",
-        "/v1/api/auth-service/auth/verify-email",
-        "/actuator/health",
-        "/actuator/info"
-    );
+    // Public endpoints that don't require JWT authentication, compiled once
+    private final PathTrie<Boolean> publicEndpoints;
 
     public JwtAuthenticationGlobalFilter(ReactiveJwtUtil jwtUtil, 
-                                        ReactiveTokenBlacklistService blacklistService) {
+                                        ReactiveTokenBlacklistService blacklistService,
+                                        PublicEndpointConfig publicEndpointConfig,
+                                        ErrorResponseWriter errorResponseWriter,
+                                        StageTimer stageTimer,
+                                        UserContextEncoder userContextEncoder) {
         this.jwtUtil = jwtUtil;
         this.blacklistService = blacklistService;
+        this.errorResponseWriter = errorResponseWriter;
+        this.stageTimer = stageTimer;
+        this.userContextEncoder = userContextEncoder;
+        this.publicEndpoints = PathTrie.of(publicEndpointConfig.getPublicEndpoints());
     }
 
     @Override
@@ -57,7 +64,13 @@ public class JwtAuthenticationGlobalFilter implements GlobalFilter, Ordered {
         // Skip JWT validation for public endpoints
         if (isPublicEndpoint(path)) {
             log.debug("Public endpoint accessed: {}", path);
-            return chain.filter(exchange);
+            String requestId = pendingRequestId(exchange);
+            if (requestId == null) {
+                return chain.filter(exchange);
+            }
+            return chain.filter(exchange.mutate()
+                .request(request.mutate().header(CommonConstants.HEADER_REQUEST_ID, requestId).build())
+                .build());
         }
 
         // Extract JWT token from Authorization header
@@ -68,61 +81,64 @@ public class JwtAuthenticationGlobalFilter implements GlobalFilter, Ordered {
             return onError(exchange, "Missing authorization token", HttpStatus.UNAUTHORIZED);
         }
 
-        // Validate JWT token
-        if (!jwtUtil.validateToken(token)) {
+        // Verify JWT once; claims are cached on the exchange for later filters
+        long verifyStartedAt = stageTimer.start(exchange);
+        VerifiedClaims claims = jwtUtil.verify(exchange, token);
+        stageTimer.stop(exchange, Stage.JWT_VERIFY, verifyStartedAt);
+
+        if (claims == null) {
             log.warn("Invalid JWT token for path: {}", path);
             return onError(exchange, "Invalid or expired token", HttpStatus.UNAUTHORIZED);
         }
 
-        try {
-            // Extract token metadata
-            String tokenId = jwtUtil.getTokenId(token);
-            String tokenType = jwtUtil.getTokenType(token);
-
-            // Only validate ACCESS tokens (not REFRESH tokens)
-            if (!"ACCESS".equals(tokenType)) {
-                log.warn("Non-ACCESS token used for API access: {}", tokenType);
-                return onError(exchange, "Invalid token type", HttpStatus.UNAUTHORIZED);
-            }
-
-            // Check if token is blacklisted (reactive call)
-            return blacklistService.isTokenBlacklisted(tokenId)
-                .flatMap(isBlacklisted -> {
-                    if (Boolean.TRUE.equals(isBlacklisted)) {
-                        log.warn("Blacklisted token attempted: {}", tokenId);
-                        return onError(exchange, "Token has been revoked", HttpStatus.UNAUTHORIZED);
-                    }
-
-                    // Extract user information from JWT
-                    UUID userId = jwtUtil.getUserIdFromToken(token);
-                    String email = jwtUtil.getEmailFromToken(token);
-                    List<String> roles = jwtUtil.getRolesFromToken(token);
-                    List<String> permissions = jwtUtil.getPermissionsFromToken(token);
-
-                    // Add user context to request headers for downstream services
-                    ServerHttpRequest mutatedRequest = request.mutate()
-                        .header(CommonConstants.HEADER_USER_ID, userId.toString())
-                        .header(CommonConstants.HEADER_EMAIL, email)
-                        .header(CommonConstants.HEADER_USER_ROLES, String.join(",", roles))
-                        .header(CommonConstants.HEADER_USER_PERMISSIONS, String.join(",", permissions))
-                        .build();
-
-                    ServerWebExchange mutatedExchange = exchange.mutate()
-                        .request(mutatedRequest)
-                        .build();
-
-                    log.debug("JWT validated for user: {} ({})", email, userId);
-                    return chain.filter(mutatedExchange);
-                })
-                .onErrorResume(e -> {
-                    log.error("Error checking token blacklist: {}", e.getMessage());
-                    return onError(exchange, "Authentication error", HttpStatus.INTERNAL_SERVER_ERROR);
-                });
-
-        } catch (Exception e) {
-            log.error("Error processing JWT: {}", e.getMessage(), e);
-            return onError(exchange, "Invalid token", HttpStatus.UNAUTHORIZED);
+        // Only validate ACCESS tokens (not REFRESH tokens)
+        if (!claims.isAccessToken()) {
+            log.warn("Non-ACCESS token used for API access: {}", claims.getTokenType());
+            return onError(exchange, "Invalid token type", HttpStatus.UNAUTHORIZED);
         }
+
+        String tokenId = claims.getTokenId();
+
+        // Check if token is blacklisted, or issued before its user's sessions were revoked (reactive calls)
+        long blacklistStartedAt = stageTimer.start(exchange);
+        return blacklistService.isTokenBlacklisted(tokenId, claims.getExpiration())
+            .flatMap(isBlacklisted -> Boolean.TRUE.equals(isBlacklisted)
+                ? Mono.just(true)
+                : blacklistService.isSessionRevoked(claims.getUserId(), claims.getIssuedAtMillis()))
+            .doOnNext(isRevoked -> stageTimer.stop(exchange, Stage.BLACKLIST, blacklistStartedAt))
+            .flatMap(isRevoked -> {
+                if (Boolean.TRUE.equals(isRevoked)) {
+                    log.warn("Revoked token attempted: {}", tokenId);
+                    return onError(exchange, "Token has been revoked", HttpStatus.UNAUTHORIZED);
+                }
+
+                // Add signed user context (and request ID) to request headers for downstream services;
+                // client-sent copies of the user headers are replaced, never forwarded
+                ServerHttpRequest.Builder requestBuilder = request.mutate()
+                    .headers(headers -> {
+                        headers.remove(CommonConstants.HEADER_EMAIL);
+                        headers.remove(CommonConstants.HEADER_USER_ROLES);
+                        headers.remove(CommonConstants.HEADER_USER_PERMISSIONS);
+                    })
+                    .header(CommonConstants.HEADER_USER_ID, claims.getUserId().toString())
+                    .header(CommonConstants.HEADER_USER_CONTEXT, userContextEncoder.encode(claims));
+                String requestId = pendingRequestId(exchange);
+                if (requestId != null) {
+                    requestBuilder.header(CommonConstants.HEADER_REQUEST_ID, requestId);
+                }
+                ServerHttpRequest mutatedRequest = requestBuilder.build();
+
+                ServerWebExchange mutatedExchange = exchange.mutate()
+                    .request(mutatedRequest)
+                    .build();
+
+                log.debug("JWT validated for user: {} ({})", claims.getEmail(), claims.getUserId());
+                return chain.filter(mutatedExchange);
+            })
+            .onErrorResume(e -> {
+                log.error("Error checking token blacklist: {}", e.getMessage());
+                return onError(exchange, "Authentication error", HttpStatus.INTERNAL_SERVER_ERROR);
+            });
     }
 
     /**
@@ -143,32 +159,30 @@ public class JwtAuthenticationGlobalFilter implements GlobalFilter, Ordered {
         return null;
     }
 
+    /**
+     * Request ID that still has to be added downstream, or null if the client already sent it
+     */
+    private String pendingRequestId(ServerWebExchange exchange) {
+        String requestId = exchange.getAttribute(AppGlobalFIlter.REQUEST_ID_ATTR);
+        if (requestId == null
+                || requestId.equals(exchange.getRequest().getHeaders().getFirst(CommonConstants.HEADER_REQUEST_ID))) {
+            return null;
+        }
+        return requestId;
+    }
+
     /**
      * Check if endpoint is public (no authentication required)
      */
     private boolean isPublicEndpoint(String path) {
-        return PUBLIC_ENDPOINTS.stream().anyMatch(path::startsWith);
+        return publicEndpoints.matches(path);
     }
 
     /**
      * Return error response
      */
     private Mono<Void> onError(ServerWebExchange exchange, String message, HttpStatus status) {
-        ServerHttpResponse response = exchange.getResponse();
-        response.setStatusCode(status);
-        response.getHeaders().add(HttpHeaders.CONTENT_TYPE, "application/json");
-        
-        String errorJson = String.format(
-            "{\"error\":\"%s\",\"message\":\"%s\",\"status\":%d,\"timestamp\":\"%s\"}",
-            status.getReasonPhrase(),
-            message,
-            status.value(),
-            java.time.Instant.now().toString()
-        );
-
-        return response.writeWith(
-            Mono.just(response.bufferFactory().wrap(errorJson.getBytes()))
-        );
+        return errorResponseWriter.write(exchange, status, message);
     }
 
     /**
@@ -0,0 +1,110 @@
+package com.sinha.ecom_system.api_gateway.filter;
+
+import com.sinha.ecom_system.api_gateway.config.RateLimitConfig;
+import com.sinha.ecom_system.api_gateway.model.VerifiedClaims;
+import com.sinha.ecom_system.api_gateway.service.ReactiveRateLimiter;
+import com.sinha.ecom_system.api_gateway.service.ReactiveRateLimiter.NamedPolicy;
+import com.sinha.ecom_system.api_gateway.util.ErrorResponseWriter;
+import com.sinha.ecom_system.api_gateway.util.ReactiveJwtUtil;
+import com.sinha.ecom_system.api_gateway.util.StageTimer;
+import com.sinha.ecom_system.api_gateway.util.StageTimer.Stage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.cloud.gateway.support.ipresolver.RemoteAddressResolver;
+import org.springframework.cloud.gateway.support.ipresolver.XForwardedRemoteAddressResolver;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+
+/**
+ * Global Rate Limit Filter for API Gateway
+ * Runs right after JWT authentication so requests can be keyed by user
+ *
+ * - Authenticated requests are limited per user ID (from the verified claims)
+ * - Public endpoints (login, register, ...) are limited per client IP, read from
+ *   X-Forwarded-For only as far as the configured trusted proxies wrote it
+ * - Buckets are per policy and route; the policy is picked by path (see RateLimitConfig)
+ *
+ * Rejected requests get 429 with a Retry-After header
+ */
+@Component
+@Slf4j
+public class RateLimitGlobalFilter implements GlobalFilter, Ordered {
+
+    private final ReactiveRateLimiter rateLimiter;
+    private final ErrorResponseWriter errorResponseWriter;
+    private final StageTimer stageTimer;
+    private final RemoteAddressResolver clientAddressResolver;
+    private final boolean enabled;
+
+    public RateLimitGlobalFilter(ReactiveRateLimiter rateLimiter,
+                                 ErrorResponseWriter errorResponseWriter,
+                                 RateLimitConfig rateLimitConfig,
+                                 StageTimer stageTimer) {
+        this.rateLimiter = rateLimiter;
+        this.errorResponseWriter = errorResponseWriter;
+        this.stageTimer = stageTimer;
+        this.enabled = rateLimitConfig.isEnabled();
+        // Entries left of the trusted hops can be forged by the client
+        this.clientAddressResolver = rateLimitConfig.getTrustedProxyHops() > 0
+                ? XForwardedRemoteAddressResolver.maxTrustedIndex(rateLimitConfig.getTrustedProxyHops())
+                : new RemoteAddressResolver() {
+                };
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        if (!enabled) {
+            return chain.filter(exchange);
+        }
+
+        NamedPolicy policy = rateLimiter.policyFor(exchange.getRequest().getPath().value());
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        String routeId = route != null ? route.getId() : "none";
+
+        long startedAt = stageTimer.start(exchange);
+        return rateLimiter.acquire(policy, routeId, subject(exchange))
+                .doOnNext(waitMillis -> stageTimer.stop(exchange, Stage.RATE_LIMIT, startedAt))
+                .flatMap(waitMillis -> {
+                    if (waitMillis == 0) {
+                        return chain.filter(exchange);
+                    }
+                    long retryAfterSeconds = (waitMillis + 999) / 1000;
+                    log.debug("Rate limit exceeded for {} on route {}, retry after {}s",
+                            subject(exchange), routeId, retryAfterSeconds);
+                    exchange.getResponse().getHeaders().set(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+                    return errorResponseWriter.write(exchange, HttpStatus.TOO_MANY_REQUESTS, "Rate limit exceeded");
+                });
+    }
+
+    /**
+     * User ID for authenticated requests, client IP otherwise
+     */
+    private String subject(ServerWebExchange exchange) {
+        VerifiedClaims claims = ReactiveJwtUtil.getVerifiedClaims(exchange);
+        if (claims != null) {
+            return "user:" + claims.getUserId();
+        }
+        InetSocketAddress remoteAddress = clientAddressResolver.resolve(exchange);
+        if (remoteAddress == null || remoteAddress.getAddress() == null) {
+            return "ip:unknown";
+        }
+        return "ip:" + remoteAddress.getAddress().getHostAddress();
+    }
+
+    /**
+     * Run after JwtAuthenticationGlobalFilter (-100) so verified claims are available
+     */
+    @Override
+    public int getOrder() {
+        return -90;
+    }
+}
@@ -0,0 +1,150 @@
+package com.sinha.ecom_system.api_gateway.filter;
+
+import com.sinha.ecom_system.api_gateway.config.CoalescingConfig;
+import com.sinha.ecom_system.api_gateway.model.CachedResponse;
+import com.sinha.ecom_system.api_gateway.model.VerifiedClaims;
+import com.sinha.ecom_system.api_gateway.util.CapturingResponseDecorator;
+import com.sinha.ecom_system.api_gateway.util.ReactiveJwtUtil;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Request Coalescing Gateway Filter
+ * Single-flight for identical concurrent GETs, opt-in per route
+ *
+ * The first request for a key (route, path + query, user, Accept) goes downstream;
+ * identical requests arriving while it is in flight wait for its response and get
+ * a copy of it. A response is only shared if its body fits in max-body-bytes;
+ * otherwise (or if the first request fails) waiters call downstream themselves.
+ *
+ * Metrics: gateway.coalescing.requests{result=leader|collapsed|fallback}
+ */
+@Component
+@Slf4j
+public class RequestCoalescingGatewayFilterFactory
+        extends AbstractGatewayFilterFactory<RequestCoalescingGatewayFilterFactory.Config> {
+
+    private final CoalescingConfig coalescingConfig;
+    private final Map<FlightKey, Flight> inFlight = new ConcurrentHashMap<>();
+
+    private final Counter leaderRequests;
+    private final Counter collapsedRequests;
+    private final Counter fallbackRequests;
+
+    public RequestCoalescingGatewayFilterFactory(CoalescingConfig coalescingConfig, MeterRegistry meterRegistry) {
+        super(Config.class);
+        this.coalescingConfig = coalescingConfig;
+        this.leaderRequests = meterRegistry.counter("gateway.coalescing.requests", "result", "leader");
+        this.collapsedRequests = meterRegistry.counter("gateway.coalescing.requests", "result", "collapsed");
+        this.fallbackRequests = meterRegistry.counter("gateway.coalescing.requests", "result", "fallback");
+        meterRegistry.gaugeMapSize("gateway.coalescing.in.flight", Tags.empty(), inFlight);
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        return (exchange, chain) -> {
+            if (!coalescingConfig.isEnabled() || !HttpMethod.GET.equals(exchange.getRequest().getMethod())) {
+                return chain.filter(exchange);
+            }
+            FlightKey key = keyFor(exchange);
+            if (key == null) {
+                return chain.filter(exchange);
+            }
+
+            Flight flight = new Flight();
+            Flight existing = inFlight.putIfAbsent(key, flight);
+            if (existing == null) {
+                return lead(exchange, chain, key, flight);
+            }
+            return follow(exchange, chain, existing);
+        };
+    }
+
+    /**
+     * Call downstream and share the captured response with everyone waiting on the key
+     */
+    private Mono<Void> lead(ServerWebExchange exchange, GatewayFilterChain chain, FlightKey key, Flight flight) {
+        leaderRequests.increment();
+        CapturingResponseDecorator response = new CapturingResponseDecorator(
+                exchange.getResponse(), coalescingConfig.getMaxBodyBytes(), captured -> finish(key, flight, captured));
+        return chain.filter(exchange.mutate().response(response).build())
+                .doFinally(signal -> finish(key, flight, null));
+    }
+
+    /**
+     * Wait for the leader's response; call downstream if it cannot be shared
+     */
+    private Mono<Void> follow(ServerWebExchange exchange, GatewayFilterChain chain, Flight flight) {
+        return flight.result.asMono()
+                .timeout(Duration.ofMillis(coalescingConfig.getMaxWaitMillis()), Mono.just(Optional.empty()))
+                .flatMap(result -> {
+                    if (result.isEmpty()) {
+                        fallbackRequests.increment();
+                        return chain.filter(exchange);
+                    }
+                    collapsedRequests.increment();
+                    return result.get().writeTo(exchange.getResponse());
+                });
+    }
+
+    private void finish(FlightKey key, Flight flight, CachedResponse response) {
+        // Late arrivals start a new flight instead of joining a finished one
+        inFlight.remove(key, flight);
+        flight.result.tryEmitValue(Optional.ofNullable(response));
+    }
+
+    /**
+     * Identical requests share a key; null for requests that are never coalesced
+     * (unauthenticated, or conditional, whose 304 would be wrong for other callers)
+     */
+    private FlightKey keyFor(ServerWebExchange exchange) {
+        VerifiedClaims claims = ReactiveJwtUtil.getVerifiedClaims(exchange);
+        ServerHttpRequest request = exchange.getRequest();
+        HttpHeaders headers = request.getHeaders();
+        if (claims == null
+                || headers.containsKey(HttpHeaders.IF_NONE_MATCH)
+                || headers.containsKey(HttpHeaders.IF_MODIFIED_SINCE)) {
+            return null;
+        }
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        return new FlightKey(
+                route != null ? route.getId() : "none",
+                request.getPath().value(),
+                request.getURI().getRawQuery(),
+                claims.getUserId().toString(),
+                headers.getFirst(HttpHeaders.ACCEPT));
+    }
+
+    private record FlightKey(String routeId, String path, String query, String userId, String accept) {
+    }
+
+    /**
+     * One downstream call; empty result means waiters must fetch on their own
+     */
+    private static final class Flight {
+
+        private final Sinks.One<Optional<CachedResponse>> result = Sinks.one();
+    }
+
+    public static class Config {
+    }
+}
@@ -0,0 +1,211 @@
+package com.sinha.ecom_system.api_gateway.filter;
+
+import com.sinha.ecom_system.api_gateway.config.ResponseCacheConfig;
+import com.sinha.ecom_system.api_gateway.model.CachedResponse;
+import com.sinha.ecom_system.api_gateway.model.VerifiedClaims;
+import com.sinha.ecom_system.api_gateway.service.ReactiveResponseCache;
+import com.sinha.ecom_system.api_gateway.service.ReactiveResponseCache.CacheKey;
+import com.sinha.ecom_system.api_gateway.util.CapturingResponseDecorator;
+import com.sinha.ecom_system.api_gateway.util.ReactiveJwtUtil;
+import com.sinha.ecom_system.common.util.PathTrie;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Response Cache Gateway Filter
+ * Opt-in per route (see GatewayRouteConfig)
+ *
+ * GET: responses are cached per route, path (+ query) and user. The user is the
+ * X-User-ID value, taken from the verified claims rather than the client header.
+ * Downstream Cache-Control is honored (no-store / no-cache / max-age), and a
+ * cached ETag answers a matching If-None-Match with 304.
+ *
+ * Other methods: a successful write invalidates the path and its ancestors
+ * before the response is sent, so the caller never reads its own stale data.
+ * Read-only POSTs (Config.readOnlyPaths, e.g. batch lookups) pass through
+ * without invalidating anything.
+ */
+@Component
+@Slf4j
+public class ResponseCacheGatewayFilterFactory
+        extends AbstractGatewayFilterFactory<ResponseCacheGatewayFilterFactory.Config> {
+
+    private static final String CACHE_STATUS_HEADER = "X-Cache";
+
+    private final ReactiveResponseCache responseCache;
+    private final ResponseCacheConfig cacheConfig;
+
+    public ResponseCacheGatewayFilterFactory(ReactiveResponseCache responseCache,
+                                             ResponseCacheConfig cacheConfig) {
+        super(Config.class);
+        this.responseCache = responseCache;
+        this.cacheConfig = cacheConfig;
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        PathTrie<Boolean> readOnlyPaths = PathTrie.of(config.getReadOnlyPaths());
+        return (exchange, chain) -> {
+            if (!cacheConfig.isEnabled()) {
+                return chain.filter(exchange);
+            }
+            ServerHttpRequest request = exchange.getRequest();
+            HttpMethod method = request.getMethod();
+            String path = request.getPath().value();
+
+            if (HttpMethod.GET.equals(method)) {
+                return cachedGet(exchange, chain, config, path);
+            }
+            if (HttpMethod.HEAD.equals(method) || HttpMethod.OPTIONS.equals(method)
+                    || (HttpMethod.POST.equals(method) && readOnlyPaths.matches(path))) {
+                return chain.filter(exchange);
+            }
+
+            // Write: invalidate once downstream succeeded, before the client sees the response
+            ServerHttpResponse response = exchange.getResponse();
+            response.beforeCommit(() -> {
+                HttpStatusCode status = response.getStatusCode();
+                return status != null && status.is2xxSuccessful()
+                        ? responseCache.invalidate(path)
+                        : Mono.empty();
+            });
+            return chain.filter(exchange);
+        };
+    }
+
+    private Mono<Void> cachedGet(ServerWebExchange exchange, GatewayFilterChain chain, Config config, String path) {
+        CacheKey key = keyFor(exchange, path);
+        if (key == null) {
+            return chain.filter(exchange);
+        }
+
+        Mono<CachedResponse> lookup = bypassesCache(exchange.getRequest()) ? Mono.empty() : responseCache.get(key);
+        return lookup
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty())
+                .flatMap(cached -> cached.isPresent()
+                        ? writeCached(exchange, cached.get())
+                        : fetchAndStore(exchange, chain, config, key));
+    }
+
+    private Mono<Void> fetchAndStore(ServerWebExchange exchange, GatewayFilterChain chain, Config config, CacheKey key) {
+        long startedAt = System.currentTimeMillis();
+        CapturingResponseDecorator response = new CapturingResponseDecorator(
+                exchange.getResponse(), cacheConfig.getMaxBodyBytes(), captured -> {
+                    if (captured == null) {
+                        return;
+                    }
+                    long ttlMillis = ttlFor(captured, config);
+                    if (ttlMillis > 0) {
+                        responseCache.put(key, captured.withExpiresAt(System.currentTimeMillis() + ttlMillis), startedAt)
+                                .subscribe();
+                    }
+                });
+        response.getHeaders().set(CACHE_STATUS_HEADER, "MISS");
+        return chain.filter(exchange.mutate().response(response).build());
+    }
+
+    private Mono<Void> writeCached(ServerWebExchange exchange, CachedResponse cached) {
+        ServerHttpResponse response = exchange.getResponse();
+        String etag = cached.getETag();
+
+        if (etag != null && exchange.getRequest().getHeaders().getIfNoneMatch().contains(etag)) {
+            response.setStatusCode(HttpStatus.NOT_MODIFIED);
+            response.getHeaders().setETag(etag);
+            response.getHeaders().set(CACHE_STATUS_HEADER, "HIT");
+            return response.setComplete();
+        }
+
+        // After writeTo() has copied the cached headers, so nothing stored can override it
+        response.beforeCommit(() -> {
+            response.getHeaders().set(CACHE_STATUS_HEADER, "HIT");
+            return Mono.empty();
+        });
+        return cached.writeTo(response);
+    }
+
+    /**
+     * Route + path + user key; null for unauthenticated requests (never cached)
+     */
+    private CacheKey keyFor(ServerWebExchange exchange, String path) {
+        VerifiedClaims claims = ReactiveJwtUtil.getVerifiedClaims(exchange);
+        if (claims == null) {
+            return null;
+        }
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        String routeId = route != null ? route.getId() : "none";
+        String query = exchange.getRequest().getURI().getRawQuery();
+        String variant = query == null ? claims.getUserId().toString() : claims.getUserId() + "?" + query;
+        return new CacheKey(routeId, path, variant);
+    }
+
+    /**
+     * Client asked for a fresh response (Cache-Control: no-cache / no-store)
+     */
+    private boolean bypassesCache(ServerHttpRequest request) {
+        String cacheControl = request.getHeaders().getCacheControl();
+        return cacheControl != null && (cacheControl.contains("no-cache") || cacheControl.contains("no-store"));
+    }
+
+    /**
+     * How long a downstream response may be cached; 0 = not cacheable
+     */
+    private long ttlFor(CachedResponse response, Config config) {
+        if (response.getStatus() != HttpStatus.OK.value()) {
+            return 0;
+        }
+        long maxTtl = cacheConfig.getMaxTtlMillis();
+        HttpHeaders headers = response.getHeaders();
+        List<String> vary = headers.getVary();
+        if (vary.contains("*")) {
+            return 0;
+        }
+
+        String cacheControl = headers.getCacheControl();
+        if (cacheControl == null) {
+            return Math.min(config.getTtl().toMillis(), maxTtl);
+        }
+        if (cacheControl.contains("no-store") || cacheControl.contains("no-cache")) {
+            return 0;
+        }
+        for (String directive : cacheControl.split(",")) {
+            String trimmed = directive.trim();
+            if (trimmed.startsWith("max-age=")) {
+                try {
+                    return Math.min(Long.parseLong(trimmed.substring("max-age=".length())) * 1000, maxTtl);
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return Math.min(config.getTtl().toMillis(), maxTtl);
+    }
+
+    @Data
+    public static class Config {
+
+        // Used when downstream sends no max-age
+        private Duration ttl = Duration.ofSeconds(30);
+
+        // POST endpoints that only read (gateway paths, PathTrie rules): they do not invalidate
+        private List<String> readOnlyPaths = List.of();
+    }
+}
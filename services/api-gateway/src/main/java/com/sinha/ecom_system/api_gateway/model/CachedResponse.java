@@ -0,0 +1,145 @@
+package com.sinha.ecom_system.api_gateway.model;
+
+import lombok.Getter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import reactor.core.publisher.Mono;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Cached Response
+ * Immutable copy of a downstream response (status, end-to-end headers, body)
+ *
+ * Shared by the response cache and request coalescing, and written to Redis
+ * in a small binary form (see toBytes / fromBytes)
+ */
+@Getter
+public class CachedResponse {
+
+    private static final int FORMAT_VERSION = 1;
+
+    // Per-connection headers that must not be replayed
+    private static final Set<String> HOP_BY_HOP_HEADERS = Set.of(
+            "connection", "keep-alive", "transfer-encoding", "te", "trailer",
+            "upgrade", "proxy-authenticate", "proxy-authorization", "content-length", "set-cookie"
+    );
+
+    // Set by the gateway itself on every response; a replayed copy would report the wrong status
+    private static final Set<String> GATEWAY_HEADERS = Set.of("x-cache");
+
+    private final int status;
+    private final HttpHeaders headers;
+    private final byte[] body;
+    private final long expiresAt;   // Epoch millis; 0 when the response is not meant to be stored
+
+    public CachedResponse(int status, HttpHeaders headers, byte[] body, long expiresAt) {
+        this.status = status;
+        this.headers = HttpHeaders.readOnlyHttpHeaders(headers);
+        this.body = body;
+        this.expiresAt = expiresAt;
+    }
+
+    /**
+     * Copy the end-to-end headers of a live response
+     */
+    public static HttpHeaders copyHeaders(HttpHeaders source) {
+        HttpHeaders copy = new HttpHeaders();
+        source.forEach((name, values) -> {
+            String lowerName = name.toLowerCase();
+            if (!HOP_BY_HOP_HEADERS.contains(lowerName) && !GATEWAY_HEADERS.contains(lowerName)) {
+                copy.put(name, List.copyOf(values));
+            }
+        });
+        return copy;
+    }
+
+    public CachedResponse withExpiresAt(long expiresAt) {
+        return new CachedResponse(status, headers, body, expiresAt);
+    }
+
+    public boolean isExpired(long nowMillis) {
+        return expiresAt <= nowMillis;
+    }
+
+    public String getETag() {
+        return headers.getETag();
+    }
+
+    /**
+     * Replay this response to a client; the body is wrapped, not copied
+     */
+    public Mono<Void> writeTo(ServerHttpResponse response) {
+        response.setStatusCode(HttpStatusCode.valueOf(status));
+        response.getHeaders().putAll(headers);
+        response.getHeaders().setContentLength(body.length);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(body)));
+    }
+
+    /**
+     * Rough heap footprint, used to bound the in-memory cache by bytes
+     */
+    public int weight() {
+        return body.length + 64 * (headers.size() + 1);
+    }
+
+    public byte[] toBytes() {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(body.length + 256);
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeByte(FORMAT_VERSION);
+            out.writeShort(status);
+            out.writeLong(expiresAt);
+            out.writeShort(headers.size());
+            for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+                out.writeUTF(header.getKey());
+                out.writeShort(header.getValue().size());
+                for (String value : header.getValue()) {
+                    out.writeUTF(value);
+                }
+            }
+            out.writeInt(body.length);
+            out.write(body);
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Decode bytes written by toBytes(); returns null for an unknown format
+     */
+    public static CachedResponse fromBytes(byte[] data) {
+        try {
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(data));
+            if (in.readByte() != FORMAT_VERSION) {
+                return null;
+            }
+            int status = in.readShort();
+            long expiresAt = in.readLong();
+            HttpHeaders headers = new HttpHeaders();
+            int headerCount = in.readShort();
+            for (int i = 0; i < headerCount; i++) {
+                String name = in.readUTF();
+                int valueCount = in.readShort();
+                for (int j = 0; j < valueCount; j++) {
+                    headers.add(name, in.readUTF());
+                }
+            }
+            byte[] body = new byte[in.readInt()];
+            in.readFully(body);
+            return new CachedResponse(status, headers, body, expiresAt);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+}
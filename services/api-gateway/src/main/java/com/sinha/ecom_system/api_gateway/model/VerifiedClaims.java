@@ -0,0 +1,75 @@
+package com.sinha.ecom_system.api_gateway.model;
+
+import com.sinha.ecom_system.common.enums.Permission;
+import com.sinha.ecom_system.common.util.JwtUtil;
+import io.jsonwebtoken.Claims;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Verified JWT Claims
+ * Immutable snapshot of an access token whose signature and expiry were already checked
+ *
+ * Built once per request by ReactiveJwtUtil and stored on the exchange attributes,
+ * so later filters read claims from here instead of parsing the token again
+ */
+@Getter
+@Builder
+@ToString
+public class VerifiedClaims {
+
+    private final String tokenId;
+    private final String tokenType;
+    private final UUID userId;
+    private final String email;
+    private final List<String> roles;
+    private final int permissionMask;   // See Permission
+    private final Date issuedAt;
+    private final long issuedAtMillis;  // iat_ms, or iat (whole seconds) for older tokens
+    private final Date expiration;
+
+    /**
+     * Copy the claims we use out of a parsed jjwt Claims object
+     */
+    @SuppressWarnings("unchecked")
+    public static VerifiedClaims from(Claims claims) {
+        List<String> roles = claims.get("roles", List.class);
+        Integer permissionMask = claims.get(JwtUtil.PERMISSION_MASK_CLAIM, Integer.class);
+        if (permissionMask == null) {
+            // Token issued before the permission mask claim
+            List<String> permissions = claims.get("permissions", List.class);
+            permissionMask = permissions != null ? Permission.maskOf(permissions) : 0;
+        }
+        Long issuedAtMillis = claims.get(JwtUtil.ISSUED_AT_MILLIS_CLAIM, Long.class);
+        if (issuedAtMillis == null) {
+            // Token issued before the millisecond claim
+            issuedAtMillis = claims.getIssuedAt() != null ? claims.getIssuedAt().getTime() : 0L;
+        }
+
+        return VerifiedClaims.builder()
+                .tokenId(claims.getId())
+                .tokenType(claims.get("type", String.class))
+                .userId(UUID.fromString(claims.getSubject()))
+                .email(claims.get("email", String.class))
+                .roles(roles != null ? List.copyOf(roles) : Collections.emptyList())
+                .permissionMask(permissionMask)
+                .issuedAt(claims.getIssuedAt())
+                .issuedAtMillis(issuedAtMillis)
+                .expiration(claims.getExpiration())
+                .build();
+    }
+
+    public boolean hasPermission(Permission permission) {
+        return permission.isIn(permissionMask);
+    }
+
+    public boolean isAccessToken() {
+        return "ACCESS".equals(tokenType);
+    }
+}
@@ -0,0 +1,215 @@
+package com.sinha.ecom_system.api_gateway.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.sinha.ecom_system.api_gateway.config.RateLimitConfig;
+import com.sinha.ecom_system.api_gateway.config.RateLimitConfig.Policy;
+import com.sinha.ecom_system.common.util.PathTrie;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Reactive Rate Limiter
+ * Distributed token bucket with local leasing
+ *
+ * The authoritative bucket for each key lives in Redis (one Lua call refills and
+ * takes tokens atomically, using the Redis clock so gateways need not agree on time).
+ * Each gateway leases a batch of tokens at once and hands them out locally,
+ * so Redis is only called once per lease instead of once per request.
+ * After a denial the key is rejected locally until the Redis bucket has refilled.
+ * Requests that waited on a lease but found its tokens already spent by
+ * concurrent requests lease again, so a burst never gets more than Redis grants.
+ *
+ * Redis failures fail open: the request is allowed and a warning is logged.
+ *
+ * Metrics: gateway.ratelimit.failopen{policy} (Redis checks that failed and let requests through)
+ */
+@Service
+@Slf4j
+public class ReactiveRateLimiter {
+
+    private static final String RATE_LIMIT_PREFIX = "rate:limit:";
+
+    // Returns tokens granted (> 0) or, when empty, -(millis until one token is available)
+    private static final RedisScript<Long> TAKE_SCRIPT = RedisScript.of("""
+            local capacity = tonumber(ARGV[1])
+            local rate = tonumber(ARGV[2])
+            local requested = tonumber(ARGV[3])
+            local time = redis.call('TIME')
+            local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+            local bucket = redis.call('HMGET', KEYS[1], 'tokens', 'ts')
+            local tokens = tonumber(bucket[1]) or capacity
+            local ts = tonumber(bucket[2]) or now
+            tokens = math.min(capacity, tokens + math.max(0, now - ts) * rate)
+            local granted = math.min(math.floor(tokens), requested)
+            tokens = tokens - granted
+            redis.call('HSET', KEYS[1], 'tokens', tostring(tokens), 'ts', now)
+            redis.call('PEXPIRE', KEYS[1], math.ceil(capacity / rate) + 1000)
+            if granted > 0 then
+                return granted
+            end
+            return -math.max(1, math.ceil((1 - tokens) / rate))
+            """, Long.class);
+
+    private final ReactiveRedisTemplate<String, String> redisTemplate;
+    private final PathTrie<NamedPolicy> policies = new PathTrie<>();
+    private final NamedPolicy defaultPolicy;
+    private final MeterRegistry meterRegistry;
+
+    // Policy + route + subject -> locally leased tokens
+    private final Cache<String, LocalBucket> localBuckets;
+
+    public ReactiveRateLimiter(ReactiveRedisTemplate<String, String> redisTemplate,
+                               RateLimitConfig config,
+                               MeterRegistry meterRegistry) {
+        this.redisTemplate = redisTemplate;
+        this.meterRegistry = meterRegistry;
+        this.defaultPolicy = new NamedPolicy("default", config.getDefaultPolicy(), config.getLeaseSize());
+        for (Map.Entry<String, Policy> entry : config.getPolicies().entrySet()) {
+            NamedPolicy policy = new NamedPolicy(entry.getKey(), entry.getValue(), config.getLeaseSize());
+            for (String path : entry.getValue().getPaths()) {
+                policies.put(path, policy);
+            }
+        }
+        this.localBuckets = Caffeine.newBuilder()
+                .expireAfterAccess(Duration.ofMillis(config.getLocalBucketIdleMillis()))
+                .build();
+    }
+
+    /**
+     * Policy for a request path (longest matching rule, else the default)
+     */
+    public NamedPolicy policyFor(String path) {
+        NamedPolicy policy = policies.match(path);
+        return policy != null ? policy : defaultPolicy;
+    }
+
+    /**
+     * Take one token for the subject (user ID or client IP) on a route
+     * Emits 0 when allowed, otherwise the millis to wait before retrying
+     */
+    public Mono<Long> acquire(NamedPolicy policy, String routeId, String subject) {
+        String key = RATE_LIMIT_PREFIX + policy.name + ":" + routeId + ":" + subject;
+        LocalBucket bucket = localBuckets.get(key, k -> new LocalBucket());
+
+        long waitMillis = bucket.tryTake();
+        if (waitMillis >= 0) {
+            return Mono.just(waitMillis);
+        }
+        return leaseAndTake(bucket, key, policy);
+    }
+
+    /**
+     * Lease from Redis, then take a local token; if concurrent requests spent the
+     * lease first, lease again. Terminates: every round either admits a request
+     * or Redis denies and the bucket is blocked
+     */
+    private Mono<Long> leaseAndTake(LocalBucket bucket, String key, NamedPolicy policy) {
+        return bucket.lease(() -> takeFromRedis(key, policy))
+                .flatMap(granted -> {
+                    long waitMillis = bucket.tryTake();
+                    return waitMillis >= 0 ? Mono.just(waitMillis) : leaseAndTake(bucket, key, policy);
+                });
+    }
+
+    private Mono<Long> takeFromRedis(String key, NamedPolicy policy) {
+        List<String> args = List.of(
+                Long.toString(policy.capacity),
+                Double.toString(policy.refillPerMilli),
+                Integer.toString(policy.leaseSize));
+        return redisTemplate.execute(TAKE_SCRIPT, List.of(key), args)
+                .next()
+                .defaultIfEmpty(1L)
+                .onErrorResume(e -> {
+                    log.warn("Rate limit check failed for {}, allowing request: {}", key, e.getMessage());
+                    meterRegistry.counter("gateway.ratelimit.failopen", "policy", policy.name).increment();
+                    return Mono.just(1L);
+                });
+    }
+
+    /**
+     * Policy with its settings resolved once at startup
+     */
+    public static final class NamedPolicy {
+
+        private final String name;
+        private final long capacity;
+        private final double refillPerMilli;
+        private final int leaseSize;
+
+        NamedPolicy(String name, Policy policy, int defaultLeaseSize) {
+            if (policy.getCapacity() <= 0 || policy.getRefillPerSecond() <= 0) {
+                throw new IllegalArgumentException("Rate limit policy '" + name + "' needs a positive capacity and refill rate");
+            }
+            int lease = policy.getLeaseSize() != null ? policy.getLeaseSize() : defaultLeaseSize;
+            this.name = name;
+            this.capacity = policy.getCapacity();
+            this.refillPerMilli = policy.getRefillPerSecond() / 1000.0;
+            this.leaseSize = (int) Math.max(1, Math.min(lease, policy.getCapacity()));
+        }
+    }
+
+    /**
+     * Tokens leased from Redis for one key on this gateway
+     */
+    private static final class LocalBucket {
+
+        private final AtomicLong tokens = new AtomicLong();
+        private final AtomicReference<Mono<Long>> pendingLease = new AtomicReference<>();
+        private volatile long blockedUntil;
+
+        /**
+         * 0 if a local token was taken, wait millis while blocked, -1 if a lease is needed
+         */
+        long tryTake() {
+            long available;
+            while ((available = tokens.get()) > 0) {
+                if (tokens.compareAndSet(available, available - 1)) {
+                    return 0;
+                }
+            }
+            long wait = blockedUntil - System.currentTimeMillis();
+            return wait > 0 ? wait : -1;
+        }
+
+        /**
+         * Lease tokens from Redis; concurrent callers share one in-flight lease
+         */
+        Mono<Long> lease(Supplier<Mono<Long>> take) {
+            Mono<Long> pending = pendingLease.get();
+            if (pending != null) {
+                return pending;
+            }
+            AtomicReference<Mono<Long>> self = new AtomicReference<>();
+            Mono<Long> lease = Mono.defer(take)
+                    .doOnNext(result -> {
+                        // Cleared before waiters see the result, so those left without a token start a new lease
+                        pendingLease.compareAndSet(self.get(), null);
+                        if (result > 0) {
+                            tokens.addAndGet(result);
+                        } else {
+                            blockedUntil = System.currentTimeMillis() - result;
+                        }
+                    })
+                    .doFinally(signal -> pendingLease.compareAndSet(self.get(), null))
+                    .cache();
+            self.set(lease);
+            if (pendingLease.compareAndSet(null, lease)) {
+                return lease;
+            }
+            Mono<Long> other = pendingLease.get();
+            return other != null ? other : lease;
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package com.sinha.ecom_system.api_gateway.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.sinha.ecom_system.api_gateway.config.ResponseCacheConfig;
+import com.sinha.ecom_system.api_gateway.model.CachedResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.ReactiveRedisMessageListenerContainer;
+import org.springframework.stereotype.Service;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Reactive Response Cache
+ * Two-layer store for cached downstream responses
+ *
+ * - Memory: Caffeine, bounded by total body bytes
+ * - Redis (optional): one hash per path, one field per route/user/query variant,
+ *   so a write can drop every user's copy of a path with a single DEL
+ *
+ * A write to a path invalidates the path and all of its ancestors
+ * (PATCH /users/{id}/status also drops /users/{id} and /users) on every gateway:
+ * the invalidation is published and each gateway evicts its memory layer.
+ * Responses fetched before an invalidation are never stored after it.
+ * The memory layer is indexed by path, so an invalidation only touches the
+ * entries of the invalidated paths, however large the cache is.
+ */
+@Service
+@Slf4j
+public class ReactiveResponseCache {
+
+    private static final String REDIS_PREFIX = "gateway:response-cache:";
+    private static final String INVALIDATION_CHANNEL = "gateway:response-cache:invalidations";
+
+    /**
+     * Identity of a cached response: route, request path and per-user variant
+     */
+    public record CacheKey(String routeId, String path, String variant) {
+    }
+
+    private final ReactiveRedisTemplate<String, byte[]> bytesTemplate;
+    private final ReactiveRedisTemplate<String, String> redisTemplate;
+    private final ReactiveRedisMessageListenerContainer listenerContainer;
+    private final boolean redisEnabled;
+
+    private final Cache<CacheKey, CachedResponse> memory;
+    // Path -> keys of its entries in memory; a key is added after it is stored, removed on eviction
+    private final Map<String, Set<CacheKey>> keysByPath = new ConcurrentHashMap<>();
+    // Path -> time of its last invalidation, to reject responses that raced with a write
+    private final Cache<String, Long> invalidatedAt;
+
+    private final Disposable.Composite subscriptions = Disposables.composite();
+
+    public ReactiveResponseCache(ReactiveRedisTemplate<String, byte[]> bytesTemplate,
+                                 ReactiveRedisTemplate<String, String> redisTemplate,
+                                 ReactiveRedisMessageListenerContainer listenerContainer,
+                                 ResponseCacheConfig config,
+                                 MeterRegistry meterRegistry) {
+        this.bytesTemplate = bytesTemplate;
+        this.redisTemplate = redisTemplate;
+        this.listenerContainer = listenerContainer;
+        this.redisEnabled = config.isRedisEnabled();
+        this.memory = Caffeine.newBuilder()
+                .maximumWeight(config.getMaxMemoryBytes())
+                .weigher((CacheKey key, CachedResponse response) -> response.weight())
+                .expireAfterWrite(Duration.ofMillis(config.getMaxTtlMillis()))
+                // Size and expiry evictions only; explicit removals unindex themselves
+                .evictionListener((CacheKey key, CachedResponse response, RemovalCause cause) -> unindex(key))
+                .recordStats()
+                .build();
+        this.invalidatedAt = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMinutes(1))
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, memory, "gateway.response.cache");
+    }
+
+    @PostConstruct
+    void start() {
+        subscriptions.add(listenerContainer
+                .receive(ChannelTopic.of(INVALIDATION_CHANNEL))
+                .doOnError(e -> log.warn("Response cache invalidation subscription failed: {}", e.getMessage()))
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, Duration.ofMillis(500))
+                        .maxBackoff(Duration.ofSeconds(30)))
+                .subscribe(message -> evictLocal(withAncestors(message.getMessage()))));
+    }
+
+    @PreDestroy
+    void stop() {
+        subscriptions.dispose();
+    }
+
+    /**
+     * Unexpired response for the key, from memory first, then Redis
+     */
+    public Mono<CachedResponse> get(CacheKey key) {
+        CachedResponse cached = memory.getIfPresent(key);
+        if (cached != null) {
+            if (!cached.isExpired(System.currentTimeMillis())) {
+                return Mono.just(cached);
+            }
+            memory.invalidate(key);
+            unindex(key);
+        }
+        if (!redisEnabled) {
+            return Mono.empty();
+        }
+        return bytesTemplate.<String, byte[]>opsForHash().get(redisKey(key.path()), redisField(key))
+                .mapNotNull(CachedResponse::fromBytes)
+                .filter(response -> !response.isExpired(System.currentTimeMillis()))
+                .doOnNext(response -> store(key, response))
+                .onErrorResume(e -> {
+                    log.warn("Response cache read failed for {}: {}", key.path(), e.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    /**
+     * Store a response fetched by a request that started at requestStartedAt
+     */
+    public Mono<Void> put(CacheKey key, CachedResponse response, long requestStartedAt) {
+        Long invalidated = invalidatedAt.getIfPresent(key.path());
+        if (invalidated != null && invalidated >= requestStartedAt) {
+            return Mono.empty();   // A write to this path raced with the read
+        }
+        store(key, response);
+        if (!redisEnabled) {
+            return Mono.empty();
+        }
+        String redisKey = redisKey(key.path());
+        long ttlMillis = response.getExpiresAt() - System.currentTimeMillis();
+        // The hash lives as long as its newest entry; older fields are checked against expiresAt on read
+        return bytesTemplate.<String, byte[]>opsForHash().put(redisKey, redisField(key), response.toBytes())
+                .then(bytesTemplate.expire(redisKey, Duration.ofMillis(Math.max(ttlMillis, 1))))
+                .then()
+                .onErrorResume(e -> {
+                    log.warn("Response cache write failed for {}: {}", key.path(), e.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    /**
+     * Drop every cached variant of the path and its ancestors, on all gateways
+     */
+    public Mono<Void> invalidate(String path) {
+        List<String> paths = withAncestors(path);
+        evictLocal(paths);
+
+        Mono<Long> publish = redisTemplate.convertAndSend(INVALIDATION_CHANNEL, path);
+        Mono<Long> delete = redisEnabled
+                ? bytesTemplate.delete(paths.stream().map(ReactiveResponseCache::redisKey).toArray(String[]::new))
+                : Mono.empty();
+        return delete.then(publish)
+                .then()
+                .onErrorResume(e -> {
+                    log.warn("Response cache invalidation failed for {}: {}", path, e.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    private void evictLocal(List<String> paths) {
+        long now = System.currentTimeMillis();
+        for (String path : paths) {
+            invalidatedAt.put(path, now);
+            Set<CacheKey> keys = keysByPath.remove(path);
+            if (keys != null) {
+                memory.invalidateAll(keys);
+            }
+        }
+    }
+
+    private void store(CacheKey key, CachedResponse response) {
+        memory.put(key, response);
+        // compute() so the add cannot land in a set unindex() just dropped
+        keysByPath.compute(key.path(), (path, keys) -> {
+            Set<CacheKey> indexed = keys != null ? keys : ConcurrentHashMap.newKeySet();
+            indexed.add(key);
+            return indexed;
+        });
+    }
+
+    private void unindex(CacheKey key) {
+        keysByPath.computeIfPresent(key.path(), (path, keys) -> {
+            keys.remove(key);
+            return keys.isEmpty() ? null : keys;
+        });
+    }
+
+    /**
+     * "/a/b/c" -> ["/a/b/c", "/a/b", "/a"]
+     */
+    private static List<String> withAncestors(String path) {
+        List<String> paths = new ArrayList<>();
+        String current = path.endsWith("/") && path.length() > 1 ? path.substring(0, path.length() - 1) : path;
+        while (!current.isEmpty()) {
+            paths.add(current);
+            int slash = current.lastIndexOf('/');
+            current = slash > 0 ? current.substring(0, slash) : "";
+        }
+        return paths;
+    }
+
+    private static String redisKey(String path) {
+        return REDIS_PREFIX + path;
+    }
+
+    private static String redisField(CacheKey key) {
+        return key.routeId() + "|" + key.variant();
+    }
+}
@@ -1,23 +1,211 @@
 package com.sinha.ecom_system.api_gateway.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.sinha.ecom_system.api_gateway.config.JwtConfig;
+import com.sinha.ecom_system.common.config.TokenBloomProperties;
+import com.sinha.ecom_system.common.contants.CommonConstants;
+import com.sinha.ecom_system.common.dto.SessionRevocationEvent;
+import com.sinha.ecom_system.common.dto.TokenRevocationEvent;
+import com.sinha.ecom_system.common.util.RotatingBloomFilter;
+import io.lettuce.core.event.connection.ConnectionActivatedEvent;
+import io.lettuce.core.event.connection.ConnectionDeactivatedEvent;
+import io.lettuce.core.resource.ClientResources;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.ReactiveSubscription.Message;
 import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.ReactiveRedisMessageListenerContainer;
 import org.springframework.stereotype.Service;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Date;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Reactive Token Blacklist Service
+ *
+ * Keeps a local near-cache of revoked token IDs so the blacklist check on the
+ * request path does not need a Redis round trip:
+ * - auth-service publishes every revocation on the token revocation channel
+ * - each gateway applies those events to its local cache
+ * - a full resync (SCAN of blacklist keys) runs on startup and after every reconnect
+ *
+ * Redis is only queried while the near-cache is not authoritative
+ * (before the first resync, while disconnected, or after size evictions)
+ *
+ * When the near-cache cannot answer, a replicated rotating Bloom filter of revoked
+ * token IDs (fixed memory, maintained in Redis by auth-service) rules out tokens
+ * that were never revoked; only possible hits go to Redis
+ *
+ * "Logout everywhere" is a per-user watermark (token:revoked-before:{authId}):
+ * access tokens of that user issued before it are rejected. Watermarks are
+ * replicated the same way (session revocation channel + resync) into a second
+ * near-cache, and checked with isSessionRevoked
+ */
 @Service
 @Slf4j
 public class ReactiveTokenBlacklistService {
 
-    private static final String BLACKLIST_PREFIX = "token:blacklist:";
+    private static final String BLACKLIST_PREFIX = CommonConstants.TOKEN_BLACKLIST_PREFIX;
+    private static final String REVOKED_BEFORE_PREFIX = CommonConstants.TOKEN_REVOKED_BEFORE_PREFIX;
+    private static final Mono<Boolean> BLACKLISTED = Mono.just(true);
+    private static final Mono<Boolean> NOT_BLACKLISTED = Mono.just(false);
+
     private final ReactiveRedisTemplate<String, String> redisTemplate;
+    private final ReactiveRedisMessageListenerContainer listenerContainer;
+    private final ClientResources clientResources;
+    private final TokenBloomProperties bloomProperties;
+    private final long defaultTtlMillis;
+
+    @Value("${api-gateway.blacklist.near-cache-enabled:true}")
+    private boolean nearCacheEnabled;
+
+    @Value("${api-gateway.blacklist.near-cache-max-size:1000000}")
+    private long nearCacheMaxSize;
+
+    // Revoked token ID -> token expiry (epoch millis)
+    private Cache<String, Long> nearCache;
+    // User ID -> revoked-before watermark (epoch millis)
+    private Cache<UUID, Long> sessionWatermarks;
+    // Replica of the Redis bloom buckets; null when disabled
+    private RotatingBloomFilter bloomFilter;
+
+    // True once the revocation channel subscription is live
+    private volatile boolean subscribed;
+    // True only while subscribed and fully resynced since the last (re)connect
+    private volatile boolean synced;
+    private volatile boolean bloomSynced;
+    private volatile boolean sessionsSynced;
+    // Set once an entry was dropped for size; misses can no longer be trusted
+    private volatile boolean overflowed;
+    private volatile boolean sessionsOverflowed;
+    // Bumped on every disconnect so a resync started before it cannot mark the cache synced
+    private final AtomicLong connectionEpoch = new AtomicLong();
+
+    private final Disposable.Composite subscriptions = Disposables.composite();
 
     public ReactiveTokenBlacklistService(
-            ReactiveRedisTemplate<String, String> redisTemplate) {
+            ReactiveRedisTemplate<String, String> redisTemplate,
+            ReactiveRedisMessageListenerContainer listenerContainer,
+            ClientResources clientResources,
+            TokenBloomProperties bloomProperties,
+            JwtConfig jwtConfig) {
         this.redisTemplate = redisTemplate;
+        this.listenerContainer = listenerContainer;
+        this.clientResources = clientResources;
+        this.bloomProperties = bloomProperties;
+        this.defaultTtlMillis = jwtConfig.getAccessTokenExpiry();
+    }
+
+    @PostConstruct
+    void start() {
+        if (bloomProperties.isEnabled()) {
+            bloomFilter = new RotatingBloomFilter(bloomProperties, defaultTtlMillis);
+        }
+        if (nearCacheEnabled) {
+            nearCache = Caffeine.newBuilder()
+                    .maximumSize(nearCacheMaxSize)
+                    .expireAfter(new ExpireAtTokenExpiry())
+                    .removalListener((String tokenId, Long expiresAt, RemovalCause cause) -> {
+                        if (cause == RemovalCause.SIZE) {
+                            overflowed = true;
+                        }
+                    })
+                    .build();
+            sessionWatermarks = Caffeine.newBuilder()
+                    .maximumSize(nearCacheMaxSize)
+                    .expireAfter(new ExpireAfterWatermark(defaultTtlMillis))
+                    .removalListener((UUID userId, Long revokedBefore, RemovalCause cause) -> {
+                        if (cause == RemovalCause.SIZE) {
+                            sessionsOverflowed = true;
+                        }
+                    })
+                    .build();
+        }
+        if (nearCache == null && bloomFilter == null) {
+            log.info("Blacklist near-cache and bloom filter disabled, every check goes to Redis");
+            return;
+        }
+
+        // Drop to Redis lookups while disconnected, resync once a connection is back
+        subscriptions.add(clientResources.eventBus().get()
+                .subscribe(event -> {
+                    if (event instanceof ConnectionDeactivatedEvent) {
+                        markUnsynced();
+                    } else if (event instanceof ConnectionActivatedEvent && subscribed && !synced) {
+                        resync().subscribe();
+                    }
+                }));
+
+        // Apply revocations as they are published; resync once the subscription is live
+        subscriptions.add(listenerContainer
+                .receiveLater(ChannelTopic.of(CommonConstants.TOKEN_REVOCATION_CHANNEL),
+                        ChannelTopic.of(CommonConstants.SESSION_REVOCATION_CHANNEL))
+                .flatMapMany(messages -> {
+                    subscribed = true;
+                    // Listen while resyncing so events published during the SCAN are not lost
+                    return messages.mergeWith(resync().then(Mono.<Message<String, String>>empty()));
+                })
+                .doOnError(e -> {
+                    log.warn("Token revocation subscription failed: {}", e.getMessage());
+                    subscribed = false;
+                    markUnsynced();
+                })
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, Duration.ofMillis(500))
+                        .maxBackoff(Duration.ofSeconds(30)))
+                .subscribe(message -> {
+                    if (CommonConstants.SESSION_REVOCATION_CHANNEL.equals(message.getChannel())) {
+                        apply(SessionRevocationEvent.fromMessage(message.getMessage()));
+                    } else {
+                        apply(TokenRevocationEvent.fromMessage(message.getMessage()));
+                    }
+                }));
+    }
+
+    @PreDestroy
+    void stop() {
+        subscriptions.dispose();
     }
 
     public Mono<Boolean> isTokenBlacklisted(String tokenId) {
+        return isTokenBlacklisted(tokenId, null);
+    }
+
+    /**
+     * Check a token using its expiry to pick the Bloom filter bucket
+     */
+    public Mono<Boolean> isTokenBlacklisted(String tokenId, Date expiresAt) {
+        if (nearCache != null) {
+            if (nearCache.getIfPresent(tokenId) != null) {
+                log.debug("Token {} is blacklisted", tokenId);
+                return BLACKLISTED;
+            }
+            if (synced && !overflowed) {
+                return NOT_BLACKLISTED;
+            }
+        }
+
+        if (bloomFilter != null && bloomSynced && expiresAt != null
+                && !bloomFilter.mightContain(tokenId, expiresAt.getTime())) {
+            return NOT_BLACKLISTED;
+        }
+
         String key = BLACKLIST_PREFIX + tokenId;
         return redisTemplate.hasKey(key)
                 .defaultIfEmpty(false)
@@ -27,4 +215,233 @@ public class ReactiveTokenBlacklistService {
                     }
                 });
     }
-}
\ No newline at end of file
+
+    /**
+     * True if every session of the user was revoked after this token was issued
+     *
+     * Both sides are epoch millis (iat_ms claim vs. the exact logout-all time), so a
+     * login right after a logout-all is accepted. On a tie the token is revoked:
+     * the race is decided for revocation, never for a token that might predate it.
+     * Older tokens without iat_ms compare their whole-second iat, which is at or
+     * before the real issue time, so they also err towards revocation
+     *
+     * @param issuedAtMillis Issue time of the token, epoch millis (VerifiedClaims.getIssuedAtMillis)
+     */
+    public Mono<Boolean> isSessionRevoked(UUID userId, long issuedAtMillis) {
+        if (sessionWatermarks != null) {
+            Long revokedBefore = sessionWatermarks.getIfPresent(userId);
+            if (revokedBefore != null) {
+                return issuedAtMillis <= revokedBefore ? BLACKLISTED : NOT_BLACKLISTED;
+            }
+            if (sessionsSynced && !sessionsOverflowed) {
+                return NOT_BLACKLISTED;
+            }
+        }
+
+        return redisTemplate.opsForValue().get(REVOKED_BEFORE_PREFIX + userId)
+                .map(value -> issuedAtMillis <= Long.parseLong(value))
+                .defaultIfEmpty(false)
+                .doOnNext(revoked -> {
+                    if (Boolean.TRUE.equals(revoked)) {
+                        log.debug("Sessions of user {} were revoked after this token was issued", userId);
+                    }
+                });
+    }
+
+    /**
+     * Apply a session revocation to the watermark near-cache (watermarks only move forward)
+     */
+    private void apply(SessionRevocationEvent event) {
+        if (event == null || sessionWatermarks == null
+                || event.getRevokedBefore() + defaultTtlMillis <= System.currentTimeMillis()) {
+            return;
+        }
+        sessionWatermarks.asMap().merge(event.getAuthId(), event.getRevokedBefore(), Math::max);
+    }
+
+    /**
+     * Apply a single revocation event to the near-cache
+     */
+    private void apply(TokenRevocationEvent event) {
+        if (event == null || event.getExpiresAt() <= System.currentTimeMillis()) {
+            return;
+        }
+        if (bloomFilter != null) {
+            bloomFilter.add(event.getTokenId(), event.getExpiresAt());
+        }
+        if (nearCache != null) {
+            nearCache.put(event.getTokenId(), event.getExpiresAt());
+        }
+    }
+
+    private void markUnsynced() {
+        connectionEpoch.incrementAndGet();
+        synced = false;
+        bloomSynced = false;
+        sessionsSynced = false;
+    }
+
+    /**
+     * Reload the Bloom filter buckets (fixed size), then the near-caches
+     */
+    private Mono<Void> resync() {
+        return resyncBloomFilter().then(resyncNearCache()).then(resyncSessionWatermarks());
+    }
+
+    /**
+     * Copy every live bucket bitmap from Redis into the local Bloom filter
+     */
+    private Mono<Void> resyncBloomFilter() {
+        if (bloomFilter == null) {
+            return Mono.empty();
+        }
+        long epoch = connectionEpoch.get();
+        long now = System.currentTimeMillis();
+        long first = bloomFilter.firstLiveBucket(now);
+        int count = (int) (bloomFilter.lastLiveBucket(now) - first + 1);
+
+        return Flux.range(0, count)
+                .map(i -> first + i)
+                .concatMap(bucketIndex -> {
+                    ByteBuffer key = ByteBuffer.wrap((CommonConstants.TOKEN_BLOOM_PREFIX + bucketIndex)
+                            .getBytes(StandardCharsets.UTF_8));
+                    return redisTemplate.execute(connection -> connection.stringCommands().get(key))
+                            .next()
+                            .map(ReactiveTokenBlacklistService::toBytes)
+                            .defaultIfEmpty(new byte[0])
+                            .doOnNext(bitmap -> bloomFilter.loadBucket(bucketIndex, bitmap));
+                })
+                .then()
+                .doOnSuccess(v -> {
+                    if (subscribed && connectionEpoch.get() == epoch) {
+                        bloomSynced = true;
+                        log.info("Blacklist bloom filter resynced: {} buckets", count);
+                    }
+                })
+                .onErrorResume(e -> {
+                    log.warn("Blacklist bloom filter resync failed: {}", e.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    /**
+     * Reload every blacklist key from Redis into the near-cache
+     */
+    private Mono<Void> resyncNearCache() {
+        if (nearCache == null) {
+            return Mono.empty();
+        }
+        long epoch = connectionEpoch.get();
+        long startedAt = System.currentTimeMillis();
+        ScanOptions options = ScanOptions.scanOptions()
+                .match(BLACKLIST_PREFIX + "*")
+                .count(1000)
+                .build();
+
+        return redisTemplate.scan(options)
+                .flatMap(key -> redisTemplate.getExpire(key)
+                        .doOnNext(ttl -> {
+                            long ttlMillis = ttl.isZero() || ttl.isNegative() ? defaultTtlMillis : ttl.toMillis();
+                            nearCache.put(key.substring(BLACKLIST_PREFIX.length()), startedAt + ttlMillis);
+                        }), 64)
+                .then()
+                .doOnSuccess(v -> {
+                    if (subscribed && connectionEpoch.get() == epoch) {
+                        overflowed = false;
+                        synced = true;
+                        log.info("Blacklist near-cache resynced: {} entries", nearCache.estimatedSize());
+                    }
+                })
+                .onErrorResume(e -> {
+                    log.warn("Blacklist near-cache resync failed: {}", e.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    /**
+     * Reload every session watermark from Redis
+     */
+    private Mono<Void> resyncSessionWatermarks() {
+        if (sessionWatermarks == null) {
+            return Mono.empty();
+        }
+        long epoch = connectionEpoch.get();
+        ScanOptions options = ScanOptions.scanOptions()
+                .match(REVOKED_BEFORE_PREFIX + "*")
+                .count(1000)
+                .build();
+
+        return redisTemplate.scan(options)
+                .flatMap(key -> redisTemplate.opsForValue().get(key)
+                        .doOnNext(value -> apply(new SessionRevocationEvent(
+                                UUID.fromString(key.substring(REVOKED_BEFORE_PREFIX.length())),
+                                Long.parseLong(value)))), 64)
+                .then()
+                .doOnSuccess(v -> {
+                    if (subscribed && connectionEpoch.get() == epoch) {
+                        sessionsOverflowed = false;
+                        sessionsSynced = true;
+                        log.info("Session watermark near-cache resynced: {} entries", sessionWatermarks.estimatedSize());
+                    }
+                })
+                .onErrorResume(e -> {
+                    log.warn("Session watermark near-cache resync failed: {}", e.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    private static byte[] toBytes(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        return bytes;
+    }
+
+    /**
+     * Expire each near-cache entry when the revoked token itself expires
+     */
+    private static final class ExpireAtTokenExpiry implements Expiry<String, Long> {
+
+        @Override
+        public long expireAfterCreate(String tokenId, Long expiresAt, long currentTime) {
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(expiresAt - System.currentTimeMillis(), 0));
+        }
+
+        @Override
+        public long expireAfterUpdate(String tokenId, Long expiresAt, long currentTime, long currentDuration) {
+            return expireAfterCreate(tokenId, expiresAt, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String tokenId, Long expiresAt, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+
+    /**
+     * Keep a watermark until every token it covers has expired (issued before it + access token lifetime)
+     */
+    private static final class ExpireAfterWatermark implements Expiry<UUID, Long> {
+
+        private final long accessTokenExpiryMillis;
+
+        ExpireAfterWatermark(long accessTokenExpiryMillis) {
+            this.accessTokenExpiryMillis = accessTokenExpiryMillis;
+        }
+
+        @Override
+        public long expireAfterCreate(UUID userId, Long revokedBefore, long currentTime) {
+            return TimeUnit.MILLISECONDS.toNanos(
+                    Math.max(revokedBefore + accessTokenExpiryMillis - System.currentTimeMillis(), 0));
+        }
+
+        @Override
+        public long expireAfterUpdate(UUID userId, Long revokedBefore, long currentTime, long currentDuration) {
+            return expireAfterCreate(userId, revokedBefore, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(UUID userId, Long revokedBefore, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.sinha.ecom_system.api_gateway.util;
+
+import com.sinha.ecom_system.api_gateway.model.CachedResponse;
+import org.reactivestreams.Publisher;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.ByteArrayOutputStream;
+import java.util.function.Consumer;
+
+/**
+ * Capturing Response Decorator
+ * Streams the downstream response to the client unchanged while keeping a copy
+ *
+ * Once the body is fully written, the copy is handed to the callback as a
+ * CachedResponse. The copy is dropped (callback gets null) if the body exceeds
+ * maxBodyBytes or the write fails, so memory per request stays bounded.
+ */
+public class CapturingResponseDecorator extends ServerHttpResponseDecorator {
+
+    private final int maxBodyBytes;
+    private final Consumer<CachedResponse> onComplete;
+
+    private ByteArrayOutputStream captured = new ByteArrayOutputStream();
+    private boolean done;
+
+    public CapturingResponseDecorator(ServerHttpResponse delegate, int maxBodyBytes,
+                                      Consumer<CachedResponse> onComplete) {
+        super(delegate);
+        this.maxBodyBytes = maxBodyBytes;
+        this.onComplete = onComplete;
+    }
+
+    @Override
+    public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+        Flux<? extends DataBuffer> copying = Flux.from(body)
+                .doOnNext(this::copy)
+                .doOnComplete(this::complete)
+                .doOnError(e -> abandon())
+                .doOnCancel(this::abandon);
+        return super.writeWith(copying);
+    }
+
+    @Override
+    public Mono<Void> writeAndFlushWith(Publisher<? extends Publisher<? extends DataBuffer>> body) {
+        return writeWith(Flux.from(body).concatMap(Flux::from));
+    }
+
+    @Override
+    public Mono<Void> setComplete() {
+        // Bodiless responses (e.g. 204) never go through writeWith
+        return super.setComplete().doOnSuccess(v -> complete());
+    }
+
+    private void copy(DataBuffer buffer) {
+        if (captured == null) {
+            return;
+        }
+        int count = buffer.readableByteCount();
+        if (captured.size() + count > maxBodyBytes) {
+            captured = null;
+            return;
+        }
+        byte[] chunk = new byte[count];
+        int position = buffer.readPosition();
+        buffer.read(chunk);
+        buffer.readPosition(position);
+        captured.write(chunk, 0, count);
+    }
+
+    private void complete() {
+        if (done) {
+            return;
+        }
+        done = true;
+        HttpStatusCode status = getStatusCode();
+        if (captured == null || status == null) {
+            onComplete.accept(null);
+            return;
+        }
+        onComplete.accept(new CachedResponse(
+                status.value(), CachedResponse.copyHeaders(getHeaders()), captured.toByteArray(), 0));
+    }
+
+    private void abandon() {
+        if (!done) {
+            done = true;
+            captured = null;
+            onComplete.accept(null);
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.sinha.ecom_system.api_gateway.util;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Error Response Writer
+ * Writes the gateway's JSON error body without formatting it per request
+ *
+ * The body for each status/message pair is built once; only the timestamp is
+ * spliced in, and it is re-formatted at most once per second. The body is
+ * copied straight into a buffer from the response's (pooled) buffer factory.
+ *
+ * With api-gateway.error.include-timestamp=false the whole body is constant.
+ */
+@Component
+public class ErrorResponseWriter {
+
+    private final boolean includeTimestamp;
+
+    // Status -> message -> prebuilt body; messages are constants, so this stays small
+    private final Map<HttpStatus, Map<String, Template>> templates = new EnumMap<>(HttpStatus.class);
+
+    private volatile Timestamp timestamp = Timestamp.of(Instant.now().getEpochSecond());
+
+    public ErrorResponseWriter(@Value("${api-gateway.error.include-timestamp:true}") boolean includeTimestamp) {
+        this.includeTimestamp = includeTimestamp;
+        for (HttpStatus status : HttpStatus.values()) {
+            templates.put(status, new ConcurrentHashMap<>());
+        }
+    }
+
+    /**
+     * Set status and content type, then write the error body
+     */
+    public Mono<Void> write(ServerWebExchange exchange, HttpStatus status, String message) {
+        ServerHttpResponse response = exchange.getResponse();
+        Map<String, Template> byMessage = templates.get(status);
+        Template template = byMessage.get(message);
+        if (template == null) {
+            template = byMessage.computeIfAbsent(message, m -> Template.of(status, m, includeTimestamp));
+        }
+
+        byte[] timestampBytes = includeTimestamp ? currentTimestamp() : null;
+        int length = template.length(timestampBytes);
+
+        response.setStatusCode(status);
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        response.getHeaders().setContentLength(length);
+
+        DataBuffer buffer = response.bufferFactory().allocateBuffer(length);
+        buffer.write(template.head);
+        if (timestampBytes != null) {
+            buffer.write(timestampBytes);
+            buffer.write(template.tail);
+        }
+        return response.writeWith(Mono.just(buffer));
+    }
+
+    private byte[] currentTimestamp() {
+        long second = System.currentTimeMillis() / 1000;
+        Timestamp current = timestamp;
+        if (current.second != second) {
+            // Racing threads may both format; either result is correct
+            current = Timestamp.of(second);
+            timestamp = current;
+        }
+        return current.bytes;
+    }
+
+    /**
+     * Error body split around the timestamp value
+     */
+    private static final class Template {
+
+        private final byte[] head;
+        private final byte[] tail;
+
+        private Template(byte[] head, byte[] tail) {
+            this.head = head;
+            this.tail = tail;
+        }
+
+        static Template of(HttpStatus status, String message, boolean includeTimestamp) {
+            String body = "{\"error\":\"" + escape(status.getReasonPhrase()) + "\"," +
+                    "\"message\":\"" + escape(message) + "\"," +
+                    "\"status\":" + status.value();
+            if (!includeTimestamp) {
+                return new Template((body + "}").getBytes(StandardCharsets.UTF_8), new byte[0]);
+            }
+            return new Template(
+                    (body + ",\"timestamp\":\"").getBytes(StandardCharsets.UTF_8),
+                    "\"}".getBytes(StandardCharsets.UTF_8));
+        }
+
+        int length(byte[] timestampBytes) {
+            return timestampBytes == null ? head.length : head.length + timestampBytes.length + tail.length;
+        }
+
+        private static String escape(String value) {
+            return value.replace("\\", "\\\\").replace("\"", "\\\"");
+        }
+    }
+
+    /**
+     * ISO-8601 timestamp bytes for one wall-clock second
+     */
+    private record Timestamp(long second, byte[] bytes) {
+
+        static Timestamp of(long second) {
+            return new Timestamp(second, Instant.ofEpochSecond(second).toString().getBytes(StandardCharsets.US_ASCII));
+        }
+    }
+}
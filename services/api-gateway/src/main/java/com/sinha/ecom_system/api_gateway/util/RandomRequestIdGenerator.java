@@ -0,0 +1,15 @@
+package com.sinha.ecom_system.api_gateway.util;
+
+import java.util.UUID;
+
+/**
+ * Random UUID (v4) request IDs from SecureRandom
+ * Unpredictable, but may contend under high concurrency
+ */
+public class RandomRequestIdGenerator implements RequestIdGenerator {
+
+    @Override
+    public String nextId() {
+        return UUID.randomUUID().toString();
+    }
+}
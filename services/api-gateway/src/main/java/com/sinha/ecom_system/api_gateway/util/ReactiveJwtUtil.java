@@ -1,51 +1,128 @@
 package com.sinha.ecom_system.api_gateway.util;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import com.sinha.ecom_system.api_gateway.config.JwtConfig;
+import com.sinha.ecom_system.api_gateway.model.VerifiedClaims;
+import com.sinha.ecom_system.common.enums.Permission;
+import com.sinha.ecom_system.common.security.JwtKeyLocator;
+import com.sinha.ecom_system.common.security.JwtKeyProvider;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
 
 import javax.crypto.SecretKey;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Date;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Reactive JWT Utility for API Gateway
  * Handles JWT validation and claims extraction
+ *
+ * The parser is built once and is thread-safe, so every request reuses it
+ * instead of creating a new one. Its key locator picks the key per token:
+ * EdDSA tokens (kid header) verify against the JWKS keys of auth-service,
+ * HS256 tokens against the shared secret only while JWT_ACCEPT_HMAC is true
+ *
+ * Optionally keeps a bounded cache of already-verified tokens keyed by their
+ * SHA-256 digest, so a token that is resent before it expires skips
+ * signature verification and JSON decoding entirely
  */
 @Component
 @Slf4j
 public class ReactiveJwtUtil {
 
-    private final SecretKey secretKey;
+    /**
+     * Exchange attribute holding the VerifiedClaims of the current request
+     */
+    public static final String VERIFIED_CLAIMS_ATTR = ReactiveJwtUtil.class.getName() + ".verifiedClaims";
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    });
+
+    private final JwtParser jwtParser;
+
+    // Verified claims by token digest; null when the cache is disabled
+    private final Cache<TokenDigest, VerifiedClaims> verifiedCache;
 
-    public ReactiveJwtUtil(JwtConfig jwtConfig) {
-        this.secretKey = Keys.hmacShaKeyFor(
-            jwtConfig.getSecretKey().getBytes(StandardCharsets.UTF_8)
-        );
+    public ReactiveJwtUtil(JwtConfig jwtConfig,
+                           ObjectProvider<JwtKeyProvider> keyProvider,
+                           MeterRegistry meterRegistry) {
+        SecretKey secretKey = null;
+        if (jwtConfig.isAcceptHmac() && jwtConfig.getSecretKey() != null && !jwtConfig.getSecretKey().isBlank()) {
+            secretKey = Keys.hmacShaKeyFor(
+                jwtConfig.getSecretKey().getBytes(StandardCharsets.UTF_8)
+            );
+        }
+        this.jwtParser = Jwts.parser()
+                .keyLocator(new JwtKeyLocator(keyProvider.getIfAvailable(), secretKey))
+                .build();
+
+        if (jwtConfig.isVerifiedCacheEnabled()) {
+            this.verifiedCache = Caffeine.newBuilder()
+                    .maximumSize(jwtConfig.getVerifiedCacheMaxSize())
+                    .expireAfter(new ExpireAtTokenExpiry())
+                    .recordStats()
+                    .build();
+            // Exposes cache.gets{result=hit|miss}, cache.evictions, cache.size under this name
+            CaffeineCacheMetrics.monitor(meterRegistry, verifiedCache, "gateway.jwt.verified");
+        } else {
+            this.verifiedCache = null;
+        }
     }
 
     /**
      * Parse and validate JWT token
      */
     public Claims parseToken(String token) {
-        return Jwts.parser()
-                .verifyWith(secretKey)
-                .build()
+        return jwtParser
                 .parseSignedClaims(token)
                 .getPayload();
     }
 
     /**
-     * Validate token (signature + expiration)
+     * Verify token once and return its claims
+     * Returns null for any invalid token (malformed, expired, bad signature)
+     * Only successfully verified tokens are cached, until their exp claim
      */
-    public boolean validateToken(String token) {
+    public VerifiedClaims verify(String token) {
+        if (verifiedCache == null) {
+            return verifyUncached(token);
+        }
+
+        TokenDigest digest = TokenDigest.of(token);
+        VerifiedClaims claims = verifiedCache.getIfPresent(digest);
+        if (claims != null) {
+            return claims;
+        }
+
+        claims = verifyUncached(token);
+        if (claims != null && claims.getExpiration() != null) {
+            verifiedCache.put(digest, claims);
+        }
+        return claims;
+    }
+
+    private VerifiedClaims verifyUncached(String token) {
         try {
-            parseToken(token);
-            return true;
+            return VerifiedClaims.from(parseToken(token));
         } catch (ExpiredJwtException e) {
             log.debug("JWT token expired: {}", e.getMessage());
         } catch (MalformedJwtException e) {
@@ -55,7 +132,36 @@ public class ReactiveJwtUtil {
         } catch (Exception e) {
             log.error("JWT validation error: {}", e.getMessage());
         }
-        return false;
+        return null;
+    }
+
+    /**
+     * Verify token at most once per exchange
+     * The result is cached on the exchange attributes for later filters
+     */
+    public VerifiedClaims verify(ServerWebExchange exchange, String token) {
+        VerifiedClaims claims = getVerifiedClaims(exchange);
+        if (claims == null) {
+            claims = verify(token);
+            if (claims != null) {
+                exchange.getAttributes().put(VERIFIED_CLAIMS_ATTR, claims);
+            }
+        }
+        return claims;
+    }
+
+    /**
+     * Claims verified earlier in the filter chain, or null for unauthenticated requests
+     */
+    public static VerifiedClaims getVerifiedClaims(ServerWebExchange exchange) {
+        return exchange.getAttribute(VERIFIED_CLAIMS_ATTR);
+    }
+
+    /**
+     * Validate token (signature + expiration)
+     */
+    public boolean validateToken(String token) {
+        return verify(token) != null;
     }
 
     /**
@@ -81,11 +187,10 @@ public class ReactiveJwtUtil {
     }
 
     /**
-     * Extract permissions from token
+     * Extract permission names from token
      */
-    @SuppressWarnings("unchecked")
     public List<String> getPermissionsFromToken(String token) {
-        return parseToken(token).get("permissions", List.class);
+        return Permission.namesOf(VerifiedClaims.from(parseToken(token)).getPermissionMask());
     }
 
     /**
@@ -108,5 +213,38 @@ public class ReactiveJwtUtil {
     public Date getExpirationDate(String token) {
         return parseToken(token).getExpiration();
     }
-}
 
+    /**
+     * SHA-256 of the raw token, held as four longs to keep the key small
+     */
+    private record TokenDigest(long w0, long w1, long w2, long w3) {
+
+        static TokenDigest of(String token) {
+            byte[] hash = SHA_256.get().digest(token.getBytes(StandardCharsets.US_ASCII));
+            ByteBuffer buffer = ByteBuffer.wrap(hash);
+            return new TokenDigest(buffer.getLong(), buffer.getLong(), buffer.getLong(), buffer.getLong());
+        }
+    }
+
+    /**
+     * Expire each cache entry exactly when the token itself expires
+     */
+    private static final class ExpireAtTokenExpiry implements Expiry<TokenDigest, VerifiedClaims> {
+
+        @Override
+        public long expireAfterCreate(TokenDigest key, VerifiedClaims claims, long currentTime) {
+            long remainingMillis = claims.getExpiration().getTime() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(remainingMillis, 0));
+        }
+
+        @Override
+        public long expireAfterUpdate(TokenDigest key, VerifiedClaims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+        @Override
+        public long expireAfterRead(TokenDigest key, VerifiedClaims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.sinha.ecom_system.api_gateway.util;
+
+/**
+ * Request ID Generator
+ * Source of X-Request-ID values for requests that arrive without one
+ * (selected with api-gateway.request-id.generator, see RequestIdConfig)
+ */
+public interface RequestIdGenerator {
+
+    String nextId();
+}
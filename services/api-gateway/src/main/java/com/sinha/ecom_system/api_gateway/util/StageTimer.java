@@ -0,0 +1,117 @@
+package com.sinha.ecom_system.api_gateway.util;
+
+import com.sinha.ecom_system.api_gateway.config.GatewayMetricsConfig;
+import com.sinha.ecom_system.api_gateway.filter.AppGlobalFIlter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Stage Timer
+ * Records gateway latency per route and filter stage as gateway.stage.duration{route, stage}
+ *
+ * Timers publish percentile histograms (Micrometer keeps them in HdrHistogram-style
+ * buckets) and are exported through actuator /metrics.
+ *
+ * Sampling is decided once per request: unsampled requests get start() == 0 and
+ * stop() returns immediately, so they pay neither System.nanoTime() nor recording.
+ */
+@Component
+@Slf4j
+public class StageTimer {
+
+    private static final String SAMPLED_ATTR = StageTimer.class.getName() + ".sampled";
+    private static final String NO_ROUTE = "none";
+
+    public enum Stage {
+        TOTAL("total"),
+        REQUEST_ID("request-id"),
+        JWT_VERIFY("jwt-verify"),
+        BLACKLIST("blacklist"),
+        RATE_LIMIT("rate-limit"),
+        DOWNSTREAM("downstream");
+
+        private final String tag;
+
+        Stage(String tag) {
+            this.tag = tag;
+        }
+    }
+
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final double sampleRate;
+    private final boolean histogram;
+    private final long slowStageNanos;
+
+    // Route ID -> timers indexed by stage ordinal
+    private final Map<String, Timer[]> timers = new ConcurrentHashMap<>();
+
+    public StageTimer(MeterRegistry meterRegistry, GatewayMetricsConfig config) {
+        this.meterRegistry = meterRegistry;
+        this.enabled = config.isEnabled() && config.getSampleRate() > 0;
+        this.sampleRate = config.getSampleRate();
+        this.histogram = config.isHistogram();
+        this.slowStageNanos = TimeUnit.MILLISECONDS.toNanos(config.getSlowStageMillis());
+    }
+
+    /**
+     * Decide once whether this request is timed; call before the first start()
+     */
+    public void sample(ServerWebExchange exchange) {
+        boolean sampled = enabled && (sampleRate >= 1.0 || ThreadLocalRandom.current().nextDouble() < sampleRate);
+        exchange.getAttributes().put(SAMPLED_ATTR, sampled);
+    }
+
+    /**
+     * Start time of a stage, or 0 if the request is not sampled
+     */
+    public long start(ServerWebExchange exchange) {
+        return Boolean.TRUE.equals(exchange.getAttribute(SAMPLED_ATTR)) ? System.nanoTime() : 0;
+    }
+
+    public void stop(ServerWebExchange exchange, Stage stage, long startNanos) {
+        if (startNanos == 0) {
+            return;
+        }
+        long elapsed = System.nanoTime() - startNanos;
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        String routeId = route != null ? route.getId() : NO_ROUTE;
+        timersFor(routeId)[stage.ordinal()].record(elapsed, TimeUnit.NANOSECONDS);
+
+        if (elapsed >= slowStageNanos) {
+            log.warn("Slow {} stage on route {}: {} ms [requestId={}]",
+                    stage.tag, routeId, TimeUnit.NANOSECONDS.toMillis(elapsed),
+                    exchange.getAttribute(AppGlobalFIlter.REQUEST_ID_ATTR));
+        }
+    }
+
+    private Timer[] timersFor(String routeId) {
+        Timer[] routeTimers = timers.get(routeId);
+        if (routeTimers != null) {
+            return routeTimers;
+        }
+        return timers.computeIfAbsent(routeId, id -> {
+            Stage[] stages = Stage.values();
+            Timer[] created = new Timer[stages.length];
+            for (Stage stage : stages) {
+                created[stage.ordinal()] = Timer.builder("gateway.stage.duration")
+                        .description("Gateway latency per route and filter stage")
+                        .tag("route", id)
+                        .tag("stage", stage.tag)
+                        .publishPercentileHistogram(histogram)
+                        .register(meterRegistry);
+            }
+            return created;
+        });
+    }
+}
@@ -0,0 +1,47 @@
+package com.sinha.ecom_system.api_gateway.util;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Time-ordered request IDs in UUIDv7 layout
+ *
+ * 48-bit Unix millis | version 7 | 12-bit sequence | variant | 62 random bits
+ *
+ * Each thread keeps its own last timestamp and sequence, so generation is
+ * lock-free and IDs from one thread are strictly increasing (the sequence is
+ * bumped within a millisecond and borrows the next millisecond on overflow).
+ * Randomness comes from ThreadLocalRandom: IDs are unique, not unguessable.
+ */
+public class TimeOrderedRequestIdGenerator implements RequestIdGenerator {
+
+    private static final long MAX_SEQUENCE = 0xFFF;
+
+    private static final ThreadLocal<State> STATE = ThreadLocal.withInitial(State::new);
+
+    @Override
+    public String nextId() {
+        State state = STATE.get();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long now = System.currentTimeMillis();
+
+        if (now > state.lastMillis) {
+            state.lastMillis = now;
+            // Random start in the lower half leaves room to count up within the millisecond
+            state.sequence = random.nextLong(MAX_SEQUENCE / 2);
+        } else if (++state.sequence > MAX_SEQUENCE) {
+            state.lastMillis++;
+            state.sequence = 0;
+        }
+
+        long mostSigBits = (state.lastMillis << 16) | 0x7000L | state.sequence;
+        long leastSigBits = (random.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return new UUID(mostSigBits, leastSigBits).toString();
+    }
+
+    private static final class State {
+
+        private long lastMillis;
+        private long sequence;
+    }
+}
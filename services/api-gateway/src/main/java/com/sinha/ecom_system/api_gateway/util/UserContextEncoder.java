@@ -0,0 +1,79 @@
+package com.sinha.ecom_system.api_gateway.util;
+
+import com.sinha.ecom_system.api_gateway.model.VerifiedClaims;
+import com.sinha.ecom_system.common.enums.SystemRole;
+import com.sinha.ecom_system.common.security.UserContext;
+import com.sinha.ecom_system.common.security.UserContextCodec;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * User Context Encoder
+ * Builds the signed X-User-Context header sent downstream instead of the
+ * email / roles / permissions string headers (layout: see UserContext)
+ *
+ * The header expires with the access token, so a captured value cannot be replayed for longer
+ */
+@Component
+@Slf4j
+public class UserContextEncoder {
+
+    private final UserContextCodec codec;
+
+    public UserContextEncoder(@Value("${api-gateway.secret-key}") String gatewaySecret) {
+        this.codec = new UserContextCodec(gatewaySecret);
+    }
+
+    public String encode(VerifiedClaims claims) {
+        byte[] email = claims.getEmail() != null ? claims.getEmail().getBytes(StandardCharsets.UTF_8) : new byte[0];
+        if (email.length > UserContext.MAX_EMAIL_BYTES) {
+            email = new byte[0];
+        }
+        List<String> roles = claims.getRoles();
+        int roleCount = Math.min(roles.size(), UserContext.MAX_ROLES);
+
+        byte[] data = new byte[UserContext.ROLES_OFFSET + roleCount + 2 + email.length + UserContext.MAC_LENGTH];
+        data[0] = UserContext.VERSION;
+        UUID userId = claims.getUserId();
+        writeLong(data, UserContext.USER_ID_OFFSET, userId.getMostSignificantBits());
+        writeLong(data, UserContext.USER_ID_OFFSET + 8, userId.getLeastSignificantBits());
+        writeInt(data, UserContext.EXPIRES_AT_OFFSET, (int) (claims.getExpiration().getTime() / 1000));
+        writeInt(data, UserContext.PERMISSIONS_OFFSET, claims.getPermissionMask());
+
+        // Roles without an ID cannot be carried; downstream only checks known roles
+        int offset = UserContext.ROLES_OFFSET;
+        for (int i = 0; i < roleCount; i++) {
+            SystemRole role = SystemRole.fromName(roles.get(i));
+            if (role != null) {
+                data[offset++] = (byte) role.getId();
+            } else {
+                log.debug("Role {} has no ID, not added to user context", roles.get(i));
+            }
+        }
+        data[UserContext.ROLE_COUNT_OFFSET] = (byte) (offset - UserContext.ROLES_OFFSET);
+
+        data[offset++] = (byte) (email.length >>> 8);
+        data[offset++] = (byte) email.length;
+        System.arraycopy(email, 0, data, offset, email.length);
+        offset += email.length;
+
+        return codec.seal(data, offset);
+    }
+
+    private static void writeInt(byte[] b, int off, int value) {
+        b[off] = (byte) (value >>> 24);
+        b[off + 1] = (byte) (value >>> 16);
+        b[off + 2] = (byte) (value >>> 8);
+        b[off + 3] = (byte) value;
+    }
+
+    private static void writeLong(byte[] b, int off, long value) {
+        writeInt(b, off, (int) (value >>> 32));
+        writeInt(b, off + 4, (int) value);
+    }
+}
@@ -0,0 +1,74 @@
+package com.sinha.ecom_system.api_gateway.service;
+
+import com.sinha.ecom_system.api_gateway.config.RateLimitConfig;
+import com.sinha.ecom_system.api_gateway.service.ReactiveRateLimiter.NamedPolicy;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+class ReactiveRateLimiterTest {
+
+    private static final long CAPACITY = 5;
+
+    @Test
+    void concurrentBurstIsAdmittedUpToCapacityWithLeaseSizeOne() {
+        assertBurstAdmitsCapacity(1);
+    }
+
+    @Test
+    void concurrentBurstIsAdmittedUpToCapacityWithLargerLease() {
+        assertBurstAdmitsCapacity(3);
+    }
+
+    private void assertBurstAdmitsCapacity(int leaseSize) {
+        ReactiveRateLimiter limiter = limiterOverRedisBucket(leaseSize);
+        NamedPolicy policy = limiter.policyFor("/v1/api/auth-service/auth/login");
+        int requests = 40;
+
+        List<Long> results = Flux.range(0, requests)
+                .flatMap(i -> limiter.acquire(policy, "auth-service", "10.0.0.1"), requests)
+                .collectList()
+                .block(Duration.ofSeconds(10));
+
+        assertThat(results).hasSize(requests);
+        assertThat(results.stream().filter(wait -> wait == 0).count()).isEqualTo(CAPACITY);
+        assertThat(results.stream().filter(wait -> wait > 0).count()).isEqualTo(requests - CAPACITY);
+    }
+
+    /**
+     * Limiter whose Redis is a single bucket of CAPACITY tokens without refill,
+     * answering after a delay so concurrent requests pile up on the same lease
+     */
+    @SuppressWarnings("unchecked")
+    private static ReactiveRateLimiter limiterOverRedisBucket(int leaseSize) {
+        AtomicLong remaining = new AtomicLong(CAPACITY);
+        ReactiveRedisTemplate<String, String> redisTemplate = mock(ReactiveRedisTemplate.class);
+        doAnswer(invocation -> {
+            List<String> args = invocation.getArgument(2);
+            long requested = Long.parseLong(args.get(2));
+            return Mono.delay(Duration.ofMillis(5)).map(tick -> {
+                long granted = Math.min(requested, remaining.get());
+                remaining.addAndGet(-granted);
+                return granted > 0 ? granted : -60_000L;
+            }).flux();
+        }).when(redisTemplate).execute(any(RedisScript.class), anyList(), anyList());
+
+        RateLimitConfig config = new RateLimitConfig();
+        config.getPolicies().put("credentials", new RateLimitConfig.Policy(
+                List.of("/v1/api/auth-service/auth/login"), CAPACITY, 0.001, leaseSize));
+        return new ReactiveRateLimiter(redisTemplate, config, new SimpleMeterRegistry());
+    }
+}
@@ -0,0 +1,68 @@
+package com.sinha.ecom_system.api_gateway.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TimeOrderedRequestIdGeneratorTest {
+
+    private final TimeOrderedRequestIdGenerator generator = new TimeOrderedRequestIdGenerator();
+
+    @Test
+    void idsHaveUuidV7Layout() {
+        long before = System.currentTimeMillis();
+        UUID id = UUID.fromString(generator.nextId());
+        long after = System.currentTimeMillis();
+
+        assertThat(id.version()).isEqualTo(7);
+        assertThat(id.variant()).isEqualTo(2);
+        long millis = id.getMostSignificantBits() >>> 16;
+        assertThat(millis).isGreaterThanOrEqualTo(before);
+        assertThat(millis).isLessThanOrEqualTo(after + 1);
+    }
+
+    @Test
+    void idsFromOneThreadAreStrictlyIncreasing() {
+        // Enough IDs to overflow the 12-bit sequence within a millisecond
+        long previous = UUID.fromString(generator.nextId()).getMostSignificantBits();
+        for (int i = 0; i < 100_000; i++) {
+            long current = UUID.fromString(generator.nextId()).getMostSignificantBits();
+            assertThat(Long.compareUnsigned(current, previous)).isGreaterThan(0);
+            previous = current;
+        }
+    }
+
+    @Test
+    void idsSortLikeTheirCreationOrder() {
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            ids.add(generator.nextId());
+        }
+        assertThat(ids).isSorted();
+    }
+
+    @Test
+    void idsAreUniqueAcrossThreads() throws InterruptedException {
+        Set<String> ids = ConcurrentHashMap.newKeySet();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    ids.add(generator.nextId());
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertThat(ids).hasSize(80_000);
+    }
+}
@@ -4,11 +4,13 @@ import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.openfeign.EnableFeignClients;
 import org.springframework.context.annotation.ComponentScan;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.stereotype.Component;
 
 import java.util.TimeZone;
 
 @EnableFeignClients
+@EnableScheduling
 @SpringBootApplication
 @ComponentScan(basePackages = {"com.sinha.ecom_system.common", "com.sinha.ecom_system.auth_service"})
 public class AuthServiceApplication {
@@ -1,6 +1,8 @@
 package com.sinha.ecom_system.auth_service.advice;
 
+import com.sinha.ecom_system.auth_service.exception.ServiceBusyException;
 import com.sinha.ecom_system.common.dto.ErrorResponse;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.HttpStatusCode;
 import org.springframework.http.ProblemDetail;
@@ -13,6 +15,18 @@ import java.time.LocalDateTime;
 @ControllerAdvice
 public class CustomExceptionHandler {
 
+    @ExceptionHandler(ServiceBusyException.class)
+    public ResponseEntity<ErrorResponse> handleServiceBusy(ServiceBusyException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(ErrorResponse.builder()
+                        .errorCode(503)
+                        .message(e.getMessage())
+                        .timestamp(LocalDateTime.now())
+                        .status("error")
+                .build());
+    }
+
     @ExceptionHandler
     public ResponseEntity<ErrorResponse> handleGlobalException(Exception e) {
         System.out.println("HAndler error: " + e);
@@ -4,6 +4,7 @@ package com.sinha.ecom_system.auth_service.config;
 import com.sinha.ecom_system.auth_service.model.Role;
 import com.sinha.ecom_system.auth_service.model.RolePermissions;
 import com.sinha.ecom_system.auth_service.repository.RoleRepository;
+import com.sinha.ecom_system.auth_service.service.RoleCache;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -12,7 +13,7 @@ import org.springframework.context.annotation.Configuration;
 public class DataInitializer {
 
     @Bean
-    public CommandLineRunner initRoles(RoleRepository roleRepository) {
+    public CommandLineRunner initRoles(RoleRepository roleRepository, RoleCache roleCache) {
         return args -> {
             // Only initialize if roles don't exist
             if (roleRepository.count() == 0) {
@@ -68,6 +69,9 @@ public class DataInitializer {
 
                 System.out.println("✅ Default roles initialized!");
             }
+
+            // Warm the role cache so requests don't hit the database for roles
+            roleCache.reload();
         };
     }
 }
\ No newline at end of file
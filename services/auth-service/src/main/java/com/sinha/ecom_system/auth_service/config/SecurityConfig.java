@@ -1,6 +1,7 @@
 package com.sinha.ecom_system.auth_service.config;
 
 import jakarta.servlet.http.HttpFilter;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -21,8 +22,9 @@ public class SecurityConfig {
         return http.build();
     }
 
+    // BCrypt cost factor; stored hashes with another cost are re-hashed on login
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder(12);
+    public PasswordEncoder passwordEncoder(@Value("${password.bcrypt-strength:12}") int strength) {
+        return new BCryptPasswordEncoder(strength);
     }
 }
@@ -6,6 +6,7 @@ import com.sinha.ecom_system.auth_service.dto.request.RefreshTokenRequest;
 import com.sinha.ecom_system.auth_service.dto.request.RegisterRequest;
 import com.sinha.ecom_system.auth_service.dto.response.AuthResponse;
 import com.sinha.ecom_system.auth_service.dto.response.TokenResponse;
+import com.sinha.ecom_system.auth_service.exception.ServiceBusyException;
 import com.sinha.ecom_system.auth_service.service.AuthService;
 import com.sinha.ecom_system.common.dto.ApiResponse;
 import com.sinha.ecom_system.common.dto.MessageResponse;
@@ -76,6 +77,8 @@ public class AuthController {
                     .data(authResponse)
                     .timestamp(LocalDateTime.now())
                     .build());
+        } catch (ServiceBusyException e) {
+            throw e;  // 503 + Retry-After, see CustomExceptionHandler
         } catch (Exception e) {
             System.out.println("Login error: {}" +  e.getMessage());
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(ApiResponse.<AuthResponse>builder()
@@ -89,7 +92,7 @@ public class AuthController {
     /**
      * Generate new access token using valid refresh token
      * @param request Contains refresh token
-     * @return New access token with same refresh token
+     * @return New access token and a new (rotated) refresh token
      */
     @PostMapping("/refresh")
     public ResponseEntity<ApiResponse<TokenResponse>> refreshToken(@Valid @RequestBody RefreshTokenRequest request) {
@@ -0,0 +1,35 @@
+package com.sinha.ecom_system.auth_service.controller;
+
+import com.sinha.ecom_system.auth_service.service.SigningKeyService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JWKS endpoint
+ * Publishes the public JWT signing keys (RFC 7517) for gateways and other verifiers
+ * Plain JWK Set document, not wrapped in ApiResponse
+ */
+@RestController
+public class JwksController {
+
+    private final SigningKeyService signingKeyService;
+
+    @Autowired
+    public JwksController(SigningKeyService signingKeyService) {
+        this.signingKeyService = signingKeyService;
+    }
+
+    @GetMapping("/.well-known/jwks.json")
+    public ResponseEntity<Map<String, List<Map<String, Object>>>> getJwks() {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(5, TimeUnit.MINUTES).cachePublic())
+                .body(Map.of("keys", signingKeyService.getJwks()));
+    }
+}
@@ -0,0 +1,18 @@
+package com.sinha.ecom_system.auth_service.exception;
+
+import lombok.Getter;
+
+/**
+ * Thrown when a bounded resource (e.g. the password hashing pool) is saturated
+ * Mapped to 503 with a Retry-After header by CustomExceptionHandler
+ */
+@Getter
+public class ServiceBusyException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public ServiceBusyException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
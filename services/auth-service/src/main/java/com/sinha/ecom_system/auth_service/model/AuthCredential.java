@@ -1,6 +1,7 @@
 package com.sinha.ecom_system.auth_service.model;
 
 import com.fasterxml.jackson.annotation.JsonManagedReference;
+import com.sinha.ecom_system.common.enums.Permission;
 import jakarta.persistence.*;
 import lombok.*;
 import org.hibernate.annotations.GenericGenerator;
@@ -178,36 +179,39 @@ public class AuthCredential {
                 .anyMatch(ur -> ur.getRole().getName().equals(roleName));
     }
 
+    /**
+     * Permission bitmask of all active roles (see Permission)
+     */
+    public int getPermissionMask() {
+        int mask = 0;
+        for (UserRole userRole : userRoles) {
+            if (userRole.isValid()) {
+                mask |= userRole.getRole().getPermissionMask();
+            }
+        }
+        return mask;
+    }
+
     /**
      * Check if user has specific permission through any of their roles
      */
+    public boolean hasPermission(Permission permission) {
+        return permission.isIn(getPermissionMask());
+    }
+
+    /**
+     * Check if user has specific permission by name ("TRADE", "manageusers", ...)
+     */
     public boolean hasPermission(String permission) {
-        return userRoles.stream()
-                .filter(UserRole::isValid)
-                .map(UserRole::getRole)
-                .anyMatch(role -> role.getPermissions() != null &&
-                        role.getPermissions().hasPermission(permission));
+        Permission resolved = Permission.fromName(permission);
+        return resolved != null && hasPermission(resolved);
     }
 
     /**
-     * Get all unique permissions from all user's roles
+     * Get all unique permission names from all user's roles
      */
-    public Set<String> getAllPermissions() {
-        Set<String> permissions = new HashSet<>();
-        userRoles.stream()
-                .filter(UserRole::isValid)
-                .forEach(ur -> {
-                    RolePermissions perms = ur.getRole().getPermissions();
-                    if (perms != null) {
-                        if (Boolean.TRUE.equals(perms.getCanTrade())) permissions.add("TRADE");
-                        if (Boolean.TRUE.equals(perms.getCanWithdraw())) permissions.add("WITHDRAW");
-                        if (Boolean.TRUE.equals(perms.getCanManageUsers())) permissions.add("MANAGE_USERS");
-                        if (Boolean.TRUE.equals(perms.getCanViewReports())) permissions.add("VIEW_REPORTS");
-                        if (Boolean.TRUE.equals(perms.getCanModifyOrders())) permissions.add("MODIFY_ORDERS");
-                        if (Boolean.TRUE.equals(perms.getCanAccessAPI())) permissions.add("ACCESS_API");
-                    }
-                });
-        return permissions;
+    public List<String> getAllPermissions() {
+        return Permission.namesOf(getPermissionMask());
     }
 
     /**
@@ -11,8 +11,8 @@ import java.util.UUID;
 
 @Entity
 @Table(name = "refresh_tokens", indexes = {
-    @Index(name = "idx_refresh_user", columnList = "user_id"),
-    @Index(name = "idx_refresh_token", columnList = "token_hash")
+    @Index(name = "idx_refresh_user", columnList = "auth_id"),
+    @Index(name = "idx_refresh_expires_id", columnList = "expires_at, id")
 })
 @Data
 @Builder
@@ -46,6 +46,9 @@ public class RefreshToken {
     @Column(name = "revoked_at")
     private LocalDateTime revokedAt;
 
+    @Column(name = "replaced_by", length = 255)
+    private String replacedBy;  // Hash of the token issued on rotation
+
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
@@ -37,6 +37,11 @@ public class Role {
     @Column(name = "permissions", columnDefinition = "jsonb")
     private RolePermissions permissions;
 
+    // Bitmask of permissions, derived from the JSON permissions on load / save / set
+    @Transient
+    @Setter(AccessLevel.NONE)
+    private int permissionMask;
+
     @Column(name = "is_active", nullable = false)
     @Builder.Default
     private Boolean isActive = true;
@@ -54,10 +59,26 @@ public class Role {
         if (this.isActive == null) {
             this.isActive = true;
         }
+        refreshPermissionMask();
     }
 
     @PreUpdate
     protected void onUpdate() {
         this.updatedAt = LocalDateTime.now();
+        refreshPermissionMask();
+    }
+
+    @PostLoad
+    protected void onLoad() {
+        refreshPermissionMask();
+    }
+
+    public void setPermissions(RolePermissions permissions) {
+        this.permissions = permissions;
+        refreshPermissionMask();
+    }
+
+    private void refreshPermissionMask() {
+        this.permissionMask = permissions != null ? permissions.toMask() : 0;
     }
 }
\ No newline at end of file
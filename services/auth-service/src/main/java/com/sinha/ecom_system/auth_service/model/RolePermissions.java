@@ -1,6 +1,7 @@
 package com.sinha.ecom_system.auth_service.model;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.sinha.ecom_system.common.enums.Permission;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -32,23 +33,23 @@ public class RolePermissions implements Serializable {
     @JsonProperty("canAccessAPI")
     private Boolean canAccessAPI;
 
+    /**
+     * Bitmask of the granted permissions (see Permission)
+     */
+    public int toMask() {
+        int mask = 0;
+        if (Boolean.TRUE.equals(canTrade)) mask |= Permission.TRADE.mask();
+        if (Boolean.TRUE.equals(canWithdraw)) mask |= Permission.WITHDRAW.mask();
+        if (Boolean.TRUE.equals(canManageUsers)) mask |= Permission.MANAGE_USERS.mask();
+        if (Boolean.TRUE.equals(canViewReports)) mask |= Permission.VIEW_REPORTS.mask();
+        if (Boolean.TRUE.equals(canModifyOrders)) mask |= Permission.MODIFY_ORDERS.mask();
+        if (Boolean.TRUE.equals(canAccessAPI)) mask |= Permission.ACCESS_API.mask();
+        return mask;
+    }
+
     // Helper methods
     public boolean hasPermission(String permission) {
-        switch (permission.toLowerCase()) {
-            case "trade":
-                return Boolean.TRUE.equals(canTrade);
-            case "withdraw":
-                return Boolean.TRUE.equals(canWithdraw);
-            case "manageusers":
-                return Boolean.TRUE.equals(canManageUsers);
-            case "viewreports":
-                return Boolean.TRUE.equals(canViewReports);
-            case "modifyorders":
-                return Boolean.TRUE.equals(canModifyOrders);
-            case "accessapi":
-                return Boolean.TRUE.equals(canAccessAPI);
-            default:
-                return false;
-        }
+        Permission resolved = Permission.fromName(permission);
+        return resolved != null && resolved.isIn(toMask());
     }
 }
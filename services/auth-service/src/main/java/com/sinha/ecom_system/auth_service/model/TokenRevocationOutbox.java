@@ -0,0 +1,50 @@
+package com.sinha.ecom_system.auth_service.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Access token revocation waiting to be written to the Redis blacklist
+ * Written when Redis could not be reached (see TokenRevocationService)
+ */
+@Entity
+@Table(name = "token_revocation_outbox", indexes = {
+    @Index(name = "idx_revocation_outbox_created", columnList = "created_at")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TokenRevocationOutbox {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(name = "token_id", length = 64)
+    private String tokenId;  // Null for a session revocation
+
+    @Column(name = "auth_id")
+    private UUID authId;  // Set for a session revocation (all tokens of the user)
+
+    @Column(name = "expires_at", nullable = false)
+    private Long expiresAt;  // Epoch millis: token expiry, or the revoked-before watermark of a session revocation
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    public boolean isSessionRevocation() {
+        return tokenId == null && authId != null;
+    }
+
+    @PrePersist
+    protected void onCreate() {
+        this.createdAt = LocalDateTime.now();
+    }
+}
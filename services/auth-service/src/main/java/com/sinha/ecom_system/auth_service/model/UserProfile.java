@@ -0,0 +1,54 @@
+package com.sinha.ecom_system.auth_service.model;
+
+import com.sinha.ecom_system.common.enums.UserStatus;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Local projection of a user-service profile
+ * Written only from UserChangedEvents (see UserEventConsumer), read on login
+ */
+@Entity
+@Table(name = "user_profiles")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserProfile {
+
+    @Id
+    @Column(name = "user_id", nullable = false)
+    private UUID userId;
+
+    @Column(name = "first_name", length = 100)
+    private String firstName;
+
+    @Column(name = "last_name", length = 100)
+    private String lastName;
+
+    @Column(name = "email", length = 255)
+    private String email;
+
+    @Column(name = "mobile_number", length = 20)
+    private String mobileNumber;
+
+    @Column(name = "dob")
+    private LocalDate dob;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "user_status", length = 20)
+    private UserStatus userStatus;
+
+    @Column(name = "version", nullable = false)
+    private Long version;  // Change time in user-service, epoch millis
+
+    @Column(name = "synced_at", nullable = false)
+    private LocalDateTime syncedAt;
+}
@@ -1,6 +1,7 @@
 package com.sinha.ecom_system.auth_service.proxy;
 
 import com.sinha.ecom_system.common.dto.ApiResponse;
+import com.sinha.ecom_system.common.dto.UserBatchRequest;
 import com.sinha.ecom_system.common.dto.UserInfoRequest;
 import com.sinha.ecom_system.common.dto.UserInfoResponse;
 import org.springframework.cloud.openfeign.FeignClient;
@@ -10,6 +11,7 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 
+import java.util.Map;
 import java.util.UUID;
 
 @FeignClient(name = "user-service")
@@ -21,4 +23,7 @@ public interface UserProxy {
     @GetMapping("/users/{id}")
     ResponseEntity<ApiResponse<UserInfoResponse>> getUser(@PathVariable UUID id);
 
+    @PostMapping("/users/batch-get")
+    ResponseEntity<ApiResponse<Map<UUID, UserInfoResponse>>> getUsers(@RequestBody UserBatchRequest body);
+
 }
@@ -2,10 +2,13 @@ package com.sinha.ecom_system.auth_service.repository;
 
 import com.sinha.ecom_system.auth_service.model.AuthCredential;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -27,4 +30,32 @@ public interface AuthRepository extends JpaRepository<AuthCredential, UUID> {
 
     @Query("SELECT ac FROM AuthCredential ac LEFT JOIN FETCH ac.userRoles ur LEFT JOIN FETCH ur.role WHERE ac.id = :id")
     Optional<AuthCredential> findByUserIdWithRoles(@Param("id") UUID id);
-}
\ No newline at end of file
+
+    // Replace the password hash only if it is still the one that was checked (cost upgrade on login)
+    @Modifying
+    @Transactional
+    @Query("UPDATE AuthCredential ac SET ac.passwordHash = :newHash, ac.updatedAt = :now WHERE ac.id = :id AND ac.passwordHash = :oldHash")
+    int updatePasswordHash(@Param("id") UUID id, @Param("oldHash") String oldHash,
+                           @Param("newHash") String newHash, @Param("now") LocalDateTime now);
+
+    // Count a failed login; locks the account in the same statement once maxAttempts is reached
+    @Modifying
+    @Transactional
+    @Query("UPDATE AuthCredential ac SET ac.failedAttempts = COALESCE(ac.failedAttempts, 0) + 1, " +
+            "ac.lockedUntil = CASE WHEN COALESCE(ac.failedAttempts, 0) + 1 >= :maxAttempts THEN :lockUntil ELSE ac.lockedUntil END " +
+            "WHERE ac.id = :id")
+    int recordFailedAttempt(@Param("id") UUID id, @Param("maxAttempts") int maxAttempts,
+                            @Param("lockUntil") LocalDateTime lockUntil);
+
+    // Clear failed attempts and lock after a successful login
+    @Modifying
+    @Transactional
+    @Query("UPDATE AuthCredential ac SET ac.failedAttempts = 0, ac.lockedUntil = NULL WHERE ac.id = :id")
+    int resetFailedAttempts(@Param("id") UUID id);
+
+    // Never moves last_login backwards (write-behind flushes may arrive late)
+    @Modifying
+    @Transactional
+    @Query("UPDATE AuthCredential ac SET ac.lastLogin = :lastLogin WHERE ac.id = :id AND (ac.lastLogin IS NULL OR ac.lastLogin < :lastLogin)")
+    int updateLastLogin(@Param("id") UUID id, @Param("lastLogin") LocalDateTime lastLogin);
+}
@@ -0,0 +1,18 @@
+package com.sinha.ecom_system.auth_service.repository;
+
+import com.sinha.ecom_system.auth_service.model.JwtSigningKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface JwtSigningKeyRepository extends JpaRepository<JwtSigningKey, String> {
+
+    // Keys that are (or will be) published: not retired yet, newest first
+    @Query("SELECT k FROM JwtSigningKey k WHERE k.retiresAt IS NULL OR k.retiresAt > :now ORDER BY k.activatesAt DESC")
+    List<JwtSigningKey> findPublishedKeys(@Param("now") LocalDateTime now);
+}
@@ -38,7 +38,15 @@ public interface RefreshTokenRepository extends JpaRepository<RefreshToken, UUID
     @Query("UPDATE RefreshToken rt SET rt.revoked = true, rt.revokedAt = :now WHERE rt.tokenHash = :tokenHash")
     int revokeToken(@Param("tokenHash") String tokenHash, @Param("now") LocalDateTime now);
 
-    // Delete expired tokens (cleanup job)
+    // Rotation: revoke a token and link it to its successor (only the first rotation wins)
+    @Modifying
+    @Transactional
+    @Query("UPDATE RefreshToken rt SET rt.revoked = true, rt.revokedAt = :now, rt.replacedBy = :replacedBy " +
+            "WHERE rt.tokenHash = :tokenHash AND rt.replacedBy IS NULL")
+    int markReplaced(@Param("tokenHash") String tokenHash, @Param("replacedBy") String replacedBy,
+                     @Param("now") LocalDateTime now);
+
+    // Delete expired tokens in one statement (ad hoc use; the scheduled cleanup is RefreshTokenPurgeJob)
     @Modifying
     @Transactional
     @Query("DELETE FROM RefreshToken rt WHERE rt.expiresAt < :now OR rt.revokedAt < :cutoffDate")
@@ -0,0 +1,18 @@
+package com.sinha.ecom_system.auth_service.repository;
+
+import com.sinha.ecom_system.auth_service.model.TokenRevocationOutbox;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface TokenRevocationOutboxRepository extends JpaRepository<TokenRevocationOutbox, UUID> {
+
+    // Oldest pending revocations first
+    @Query("SELECT o FROM TokenRevocationOutbox o ORDER BY o.createdAt")
+    List<TokenRevocationOutbox> findOldest(Pageable pageable);
+}
@@ -0,0 +1,42 @@
+package com.sinha.ecom_system.auth_service.repository;
+
+import com.sinha.ecom_system.auth_service.model.UserProfile;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+@Repository
+public interface UserProfileRepository extends JpaRepository<UserProfile, UUID> {
+
+    // Insert or update, keeping the row if it already has a newer version (out-of-order / redelivered events)
+    @Modifying
+    @Transactional
+    @Query(value = """
+            INSERT INTO user_profiles (user_id, first_name, last_name, email, mobile_number, dob, user_status, version, synced_at)
+            VALUES (:userId, :firstName, :lastName, :email, :mobileNumber, :dob, :userStatus, :version, NOW())
+            ON CONFLICT (user_id) DO UPDATE SET
+                first_name = EXCLUDED.first_name,
+                last_name = EXCLUDED.last_name,
+                email = EXCLUDED.email,
+                mobile_number = EXCLUDED.mobile_number,
+                dob = EXCLUDED.dob,
+                user_status = EXCLUDED.user_status,
+                version = EXCLUDED.version,
+                synced_at = EXCLUDED.synced_at
+            WHERE user_profiles.version <= EXCLUDED.version
+            """, nativeQuery = true)
+    int upsert(@Param("userId") UUID userId,
+               @Param("firstName") String firstName,
+               @Param("lastName") String lastName,
+               @Param("email") String email,
+               @Param("mobileNumber") String mobileNumber,
+               @Param("dob") LocalDate dob,
+               @Param("userStatus") String userStatus,
+               @Param("version") long version);
+}
@@ -0,0 +1,105 @@
+package com.sinha.ecom_system.auth_service.service;
+
+import com.sinha.ecom_system.auth_service.model.AuthCredential;
+import com.sinha.ecom_system.auth_service.model.Role;
+import com.sinha.ecom_system.auth_service.model.UserRole;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Access Claims Cache
+ * What a new access token needs (email, role names) per user, kept in Redis,
+ * so refreshing a token does not load the credential and its roles from Postgres
+ *
+ * - only role names are cached; the permission mask is rebuilt from RoleCache,
+ *   so role permission changes apply without touching this cache
+ * - entries live for claims-ttl at most, and never past the first role grant that expires
+ * - role assignment and removal evict the user's entry
+ *
+ * Key format: "auth:claims:{authId}" (hash)
+ */
+@Service
+@Slf4j
+public class AccessClaimsCache {
+
+    private static final String CLAIMS_PREFIX = "auth:claims:";
+
+    private final StringRedisTemplate redisTemplate;
+    private final RoleCache roleCache;
+    private final long ttlMillis;
+
+    @Autowired
+    public AccessClaimsCache(StringRedisTemplate redisTemplate,
+                             RoleCache roleCache,
+                             @Value("${refresh-token.claims-ttl:300000}") long ttlMillis) {
+        this.redisTemplate = redisTemplate;
+        this.roleCache = roleCache;
+        this.ttlMillis = ttlMillis;
+    }
+
+    public Optional<AccessClaims> get(UUID authId) {
+        Map<Object, Object> fields = redisTemplate.opsForHash().entries(CLAIMS_PREFIX + authId);
+        if (fields.isEmpty()) {
+            return Optional.empty();
+        }
+        String roles = (String) fields.get("roles");
+        List<String> roleNames = roles == null || roles.isEmpty() ? List.of() : Arrays.asList(roles.split(","));
+        return Optional.of(new AccessClaims((String) fields.get("email"), roleNames, permissionMask(roleNames)));
+    }
+
+    public AccessClaims put(AuthCredential authCredential) {
+        List<String> roleNames = authCredential.getRoleNames();
+        AccessClaims claims = new AccessClaims(authCredential.getEmail(), roleNames, authCredential.getPermissionMask());
+
+        long ttl = ttlMillis;
+        LocalDateTime now = LocalDateTime.now();
+        for (UserRole userRole : authCredential.getUserRoles()) {
+            if (userRole.isValid() && userRole.getExpiresAt() != null) {
+                ttl = Math.min(ttl, Duration.between(now, userRole.getExpiresAt()).toMillis());
+            }
+        }
+        if (ttl <= 0) {
+            return claims;
+        }
+
+        String key = CLAIMS_PREFIX + authCredential.getId();
+        try {
+            redisTemplate.opsForHash().putAll(key, Map.of(
+                    "email", authCredential.getEmail(),
+                    "roles", String.join(",", roleNames)));
+            redisTemplate.expire(key, Duration.ofMillis(ttl));
+        } catch (Exception e) {
+            log.warn("Failed to cache access claims for {}: {}", authCredential.getId(), e.getMessage());
+        }
+        return claims;
+    }
+
+    public void evict(UUID authId) {
+        redisTemplate.delete(CLAIMS_PREFIX + authId);
+    }
+
+    private int permissionMask(List<String> roleNames) {
+        int mask = 0;
+        for (String roleName : roleNames) {
+            Optional<Role> role = roleCache.findByName(roleName);
+            if (role.isPresent()) {
+                mask |= role.get().getPermissionMask();
+            }
+        }
+        return mask;
+    }
+
+    public record AccessClaims(String email, List<String> roles, int permissionMask) {
+    }
+}
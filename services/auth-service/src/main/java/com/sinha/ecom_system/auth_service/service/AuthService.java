@@ -5,6 +5,7 @@ import com.sinha.ecom_system.auth_service.dto.request.RefreshTokenRequest;
 import com.sinha.ecom_system.auth_service.dto.request.RegisterRequest;
 import com.sinha.ecom_system.auth_service.dto.response.AuthResponse;
 import com.sinha.ecom_system.auth_service.dto.response.TokenResponse;
+import com.sinha.ecom_system.common.enums.Permission;
 
 import java.util.UUID;
 
@@ -21,6 +22,8 @@ public interface AuthService {
 
     boolean hasPermission(UUID userId, String permission);
 
+    boolean hasPermission(UUID userId, Permission permission);
+
     void assignRole(UUID userId, String roleName, UUID grantedBy);
 
     void removeRole(UUID userId, String roleName);
@@ -7,21 +7,23 @@ import com.sinha.ecom_system.auth_service.dto.response.AuthResponse;
 import com.sinha.ecom_system.auth_service.dto.response.TokenResponse;
 import com.sinha.ecom_system.auth_service.dto.response.UserInfo;
 import com.sinha.ecom_system.auth_service.model.AuthCredential;
-import com.sinha.ecom_system.auth_service.model.RefreshToken;
 import com.sinha.ecom_system.auth_service.model.Role;
+import com.sinha.ecom_system.auth_service.model.UserProfile;
 import com.sinha.ecom_system.auth_service.proxy.UserProxy;
 import com.sinha.ecom_system.auth_service.repository.AuthRepository;
-import com.sinha.ecom_system.auth_service.repository.RefreshTokenRepository;
 import com.sinha.ecom_system.auth_service.repository.RoleRepository;
+import com.sinha.ecom_system.auth_service.repository.UserProfileRepository;
 import com.sinha.ecom_system.common.config.JwtProperties;
 import com.sinha.ecom_system.common.dto.ApiResponse;
 import com.sinha.ecom_system.common.dto.UserInfoRequest;
 import com.sinha.ecom_system.common.dto.UserInfoResponse;
+import com.sinha.ecom_system.common.enums.Permission;
 import com.sinha.ecom_system.common.util.JwtUtil;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -29,9 +31,10 @@ import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.util.Base64;
-import java.util.Date;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 /**
@@ -44,31 +47,43 @@ public class AuthServiceImpl implements AuthService {
 
     private final AuthRepository authRepository;
     private final RoleRepository roleRepository;
-    private final RefreshTokenRepository refreshTokenRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final RefreshTokenStore refreshTokenStore;
+    private final AccessClaimsCache accessClaimsCache;
+    private final PasswordHashingService passwordHashingService;
     private final JwtUtil jwtUtil;
     private final JwtProperties jwtProperties;
-    private final TokenBlacklistService tokenBlacklistService;
+    private final TokenRevocationService tokenRevocationService;
     private final UserProxy proxy;
+    private final RoleCache roleCache;
+    private final UserProfileRepository userProfileRepository;
+    private final LastLoginRecorder lastLoginRecorder;
 
     @Autowired
     public AuthServiceImpl(
             AuthRepository authRepository,
             RoleRepository roleRepository,
-            RefreshTokenRepository refreshTokenRepository,
-            PasswordEncoder passwordEncoder,
+            RefreshTokenStore refreshTokenStore,
+            AccessClaimsCache accessClaimsCache,
+            PasswordHashingService passwordHashingService,
             JwtUtil jwtUtil,
             JwtProperties jwtProperties,
-            TokenBlacklistService tokenBlacklistService,
-            UserProxy proxy) {
+            TokenRevocationService tokenRevocationService,
+            UserProxy proxy,
+            RoleCache roleCache,
+            UserProfileRepository userProfileRepository,
+            LastLoginRecorder lastLoginRecorder) {
         this.authRepository = authRepository;
         this.roleRepository = roleRepository;
-        this.refreshTokenRepository = refreshTokenRepository;
-        this.passwordEncoder = passwordEncoder;
+        this.refreshTokenStore = refreshTokenStore;
+        this.accessClaimsCache = accessClaimsCache;
+        this.passwordHashingService = passwordHashingService;
         this.jwtUtil = jwtUtil;
         this.jwtProperties = jwtProperties;
-        this.tokenBlacklistService = tokenBlacklistService;
+        this.tokenRevocationService = tokenRevocationService;
         this.proxy = proxy;
+        this.roleCache = roleCache;
+        this.userProfileRepository = userProfileRepository;
+        this.lastLoginRecorder = lastLoginRecorder;
     }
 
     @Override
@@ -79,8 +94,8 @@ public class AuthServiceImpl implements AuthService {
             throw new RuntimeException("Email already registered");
         }
 
-        // Hash password using BCrypt
-        String passwordHash = passwordEncoder.encode(request.getPassword());
+        // Hash password using BCrypt (bounded hashing pool)
+        String passwordHash = passwordHashingService.encode(request.getPassword());
 
         // Create new AuthCredential entity
         AuthCredential authCredential = AuthCredential.builder()
@@ -100,10 +115,17 @@ public class AuthServiceImpl implements AuthService {
                         .email(authCredential.getEmail())
                         .build());
 
-        UUID userId = response.getBody().getData().getUserId();
+        UserInfoResponse user = response.getBody().getData();
+        UUID userId = user.getUserId();
+
+        // Seed the profile projection so the first login doesn't wait for the user event
+        userProfileRepository.upsert(userId, user.getFirstName(), user.getLastName(), user.getEmail(),
+                user.getMobileNumber(), user.getDob(),
+                user.getUserStatus() != null ? user.getUserStatus().name() : null,
+                user.getUpdatedAt() != null ? user.getUpdatedAt().toInstant(ZoneOffset.UTC).toEpochMilli() : 0L);
 
         // Assign default ROLE_USER role
-        Role userRole = roleRepository.findByName("ROLE_USER")
+        Role userRole = roleCache.findByName("ROLE_USER")
                 .orElseThrow(() -> new RuntimeException("Default role not found"));
 
         authCredential.addRole(userRole, null);
@@ -122,14 +144,14 @@ public class AuthServiceImpl implements AuthService {
                 .refreshToken(refreshToken)
                 .tokenType("Bearer")
                 .expiresIn(jwtProperties.getAccessTokenExpiry() / 1000)
-                .user(buildUserInfo(authCredential, userId))
+                .user(buildUserInfo(authCredential, userId, authCredential.getLastLogin()))
                 .requires2FA(false)
                 .timestamp(LocalDateTime.now())
                 .build();
     }
 
+    // Not @Transactional: no transaction is held open while waiting for BCrypt
     @Override
-    @Transactional
     public AuthResponse login(LoginRequest request) {
         // Fetch user by email with roles eagerly loaded
         AuthCredential authCredential = authRepository.findByEmailWithRoles(request.getEmail())
@@ -140,19 +162,21 @@ public class AuthServiceImpl implements AuthService {
             throw new RuntimeException("Account is locked. Please try again later.");
         }
 
-        // Validate password with BCrypt
-        if (!passwordEncoder.matches(request.getPassword(), authCredential.getPasswordHash())) {
-            authCredential.incrementFailedAttempts();
-            
-            // Lock account after 5 consecutive failed attempts
-            if (authCredential.getFailedAttempts() >= 5) {
-                authCredential.lockAccount(15);
-            }
-            
-            authRepository.save(authCredential);
+        // Validate password with BCrypt (bounded hashing pool)
+        if (!passwordHashingService.matches(request.getPassword(), authCredential.getPasswordHash())) {
+            // Lock account after 5 consecutive failed attempts (same statement, synchronous)
+            authRepository.recordFailedAttempt(authCredential.getId(), 5, LocalDateTime.now().plusMinutes(15));
             throw new RuntimeException("Invalid email or password");
         }
 
+        // Hash made with an older cost factor: upgrade it in the background
+        if (passwordHashingService.needsRehash(authCredential.getPasswordHash())) {
+            UUID authId = authCredential.getId();
+            String oldHash = authCredential.getPasswordHash();
+            passwordHashingService.rehashAsync(request.getPassword(),
+                    newHash -> authRepository.updatePasswordHash(authId, oldHash, newHash, LocalDateTime.now()));
+        }
+
         // If 2FA enabled, return temp token for 2FA verification
         if (Boolean.TRUE.equals(authCredential.getIs2faEnabled())) {
             // TODO: Implement full 2FA flow with OTP generation
@@ -166,10 +190,14 @@ public class AuthServiceImpl implements AuthService {
                     .build();
         }
 
-        // Successful login: reset failed attempts and update last login
-        authCredential.resetFailedAttempts();
-        authCredential.setLastLogin(LocalDateTime.now());
-        authRepository.save(authCredential);
+        // Successful login: reset failed attempts (only if set) and record last login.
+        // Targeted updates; the loaded entity is never modified, so nothing else is flushed
+        if (authCredential.getFailedAttempts() != null && authCredential.getFailedAttempts() > 0
+                || authCredential.getLockedUntil() != null) {
+            authRepository.resetFailedAttempts(authCredential.getId());
+        }
+        LocalDateTime loginAt = LocalDateTime.now();
+        lastLoginRecorder.record(authCredential.getId(), loginAt);
 
         // Generate access and refresh tokens
         String accessToken = generateAccessToken(authCredential);
@@ -179,108 +207,127 @@ public class AuthServiceImpl implements AuthService {
                 null   // TODO: Extract IP address from request
         );
 
-        ResponseEntity<ApiResponse<UserInfoResponse>> response = proxy.getUser(authCredential.getUserId());
-        UUID userId = response.getBody().getData().getUserId();
-
+        // Built from auth-service data only; profile fields come from the local projection
         return AuthResponse.builder()
                 .accessToken(accessToken)
                 .refreshToken(refreshToken)
                 .tokenType("Bearer")
                 .expiresIn(jwtProperties.getAccessTokenExpiry() / 1000)
-                .user(buildUserInfo(authCredential, userId))
+                .user(buildUserInfo(authCredential, authCredential.getUserId(), loginAt))
                 .requires2FA(false)
                 .timestamp(LocalDateTime.now())
                 .build();
     }
 
+    // Not @Transactional: the common path reads Redis only
     @Override
-    @Transactional
     public TokenResponse refreshAccessToken(RefreshTokenRequest request) {
-        // Validate JWT signature and structure
-        if (!jwtUtil.validateToken(request.getRefreshToken())) {
+        // Validate JWT signature, structure and expiry (parsed once)
+        Claims claims;
+        try {
+            claims = jwtUtil.parseToken(request.getRefreshToken());
+        } catch (JwtException | IllegalArgumentException e) {
             throw new RuntimeException("Invalid refresh token");
         }
 
         // Ensure token is a REFRESH token, not ACCESS token
-        String tokenType = jwtUtil.getTokenType(request.getRefreshToken());
-        if (!"REFRESH".equals(tokenType)) {
+        if (!"REFRESH".equals(claims.get("type", String.class))) {
             throw new RuntimeException("Invalid token type");
         }
 
         // Extract userId from JWT claims
-        UUID userId = jwtUtil.getUserIdFromToken(request.getRefreshToken());
+        UUID userId = UUID.fromString(claims.getSubject());
 
-        // Hash token to lookup in database (we don't store raw tokens)
+        // Hash token to look it up (we don't store raw tokens)
         String tokenHash = hashToken(request.getRefreshToken());
 
-        // Verify token exists in database and is not revoked
-        RefreshToken storedToken = refreshTokenRepository.findByTokenHash(tokenHash)
+        // Verify token exists (Redis, falling back to the database)
+        RefreshTokenStore.TokenState storedToken = refreshTokenStore.find(tokenHash)
                 .orElseThrow(() -> new RuntimeException("Refresh token not found"));
 
+        // Verify token belongs to the user in JWT claims (prevent token theft)
+        if (!storedToken.authId().equals(userId)) {
+            throw new RuntimeException("Token user mismatch");
+        }
+
+        // A token that was already rotated is being replayed: revoke the whole family
+        if (storedToken.isReplaced()) {
+            revokeAfterReuse(userId);
+            throw new RuntimeException("Refresh token reuse detected");
+        }
+
         // Check expiry and revoked status
         if (!storedToken.isValid()) {
             throw new RuntimeException("Refresh token is invalid or expired");
         }
 
-        // Verify token belongs to the user in JWT claims (prevent token theft)
-        if (!storedToken.getAuthId().equals(userId)) {
-            throw new RuntimeException("Token user mismatch");
+        // Rotate: issue a new refresh token and retire the presented one
+        String newRefreshToken = jwtUtil.generateRefreshToken(userId);
+        LocalDateTime expiresAt = LocalDateTime.now()
+                .plusSeconds(jwtProperties.getRefreshTokenExpiry() / 1000);
+        if (!refreshTokenStore.rotate(storedToken, tokenHash, hashToken(newRefreshToken), expiresAt)) {
+            // Lost the race to another use of the same token
+            revokeAfterReuse(userId);
+            throw new RuntimeException("Refresh token reuse detected");
         }
 
-        // Fetch user with roles for new access token
-        AuthCredential authCredential = authRepository.findByUserIdWithRoles(userId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
         // Generate new access token with current user roles/permissions
-        String newAccessToken = generateAccessToken(authCredential);
+        AccessClaimsCache.AccessClaims accessClaims = accessClaimsCache.get(userId)
+                .orElseGet(() -> accessClaimsCache.put(authRepository.findByUserIdWithRoles(userId)
+                        .orElseThrow(() -> new RuntimeException("User not found"))));
+        String newAccessToken = jwtUtil.generateAccessToken(
+                userId, accessClaims.email(), accessClaims.roles(), accessClaims.permissionMask());
 
-        // TODO: Implement refresh token rotation for better security
-        // For now, return same refresh token
-        
         return TokenResponse.builder()
                 .accessToken(newAccessToken)
-                .refreshToken(request.getRefreshToken())
+                .refreshToken(newRefreshToken)
                 .tokenType("Bearer")
                 .expiresIn(jwtProperties.getAccessTokenExpiry() / 1000)
                 .timestamp(LocalDateTime.now())
                 .build();
     }
 
+    // Not @Transactional: refresh tokens are revoked through RefreshTokenStore's writer,
+    // and the blacklist write is handed to TokenRevocationService, so no connection waits on Redis
     @Override
-    @Transactional
     public void logout(UUID userId, String accessToken) {
         // Add access token to Redis blacklist to prevent reuse
         if (accessToken != null) {
+            Claims claims;
             try {
-                String tokenId = jwtUtil.getTokenId(accessToken);
-                Date expiryDate = jwtUtil.getExpirationDate(accessToken);
-                
-                // Blacklist token with TTL matching its natural expiry
-                tokenBlacklistService.blacklistToken(tokenId, expiryDate);
-                
-                log.info("Access token blacklisted for user: {}", userId);
-            } catch (Exception e) {
-                log.error("Error blacklisting token: {}", e.getMessage());
+                claims = jwtUtil.parseToken(accessToken);
+            } catch (JwtException | IllegalArgumentException e) {
+                log.error("Error reading access token on logout: {}", e.getMessage());
                 throw new RuntimeException("Failed to logout: " + e.getMessage());
             }
+
+            // Blacklist token with TTL matching its natural expiry (sent in the background, retried)
+            tokenRevocationService.revoke(Map.of(claims.getId(), claims.getExpiration().getTime()));
+            log.info("Access token revocation queued for user: {}", userId);
         }
         
         // Revoke all refresh tokens to force re-login on all devices
-        refreshTokenRepository.revokeAllUserTokens(userId, LocalDateTime.now());
+        refreshTokenStore.revokeAll(userId);
         
         log.info("User {} logged out successfully", userId);
     }
 
     @Override
-    @Transactional
     public void logoutAllDevices(UUID userId) {
-        // Revoke all refresh tokens for this user
-        refreshTokenRepository.revokeAllUserTokens(userId, LocalDateTime.now());
+        // Revoke all refresh tokens, and every access token issued so far (one watermark write)
+        refreshTokenStore.revokeAll(userId);
+        tokenRevocationService.revokeAllAccessTokens(userId);
     }
 
     @Override
     public boolean hasPermission(UUID userId, String permission) {
-        // Check if user has specific permission through their roles
+        Permission resolved = Permission.fromName(permission);
+        return resolved != null && hasPermission(userId, resolved);
+    }
+
+    @Override
+    public boolean hasPermission(UUID userId, Permission permission) {
+        // Single bit test against the OR of the user's role masks
         AuthCredential authCredential = authRepository.findByUserIdWithRoles(userId)
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
@@ -294,11 +341,12 @@ public class AuthServiceImpl implements AuthService {
         AuthCredential authCredential = authRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
-        Role role = roleRepository.findByName(roleName)
+        Role role = roleCache.findByName(roleName)
                 .orElseThrow(() -> new RuntimeException("Role not found"));
 
         authCredential.addRole(role, grantedBy);
         authRepository.save(authCredential);
+        accessClaimsCache.evict(userId);
     }
 
     @Override
@@ -308,11 +356,12 @@ public class AuthServiceImpl implements AuthService {
         AuthCredential authCredential = authRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
-        Role role = roleRepository.findByName(roleName)
+        Role role = roleCache.findByName(roleName)
                 .orElseThrow(() -> new RuntimeException("Role not found"));
 
         authCredential.removeRole(role);
         authRepository.save(authCredential);
+        accessClaimsCache.evict(userId);
     }
 
     /**
@@ -324,18 +373,25 @@ public class AuthServiceImpl implements AuthService {
      */
     private String generateAccessToken(AuthCredential authCredential) {
         List<String> roles = authCredential.getRoleNames();
-        List<String> permissions = authCredential.getAllPermissions().stream().toList();
 
         return jwtUtil.generateAccessToken(
                 authCredential.getId(),
                 authCredential.getEmail(),
                 roles,
-                permissions
+                authCredential.getPermissionMask()
         );
     }
 
     /**
-     * Generate refresh token, hash it, and store in database
+     * A rotated refresh token was presented again: revoke every refresh and access token of the user
+     */
+    private void revokeAfterReuse(UUID authId) {
+        refreshTokenStore.recordReuse(authId);
+        tokenRevocationService.revokeAllAccessTokens(authId);
+    }
+
+    /**
+     * Generate refresh token, hash it, and store it (see RefreshTokenStore)
      * Raw token returned to client, hash stored in DB for security
      */
     private String generateAndStoreRefreshToken(AuthCredential authCredential, String deviceInfo, String ipAddress) {
@@ -349,17 +405,8 @@ public class AuthServiceImpl implements AuthService {
         LocalDateTime expiresAt = LocalDateTime.now()
                 .plusSeconds(jwtProperties.getRefreshTokenExpiry() / 1000);
 
-        // Create and persist refresh token record
-        RefreshToken storedToken = RefreshToken.builder()
-                .authId(authCredential.getId())
-                .tokenHash(tokenHash)
-                .deviceInfo(deviceInfo)
-                .ipAddress(ipAddress)
-                .expiresAt(expiresAt)
-                .revoked(false)
-                .build();
-
-        refreshTokenRepository.save(storedToken);
+        // Redis right away, database in the background
+        refreshTokenStore.save(authCredential.getId(), tokenHash, expiresAt, deviceInfo, ipAddress);
 
         return refreshToken;
     }
@@ -380,17 +427,23 @@ public class AuthServiceImpl implements AuthService {
     /**
      * Build UserInfo DTO from AuthCredential entity
      */
-    private UserInfo buildUserInfo(AuthCredential authCredential, UUID userId) {
+    private UserInfo buildUserInfo(AuthCredential authCredential, UUID userId, LocalDateTime lastLogin) {
+        // Profile fields are optional: missing until the projection has the user
+        UserProfile profile = userProfileRepository.findById(userId).orElse(null);
         return UserInfo.builder()
                 .userId(userId)
+                .firstName(profile != null ? profile.getFirstName() : null)
+                .lastName(profile != null ? profile.getLastName() : null)
+                .mobileNumber(profile != null ? profile.getMobileNumber() : null)
+                .dob(profile != null ? profile.getDob() : null)
                 .email(authCredential.getEmail())
                 .roles(authCredential.getRoleNames())
-                .permissions(authCredential.getAllPermissions().stream().toList())
+                .permissions(authCredential.getAllPermissions())
                 .isPhoneVerified(authCredential.getIsPhoneVerified())
                 .isEmailVerified(authCredential.getIsEmailVerified())
                 .is2faEnabled(authCredential.getIs2faEnabled())
                 .createdAt(authCredential.getCreatedAt())
-                .lastLogin(authCredential.getLastLogin())
+                .lastLogin(lastLogin)
                 .build();
     }
 }
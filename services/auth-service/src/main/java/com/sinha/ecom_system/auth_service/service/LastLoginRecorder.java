@@ -0,0 +1,107 @@
+package com.sinha.ecom_system.auth_service.service;
+
+import com.sinha.ecom_system.auth_service.repository.AuthRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Last Login Recorder
+ * Records last_login without a write per login
+ *
+ * With write-behind enabled (default), logins only update an in-memory map
+ * (one entry per account, latest time wins) that is flushed every
+ * flush-interval as JDBC batches of batch-size updates. Repeated logins of the
+ * same account between flushes become one write.
+ *
+ * Trade-off: last_login can lag by one flush interval, and pending values are
+ * lost if the process dies without a clean shutdown. Nothing security-relevant
+ * (failed attempts, account locks) goes through here.
+ */
+@Service
+@Slf4j
+public class LastLoginRecorder {
+
+    private static final String UPDATE_SQL =
+            "UPDATE auth_credentials SET last_login = ? WHERE id = ? AND (last_login IS NULL OR last_login < ?)";
+
+    private final AuthRepository authRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean writeBehind;
+    private final int batchSize;
+
+    private final Map<UUID, LocalDateTime> pending = new ConcurrentHashMap<>();
+
+    @Autowired
+    public LastLoginRecorder(AuthRepository authRepository,
+                             JdbcTemplate jdbcTemplate,
+                             @Value("${last-login.write-behind.enabled:true}") boolean writeBehind,
+                             @Value("${last-login.write-behind.batch-size:500}") int batchSize) {
+        this.authRepository = authRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.writeBehind = writeBehind;
+        this.batchSize = batchSize;
+    }
+
+    public void record(UUID authId, LocalDateTime loginAt) {
+        if (!writeBehind) {
+            authRepository.updateLastLogin(authId, loginAt);
+            return;
+        }
+        pending.merge(authId, loginAt, (current, next) -> next.isAfter(current) ? next : current);
+    }
+
+    @Scheduled(fixedDelayString = "${last-login.write-behind.flush-interval:5000}")
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        List<Object[]> batch = new ArrayList<>(Math.min(pending.size(), batchSize));
+        for (UUID authId : pending.keySet()) {
+            LocalDateTime loginAt = pending.remove(authId);
+            if (loginAt == null) {
+                continue;
+            }
+            Timestamp timestamp = Timestamp.valueOf(loginAt);
+            batch.add(new Object[]{timestamp, authId, timestamp});
+            if (batch.size() == batchSize) {
+                write(batch);
+                batch = new ArrayList<>(batchSize);
+            }
+        }
+        if (!batch.isEmpty()) {
+            write(batch);
+        }
+    }
+
+    private void write(List<Object[]> batch) {
+        try {
+            jdbcTemplate.batchUpdate(UPDATE_SQL, batch);
+            log.debug("Flushed {} last-login updates", batch.size());
+        } catch (Exception e) {
+            // Put the values back for the next flush unless a newer login arrived meanwhile
+            log.warn("Last-login flush of {} rows failed: {}", batch.size(), e.getMessage());
+            for (Object[] row : batch) {
+                LocalDateTime loginAt = ((Timestamp) row[0]).toLocalDateTime();
+                pending.merge((UUID) row[1], loginAt, (current, failed) -> current.isAfter(failed) ? current : failed);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+}
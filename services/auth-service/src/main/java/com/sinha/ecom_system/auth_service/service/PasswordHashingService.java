@@ -0,0 +1,184 @@
+package com.sinha.ecom_system.auth_service.service;
+
+import com.sinha.ecom_system.auth_service.exception.ServiceBusyException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Password Hashing Service
+ * Runs BCrypt on a dedicated pool instead of the servlet request threads
+ *
+ * - one thread per CPU by default (BCrypt is pure CPU work) and a short bounded queue
+ * - when the queue is full, or a request has waited longer than max-wait,
+ *   callers get a ServiceBusyException (503 + Retry-After) instead of piling up,
+ *   so a login storm cannot tie up every Tomcat worker
+ * - hashes made with a cost other than password.bcrypt-strength (lower or
+ *   higher, so lowering the setting also takes effect) can be re-hashed in
+ *   the background (see rehashAsync)
+ *
+ * Metrics:
+ * - auth.password.hash{operation=encode|matches|rehash}: time spent hashing
+ * - auth.password.queue.wait: time a task waited for a hashing thread
+ * - auth.password.queue.size, auth.password.active: pool state
+ * - auth.password.rejected: tasks refused because the pool was saturated
+ *   (including skipped background re-hashes)
+ */
+@Service
+@Slf4j
+public class PasswordHashingService {
+
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor executor;
+    private final long maxWaitMillis;
+    private final long retryAfterSeconds;
+    private final int bcryptStrength;
+
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+    private final Timer rehashTimer;
+    private final Timer queueWaitTimer;
+    private final Counter rejectedCounter;
+
+    @Autowired
+    public PasswordHashingService(PasswordEncoder passwordEncoder,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${password.hashing.threads:0}") int threads,            // 0 = one per CPU
+                                  @Value("${password.hashing.queue-capacity:64}") int queueCapacity,
+                                  @Value("${password.hashing.max-wait:2000}") long maxWaitMillis,
+                                  @Value("${password.hashing.retry-after:1}") long retryAfterSeconds,
+                                  @Value("${password.bcrypt-strength:12}") int bcryptStrength) {
+        this.passwordEncoder = passwordEncoder;
+        this.maxWaitMillis = maxWaitMillis;
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.bcryptStrength = bcryptStrength;
+
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hashing-" + threadIndex.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        this.encodeTimer = meterRegistry.timer("auth.password.hash", "operation", "encode");
+        this.matchesTimer = meterRegistry.timer("auth.password.hash", "operation", "matches");
+        this.rehashTimer = meterRegistry.timer("auth.password.hash", "operation", "rehash");
+        this.queueWaitTimer = meterRegistry.timer("auth.password.queue.wait");
+        this.rejectedCounter = meterRegistry.counter("auth.password.rejected");
+        meterRegistry.gauge("auth.password.queue.size", executor, pool -> pool.getQueue().size());
+        meterRegistry.gauge("auth.password.active", executor, ThreadPoolExecutor::getActiveCount);
+    }
+
+    /**
+     * Hash a raw password
+     */
+    public String encode(CharSequence rawPassword) {
+        return run(encodeTimer, () -> passwordEncoder.encode(rawPassword));
+    }
+
+    /**
+     * Check a raw password against a stored hash
+     */
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return run(matchesTimer, () -> passwordEncoder.matches(rawPassword, encodedPassword));
+    }
+
+    /**
+     * True if the stored hash was made with a different cost than configured
+     * (PasswordEncoder.upgradeEncoding only reports lower costs)
+     * Hashes that are not BCrypt ("$2a$10$...") are left alone
+     */
+    public boolean needsRehash(String encodedPassword) {
+        if (encodedPassword == null || encodedPassword.length() < 7
+                || encodedPassword.charAt(0) != '$' || encodedPassword.charAt(3) != '$'
+                || encodedPassword.charAt(6) != '$') {
+            return false;
+        }
+        char tens = encodedPassword.charAt(4);
+        char units = encodedPassword.charAt(5);
+        if (!Character.isDigit(tens) || !Character.isDigit(units)) {
+            return false;
+        }
+        return (tens - '0') * 10 + (units - '0') != bcryptStrength;
+    }
+
+    /**
+     * Re-hash a password in the background and hand the new hash to the callback
+     * Skipped (returns false) when the pool is busy; the next login tries again
+     */
+    public boolean rehashAsync(CharSequence rawPassword, Consumer<String> onHashed) {
+        long queuedAt = System.nanoTime();
+        try {
+            executor.execute(() -> {
+                queueWaitTimer.record(System.nanoTime() - queuedAt, TimeUnit.NANOSECONDS);
+                try {
+                    onHashed.accept(rehashTimer.record(() -> passwordEncoder.encode(rawPassword)));
+                } catch (Exception e) {
+                    log.warn("Password rehash failed: {}", e.getMessage());
+                }
+            });
+            return true;
+        } catch (RejectedExecutionException e) {
+            rejectedCounter.increment();
+            return false;
+        }
+    }
+
+    private <T> T run(Timer timer, Callable<T> task) {
+        long queuedAt = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                queueWaitTimer.record(System.nanoTime() - queuedAt, TimeUnit.NANOSECONDS);
+                return timer.recordCallable(task);
+            });
+        } catch (RejectedExecutionException e) {
+            rejectedCounter.increment();
+            throw new ServiceBusyException("Too many authentication requests, please retry", retryAfterSeconds);
+        }
+
+        try {
+            return future.get(maxWaitMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            rejectedCounter.increment();
+            throw new ServiceBusyException("Too many authentication requests, please retry", retryAfterSeconds);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            throw new RuntimeException("Password hashing interrupted", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new RuntimeException("Password hashing failed", cause);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
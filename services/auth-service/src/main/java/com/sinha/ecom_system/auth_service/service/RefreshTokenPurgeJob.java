@@ -0,0 +1,157 @@
+package com.sinha.ecom_system.auth_service.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Refresh Token Purge Job
+ * Deletes expired rows from refresh_tokens in small chunks
+ *
+ * - each chunk is its own short statement: at most chunk-size rows, walked in
+ *   (expires_at, id) order from where the previous chunk stopped
+ * - the job pauses between chunks and stops at max-duration; whatever is left
+ *   is picked up by the next run
+ * - only one auth-service instance purges at a time (Redis lock)
+ * - revoked rows are kept until they expire: a rotated token must still be
+ *   recognised if it is replayed
+ *
+ * Lock: "auth:refresh-purge:lock"
+ *
+ * Metrics: auth.refresh.purge.rows, auth.refresh.purge.duration
+ */
+@Service
+@Slf4j
+public class RefreshTokenPurgeJob {
+
+    private static final String LOCK_KEY = "auth:refresh-purge:lock";
+
+    private static final String PURGE_SQL =
+            "WITH doomed AS (" +
+            "  SELECT id FROM refresh_tokens" +
+            "  WHERE expires_at < ? AND (expires_at, id) > (?, ?)" +
+            "  ORDER BY expires_at, id" +
+            "  LIMIT ?" +
+            ") " +
+            "DELETE FROM refresh_tokens rt USING doomed WHERE rt.id = doomed.id " +
+            "RETURNING rt.expires_at, rt.id";
+
+    // Delete the lock only if this instance still holds it
+    private static final RedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('GET', KEYS[1]) == ARGV[1] then return redis.call('DEL', KEYS[1]) else return 0 end",
+            Long.class);
+
+    private static final Timestamp MIN_EXPIRES_AT = Timestamp.valueOf(LocalDateTime.of(1970, 1, 1, 0, 0));
+    private static final UUID MIN_ID = new UUID(0L, 0L);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final StringRedisTemplate redisTemplate;
+    private final int chunkSize;
+    private final long pauseMillis;
+    private final long maxDurationMillis;
+    private final String owner = UUID.randomUUID().toString();
+
+    private final Counter purgedRows;
+    private final Timer purgeTimer;
+
+    @Autowired
+    public RefreshTokenPurgeJob(JdbcTemplate jdbcTemplate,
+                                StringRedisTemplate redisTemplate,
+                                MeterRegistry meterRegistry,
+                                @Value("${refresh-token.purge.chunk-size:1000}") int chunkSize,
+                                @Value("${refresh-token.purge.pause:100}") long pauseMillis,
+                                @Value("${refresh-token.purge.max-duration:30000}") long maxDurationMillis) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.redisTemplate = redisTemplate;
+        this.chunkSize = chunkSize;
+        this.pauseMillis = pauseMillis;
+        this.maxDurationMillis = maxDurationMillis;
+        this.purgedRows = meterRegistry.counter("auth.refresh.purge.rows");
+        this.purgeTimer = meterRegistry.timer("auth.refresh.purge.duration");
+    }
+
+    @Scheduled(fixedDelayString = "${refresh-token.purge.interval:3600000}", initialDelayString = "${refresh-token.purge.initial-delay:300000}")
+    public void purge() {
+        // Held a little longer than the run may last, so a crashed leader frees it on its own
+        Boolean acquired = redisTemplate.opsForValue()
+                .setIfAbsent(LOCK_KEY, owner, Duration.ofMillis(maxDurationMillis * 2));
+        if (!Boolean.TRUE.equals(acquired)) {
+            log.debug("Refresh token purge skipped, another instance holds the lock");
+            return;
+        }
+        try {
+            purgeTimer.record(this::purgeChunks);
+        } finally {
+            redisTemplate.execute(RELEASE_SCRIPT, List.of(LOCK_KEY), owner);
+        }
+    }
+
+    private void purgeChunks() {
+        long deadline = System.currentTimeMillis() + maxDurationMillis;
+        Timestamp cutoff = Timestamp.valueOf(LocalDateTime.now());
+        Timestamp lastExpiresAt = MIN_EXPIRES_AT;
+        UUID lastId = MIN_ID;
+        long total = 0;
+
+        try {
+            while (true) {
+                List<Key> deleted = jdbcTemplate.query(PURGE_SQL,
+                        (rs, rowNum) -> new Key(rs.getTimestamp(1), rs.getObject(2, UUID.class)),
+                        cutoff, lastExpiresAt, lastId, chunkSize);
+                total += deleted.size();
+                purgedRows.increment(deleted.size());
+
+                if (deleted.size() < chunkSize) {
+                    break;
+                }
+                // RETURNING order is not guaranteed; continue after the largest key
+                for (Key key : deleted) {
+                    int cmp = key.expiresAt().compareTo(lastExpiresAt);
+                    if (cmp > 0 || cmp == 0 && compareUuids(key.id(), lastId) > 0) {
+                        lastExpiresAt = key.expiresAt();
+                        lastId = key.id();
+                    }
+                }
+                if (System.currentTimeMillis() + pauseMillis >= deadline) {
+                    log.info("Refresh token purge reached its time budget after {} rows, continuing next run", total);
+                    return;
+                }
+                Thread.sleep(pauseMillis);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.error("Refresh token purge failed after {} rows: {}", total, e.getMessage());
+            return;
+        }
+        if (total > 0) {
+            log.info("Purged {} expired refresh tokens", total);
+        }
+    }
+
+    /**
+     * UUID order as Postgres sorts it (unsigned bytes); UUID.compareTo compares signed longs
+     */
+    private static int compareUuids(UUID a, UUID b) {
+        int cmp = Long.compareUnsigned(a.getMostSignificantBits(), b.getMostSignificantBits());
+        return cmp != 0 ? cmp : Long.compareUnsigned(a.getLeastSignificantBits(), b.getLeastSignificantBits());
+    }
+
+    private record Key(Timestamp expiresAt, UUID id) {
+    }
+}
@@ -0,0 +1,432 @@
+package com.sinha.ecom_system.auth_service.service;
+
+import com.sinha.ecom_system.auth_service.model.RefreshToken;
+import com.sinha.ecom_system.auth_service.repository.RefreshTokenRepository;
+import com.sinha.ecom_system.common.config.JwtProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Refresh Token Store
+ * Hot refresh-token state in Redis, refresh_tokens in Postgres as the system of record
+ *
+ * - each token is a Redis hash (authId, expiresAt, revoked, replacedBy) that
+ *   expires with the token, so a refresh normally needs no database round trip
+ * - rotation claims the old token with HSETNX on replacedBy: exactly one caller
+ *   wins, and a token that already has a successor is a replayed (stolen) token
+ * - Postgres writes (new rows, rotation links) are queued to a single writer
+ *   thread, so they apply in order; when the queue is full the caller writes itself
+ * - tokens missing from Redis (issued before this store, or evicted) are read
+ *   from Postgres and written back to Redis
+ * - revocations (logout, reuse) are applied to both synchronously
+ * - when Redis fails, Postgres alone is used: new tokens are inserted
+ *   synchronously, lookups read the row, and rotation is claimed by the
+ *   markReplaced update (WHERE replaced_by IS NULL, exactly one caller gets row count 1)
+ * - state changed in Postgres only (revocations and rotations during a Redis
+ *   failure) leaves stale Redis hashes: those tokens and users are read from
+ *   Postgres on this instance, and their Redis keys are deleted once Redis
+ *   answers again (refresh-token.redis-repair-interval), so the next lookup
+ *   reloads them from Postgres
+ *
+ * Key format: "auth:refresh:{tokenHash}" (hash), "auth:refresh-user:{authId}" (set of token hashes)
+ *
+ * Metrics: auth.refresh.lookup{source=redis|database}, auth.refresh.reuse,
+ * auth.refresh.redis.failure (operations that fell back to Postgres),
+ * auth.refresh.redis.repair.pending (tokens + users whose Redis keys are still stale)
+ */
+@Service
+@Slf4j
+public class RefreshTokenStore {
+
+    private static final String TOKEN_PREFIX = "auth:refresh:";
+    private static final String USER_TOKENS_PREFIX = "auth:refresh-user:";
+
+    private static final String FIELD_AUTH_ID = "authId";
+    private static final String FIELD_EXPIRES_AT = "expiresAt";
+    private static final String FIELD_REVOKED = "revoked";
+    private static final String FIELD_REPLACED_BY = "replacedBy";
+
+    // Marks existing token hashes revoked; drops index entries whose token already expired
+    // (HSET on a missing key would recreate it without a TTL)
+    private static final RedisScript<Long> REVOKE_SCRIPT = new DefaultRedisScript<>(
+            "for i = 2, #KEYS do " +
+            "  if redis.call('EXISTS', KEYS[i]) == 1 then redis.call('HSET', KEYS[i], 'revoked', '1') " +
+            "  else redis.call('SREM', KEYS[1], string.sub(KEYS[i], #ARGV[1] + 1)) end " +
+            "end " +
+            "return #KEYS - 1", Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final ThreadPoolExecutor writer;
+    private final long maxTokenLifetimeMillis;
+
+    private final Counter redisLookups;
+    private final Counter databaseLookups;
+    private final Counter reuseDetected;
+    private final Counter redisFailures;
+
+    // Changed in Postgres while Redis failed; their Redis keys are deleted by repairRedis()
+    private final Set<String> staleTokens = ConcurrentHashMap.newKeySet();
+    private final Set<UUID> staleUsers = ConcurrentHashMap.newKeySet();
+
+    @Autowired
+    public RefreshTokenStore(StringRedisTemplate redisTemplate,
+                             RefreshTokenRepository refreshTokenRepository,
+                             JwtProperties jwtProperties,
+                             MeterRegistry meterRegistry,
+                             @Value("${refresh-token.write-queue-capacity:1000}") int writeQueueCapacity) {
+        this.redisTemplate = redisTemplate;
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.maxTokenLifetimeMillis = jwtProperties.getRefreshTokenExpiry();
+        this.writer = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(writeQueueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "refresh-token-writer");
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+
+        this.redisLookups = meterRegistry.counter("auth.refresh.lookup", "source", "redis");
+        this.databaseLookups = meterRegistry.counter("auth.refresh.lookup", "source", "database");
+        this.reuseDetected = meterRegistry.counter("auth.refresh.reuse");
+        this.redisFailures = meterRegistry.counter("auth.refresh.redis.failure");
+        meterRegistry.gauge("auth.refresh.write.queue.size", writer, pool -> pool.getQueue().size());
+        meterRegistry.gauge("auth.refresh.redis.repair.pending", this,
+                store -> store.staleTokens.size() + store.staleUsers.size());
+    }
+
+    /**
+     * Store a newly issued token
+     */
+    public void save(UUID authId, String tokenHash, LocalDateTime expiresAt, String deviceInfo, String ipAddress) {
+        boolean cached = cache(tokenHash, new TokenState(authId, expiresAt, false, null));
+        RefreshToken token = RefreshToken.builder()
+                .authId(authId)
+                .tokenHash(tokenHash)
+                .deviceInfo(deviceInfo)
+                .ipAddress(ipAddress)
+                .expiresAt(expiresAt)
+                .revoked(false)
+                .build();
+        if (cached) {
+            writeAsync(() -> refreshTokenRepository.save(token));
+        } else {
+            // Postgres is the only copy: the row must exist before the token is handed out
+            writeAndWait(() -> refreshTokenRepository.save(token));
+        }
+    }
+
+    /**
+     * Current state of a token, from Redis or else from Postgres
+     */
+    public Optional<TokenState> find(String tokenHash) {
+        Map<Object, Object> fields = Map.of();
+        if (!staleTokens.contains(tokenHash)) {
+            try {
+                fields = redisTemplate.opsForHash().entries(TOKEN_PREFIX + tokenHash);
+            } catch (Exception e) {
+                redisFailures.increment();
+                log.warn("Refresh token Redis lookup failed, reading Postgres: {}", e.getMessage());
+            }
+        }
+        if (!fields.isEmpty()) {
+            TokenState cached = TokenState.fromFields(fields);
+            if (!staleUsers.contains(cached.authId())) {
+                redisLookups.increment();
+                return Optional.of(cached);
+            }
+        }
+
+        databaseLookups.increment();
+        Optional<TokenState> stored = refreshTokenRepository.findByTokenHash(tokenHash)
+                .map(token -> new TokenState(token.getAuthId(), token.getExpiresAt(),
+                        Boolean.TRUE.equals(token.getRevoked()), token.getReplacedBy()));
+        // Not written back while the Redis copy is stale: repairRedis() deletes it first
+        stored.filter(state -> !staleTokens.contains(tokenHash) && !staleUsers.contains(state.authId()))
+                .ifPresent(state -> cache(tokenHash, state));
+        return stored;
+    }
+
+    /**
+     * Replace a token with its successor
+     *
+     * @return false if the token was already rotated (the caller is replaying it)
+     */
+    public boolean rotate(TokenState current, String tokenHash, String newTokenHash, LocalDateTime newExpiresAt) {
+        UUID authId = current.authId();
+        RefreshToken token = RefreshToken.builder()
+                .authId(authId)
+                .tokenHash(newTokenHash)
+                .expiresAt(newExpiresAt)
+                .revoked(false)
+                .build();
+
+        String tokenKey = TOKEN_PREFIX + tokenHash;
+        Boolean claimed;
+        try {
+            claimed = redisTemplate.opsForHash().putIfAbsent(tokenKey, FIELD_REPLACED_BY, newTokenHash);
+            if (Boolean.TRUE.equals(claimed)) {
+                // In case the key expired in between and HSETNX recreated it
+                redisTemplate.expireAt(tokenKey, Instant.ofEpochMilli(current.expiresAtMillis()));
+            }
+        } catch (Exception e) {
+            redisFailures.increment();
+            log.warn("Refresh token Redis rotation failed, claiming in Postgres: {}", e.getMessage());
+            return rotateInDatabase(tokenHash, authId, token);
+        }
+        if (!Boolean.TRUE.equals(claimed)) {
+            return false;
+        }
+
+        if (cache(newTokenHash, new TokenState(authId, newExpiresAt, false, null))) {
+            writeAsync(() -> {
+                refreshTokenRepository.save(token);
+                if (refreshTokenRepository.markReplaced(tokenHash, newTokenHash, LocalDateTime.now()) == 0) {
+                    // Already rotated in Postgres while Redis was unavailable: two successors exist,
+                    // so one of them comes from a replayed token (runs on the writer, hence no revokeAll())
+                    reuseDetected.increment();
+                    log.warn("Refresh token reuse detected for user {} (rotated in Postgres and Redis), revoking all refresh tokens",
+                            authId);
+                    refreshTokenRepository.revokeAllUserTokens(authId, LocalDateTime.now());
+                    staleUsers.add(authId);
+                }
+            });
+        } else {
+            writeAndWait(() -> {
+                refreshTokenRepository.save(token);
+                refreshTokenRepository.markReplaced(tokenHash, newTokenHash, LocalDateTime.now());
+            });
+        }
+        return true;
+    }
+
+    /**
+     * Rotation with Postgres alone: the conditional update is the claim
+     * Runs on the writer, after any queued insert of the token being rotated
+     */
+    private boolean rotateInDatabase(String tokenHash, UUID authId, RefreshToken successor) {
+        return writeAndGet(() -> {
+            if (refreshTokenRepository.markReplaced(tokenHash, successor.getTokenHash(), LocalDateTime.now()) != 1) {
+                return false;
+            }
+            // The Redis hash of the old token still has no replacedBy: a replay must not pass through it
+            staleTokens.add(tokenHash);
+            refreshTokenRepository.save(successor);
+            return true;
+        });
+    }
+
+    /**
+     * Revoke every refresh token of a user (logout, or reuse of a rotated token)
+     */
+    public void revokeAll(UUID authId) {
+        // Through the writer, so rows of queued rotations exist before they are revoked
+        writeAndWait(() -> refreshTokenRepository.revokeAllUserTokens(authId, LocalDateTime.now()));
+
+        try {
+            Set<String> tokenHashes = redisTemplate.opsForSet().members(USER_TOKENS_PREFIX + authId);
+            if (tokenHashes == null || tokenHashes.isEmpty()) {
+                return;
+            }
+            List<String> keys = new ArrayList<>(tokenHashes.size() + 1);
+            keys.add(USER_TOKENS_PREFIX + authId);
+            for (String tokenHash : tokenHashes) {
+                keys.add(TOKEN_PREFIX + tokenHash);
+            }
+            redisTemplate.execute(REVOKE_SCRIPT, keys, TOKEN_PREFIX);
+        } catch (Exception e) {
+            // Revoked in Postgres; the Redis hashes still say revoked=0 until repairRedis() drops them
+            redisFailures.increment();
+            staleUsers.add(authId);
+            log.warn("Failed to revoke refresh tokens of user {} in Redis, repair pending: {}", authId, e.getMessage());
+        }
+    }
+
+    /**
+     * Delete Redis state that Postgres has overtaken (see staleTokens / staleUsers)
+     * Entries stay pending while Redis keeps failing
+     */
+    @Scheduled(fixedDelayString = "${refresh-token.redis-repair-interval:5000}")
+    public void repairRedis() {
+        for (String tokenHash : staleTokens) {
+            try {
+                redisTemplate.delete(TOKEN_PREFIX + tokenHash);
+                staleTokens.remove(tokenHash);
+            } catch (Exception e) {
+                log.debug("Redis still unavailable, {} stale refresh tokens pending: {}", staleTokens.size(), e.getMessage());
+                return;
+            }
+        }
+        for (UUID authId : staleUsers) {
+            try {
+                String userKey = USER_TOKENS_PREFIX + authId;
+                Set<String> tokenHashes = redisTemplate.opsForSet().members(userKey);
+                List<String> keys = new ArrayList<>();
+                keys.add(userKey);
+                if (tokenHashes != null) {
+                    for (String tokenHash : tokenHashes) {
+                        keys.add(TOKEN_PREFIX + tokenHash);
+                    }
+                }
+                redisTemplate.delete(keys);
+                staleUsers.remove(authId);
+                log.info("Dropped stale Redis refresh tokens of user {}", authId);
+            } catch (Exception e) {
+                log.debug("Redis still unavailable, {} users with stale refresh tokens pending: {}",
+                        staleUsers.size(), e.getMessage());
+                return;
+            }
+        }
+    }
+
+    public void recordReuse(UUID authId) {
+        reuseDetected.increment();
+        log.warn("Refresh token reuse detected for user {}, revoking all refresh tokens", authId);
+        revokeAll(authId);
+    }
+
+    /**
+     * Write token state to Redis and index it under its user, both expiring with the token
+     *
+     * @return false if Redis could not be written (Postgres must then hold the token)
+     */
+    private boolean cache(String tokenHash, TokenState state) {
+        long expiresAtMillis = state.expiresAtMillis();
+        if (expiresAtMillis <= System.currentTimeMillis()) {
+            return true;
+        }
+        String tokenKey = TOKEN_PREFIX + tokenHash;
+        String userKey = USER_TOKENS_PREFIX + state.authId();
+        try {
+            redisTemplate.executePipelined(new SessionCallback<List<Object>>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public List<Object> execute(RedisOperations operations) throws DataAccessException {
+                    operations.opsForHash().putAll(tokenKey, state.toFields());
+                    operations.expireAt(tokenKey, Instant.ofEpochMilli(expiresAtMillis));
+                    operations.opsForSet().add(userKey, tokenHash);
+                    // Outlives every token in it: no token issued so far expires later than this
+                    operations.expire(userKey, Duration.ofMillis(maxTokenLifetimeMillis));
+                    return null;
+                }
+            });
+            return true;
+        } catch (Exception e) {
+            redisFailures.increment();
+            log.warn("Failed to cache refresh token in Redis: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Run a Postgres write on the writer thread (after everything queued before it) and wait for it
+     */
+    private void writeAndWait(Runnable write) {
+        writeAndGet(() -> {
+            write.run();
+            return null;
+        });
+    }
+
+    private <T> T writeAndGet(Callable<T> write) {
+        Future<T> result = writer.submit(write);
+        try {
+            return result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Refresh token write interrupted", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Refresh token write failed: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    private void writeAsync(Runnable write) {
+        writer.execute(() -> {
+            try {
+                write.run();
+            } catch (Exception e) {
+                // Redis still holds the state; the row is missing only until the token expires
+                log.error("Refresh token write failed: {}", e.getMessage());
+            }
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        // Drain queued writes before the datasource closes
+        writer.shutdown();
+        if (!writer.awaitTermination(10, TimeUnit.SECONDS)) {
+            log.warn("Refresh token writer did not drain, {} writes dropped", writer.shutdownNow().size());
+        }
+    }
+
+    /**
+     * Token state as kept in Redis
+     */
+    public record TokenState(UUID authId, LocalDateTime expiresAt, boolean revoked, String replacedBy) {
+
+        public boolean isReplaced() {
+            return replacedBy != null;
+        }
+
+        public boolean isValid() {
+            return !revoked && LocalDateTime.now().isBefore(expiresAt);
+        }
+
+        long expiresAtMillis() {
+            return expiresAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        }
+
+        Map<String, String> toFields() {
+            Map<String, String> fields = new HashMap<>();
+            fields.put(FIELD_AUTH_ID, authId.toString());
+            fields.put(FIELD_EXPIRES_AT, Long.toString(expiresAtMillis()));
+            fields.put(FIELD_REVOKED, revoked ? "1" : "0");
+            if (replacedBy != null) {
+                fields.put(FIELD_REPLACED_BY, replacedBy);
+            }
+            return fields;
+        }
+
+        static TokenState fromFields(Map<Object, Object> fields) {
+            return new TokenState(
+                    UUID.fromString((String) fields.get(FIELD_AUTH_ID)),
+                    LocalDateTime.ofInstant(Instant.ofEpochMilli(Long.parseLong((String) fields.get(FIELD_EXPIRES_AT))),
+                            ZoneId.systemDefault()),
+                    "1".equals(fields.get(FIELD_REVOKED)),
+                    (String) fields.get(FIELD_REPLACED_BY));
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.sinha.ecom_system.auth_service.service;
+
+import com.sinha.ecom_system.auth_service.model.Role;
+import com.sinha.ecom_system.auth_service.repository.RoleRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Role Cache
+ * All roles held in memory by name; roles are a handful of rows that rarely change
+ *
+ * - loaded at startup (DataInitializer) and read-through on a miss
+ * - role changes call invalidate(), which reloads after the transaction commits
+ *   and publishes on the role invalidation channel so other instances reload too
+ * - a periodic full reload bounds staleness if a message is lost
+ *
+ * Cached roles are detached entities shared between threads: read them or
+ * reference them from other entities (only their ID is written), never modify them
+ *
+ * Channel: "auth:role-invalidations"
+ */
+@Component
+@Slf4j
+public class RoleCache {
+
+    private static final String INVALIDATION_CHANNEL = "auth:role-invalidations";
+
+    private final RoleRepository roleRepository;
+    private final RedisTemplate<String, String> redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+
+    // Immutable snapshot, replaced as a whole
+    private volatile Map<String, Role> rolesByName = Map.of();
+
+    @Autowired
+    public RoleCache(RoleRepository roleRepository,
+                     RedisTemplate<String, String> redisTemplate,
+                     RedisMessageListenerContainer listenerContainer) {
+        this.roleRepository = roleRepository;
+        this.redisTemplate = redisTemplate;
+        this.listenerContainer = listenerContainer;
+    }
+
+    @PostConstruct
+    public void subscribe() {
+        listenerContainer.addMessageListener((message, pattern) -> {
+            log.debug("Role invalidation received: {}", new String(message.getBody()));
+            reload();
+        }, ChannelTopic.of(INVALIDATION_CHANNEL));
+    }
+
+    /**
+     * Role by name, from memory; queries the database only for roles not seen yet
+     */
+    public Optional<Role> findByName(String name) {
+        Role role = rolesByName.get(name);
+        if (role != null) {
+            return Optional.of(role);
+        }
+        Optional<Role> loaded = roleRepository.findByName(name);
+        loaded.ifPresent(this::add);
+        return loaded;
+    }
+
+    public List<Role> getActiveRoles() {
+        return rolesByName.values().stream()
+                .filter(role -> Boolean.TRUE.equals(role.getIsActive()))
+                .toList();
+    }
+
+    /**
+     * Replace the snapshot with every role from the database
+     */
+    @Scheduled(fixedDelayString = "${role-cache.refresh-interval:300000}", initialDelayString = "${role-cache.refresh-interval:300000}")
+    public void reload() {
+        try {
+            Map<String, Role> loaded = new HashMap<>();
+            for (Role role : roleRepository.findAll()) {
+                loaded.put(role.getName(), role);
+            }
+            replace(loaded);
+            log.debug("Role cache loaded {} roles", loaded.size());
+        } catch (Exception e) {
+            // Keep serving the last snapshot; the next reload retries
+            log.error("Role cache reload failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Reload here and on every other instance, once the current transaction (if any) commits
+     */
+    public void invalidate(String roleName) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    reloadAndPublish(roleName);
+                }
+            });
+        } else {
+            reloadAndPublish(roleName);
+        }
+    }
+
+    private void reloadAndPublish(String roleName) {
+        reload();
+        try {
+            redisTemplate.convertAndSend(INVALIDATION_CHANNEL, roleName);
+        } catch (Exception e) {
+            log.warn("Failed to publish role invalidation for {}: {}", roleName, e.getMessage());
+        }
+    }
+
+    private synchronized void replace(Map<String, Role> roles) {
+        rolesByName = Map.copyOf(roles);
+    }
+
+    private synchronized void add(Role role) {
+        if (rolesByName.containsKey(role.getName())) {
+            return;
+        }
+        Map<String, Role> updated = new HashMap<>(rolesByName);
+        updated.put(role.getName(), role);
+        rolesByName = Map.copyOf(updated);
+    }
+}
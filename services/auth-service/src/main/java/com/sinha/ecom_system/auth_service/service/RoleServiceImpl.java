@@ -3,6 +3,7 @@ package com.sinha.ecom_system.auth_service.service;
 import com.sinha.ecom_system.auth_service.model.Role;
 import com.sinha.ecom_system.auth_service.model.RolePermissions;
 import com.sinha.ecom_system.auth_service.repository.RoleRepository;
+import com.sinha.ecom_system.common.enums.Permission;
 import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -14,16 +15,18 @@ import java.util.UUID;
 public class RoleServiceImpl implements RoleService {
 
     private RoleRepository roleRepository;
+    private RoleCache roleCache;
 
     @Autowired
-    public RoleServiceImpl(RoleRepository roleRepository) {
+    public RoleServiceImpl(RoleRepository roleRepository, RoleCache roleCache) {
         this.roleRepository = roleRepository;
+        this.roleCache = roleCache;
     }
 
     @Transactional
     public Role createRole(String name, String description, RolePermissions permissions) {
         // Check if role already exists
-        if (roleRepository.existsByName(name)) {
+        if (roleCache.findByName(name).isPresent()) {
             throw new RuntimeException("Role already exists: " + name);
         }
 
@@ -34,16 +37,18 @@ public class RoleServiceImpl implements RoleService {
                 .isActive(true)
                 .build();
 
-        return roleRepository.save(role);
+        Role saved = roleRepository.save(role);
+        roleCache.invalidate(name);
+        return saved;
     }
 
     public Role getRoleByName(String name) {
-        return roleRepository.findByName(name)
+        return roleCache.findByName(name)
                 .orElseThrow(() -> new RuntimeException("Role not found: " + name));
     }
 
     public List<Role> getAllActiveRoles() {
-        return roleRepository.findByIsActive(true);
+        return roleCache.getActiveRoles();
     }
 
     @Transactional
@@ -52,7 +57,9 @@ public class RoleServiceImpl implements RoleService {
                 .orElseThrow(() -> new RuntimeException("Role not found"));
 
         role.setPermissions(permissions);
-        return roleRepository.save(role);
+        Role saved = roleRepository.save(role);
+        roleCache.invalidate(role.getName());
+        return saved;
     }
 
     @Transactional
@@ -62,11 +69,12 @@ public class RoleServiceImpl implements RoleService {
 
         role.setIsActive(false);
         roleRepository.save(role);
+        roleCache.invalidate(role.getName());
     }
 
     public boolean hasPermission(String roleName, String permission) {
         Role role = getRoleByName(roleName);
-        return role.getPermissions() != null &&
-                role.getPermissions().hasPermission(permission);
+        Permission resolved = Permission.fromName(permission);
+        return resolved != null && resolved.isIn(role.getPermissionMask());
     }
 }
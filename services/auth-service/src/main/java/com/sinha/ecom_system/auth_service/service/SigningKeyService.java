@@ -0,0 +1,187 @@
+package com.sinha.ecom_system.auth_service.service;
+
+import com.sinha.ecom_system.auth_service.model.JwtSigningKey;
+import com.sinha.ecom_system.auth_service.repository.JwtSigningKeyRepository;
+import com.sinha.ecom_system.common.config.JwtProperties;
+import com.sinha.ecom_system.common.security.Ed25519Jwk;
+import com.sinha.ecom_system.common.security.JwtKeyProvider;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PublicKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Signing Key Service
+ * Ed25519 JWT signing keys, stored in jwt_signing_keys and rotated on a schedule
+ *
+ * Rotation:
+ * - a new key is created pre-publish before the current one is due and is
+ *   served by the JWKS endpoint right away, but only signs once it activates,
+ *   so verifiers have fetched it before the first token carrying its kid
+ * - the superseded key stays published until every token it signed
+ *   (refresh tokens included) has expired, then drops out of the JWKS
+ *
+ * Keys are held in an immutable snapshot reloaded by the scheduled check,
+ * so signing and verification never touch the database
+ */
+@Service
+@Slf4j
+public class SigningKeyService implements JwtKeyProvider {
+
+    private static final String KEY_ALGORITHM = "Ed25519";
+
+    private final JwtSigningKeyRepository signingKeyRepository;
+    private final long rotationIntervalMillis;
+    private final long prePublishMillis;
+    private final long maxTokenLifetimeMillis;
+
+    private volatile KeySnapshot snapshot = KeySnapshot.EMPTY;
+
+    public SigningKeyService(JwtSigningKeyRepository signingKeyRepository,
+                             JwtProperties jwtProperties,
+                             @Value("${jwt.keys.rotation-interval:604800000}") long rotationIntervalMillis,   // Default: 7 days
+                             @Value("${jwt.keys.pre-publish:900000}") long prePublishMillis) {                // Default: 15 minutes
+        this.signingKeyRepository = signingKeyRepository;
+        this.rotationIntervalMillis = rotationIntervalMillis;
+        this.prePublishMillis = prePublishMillis;
+        this.maxTokenLifetimeMillis = Math.max(jwtProperties.getAccessTokenExpiry(), jwtProperties.getRefreshTokenExpiry());
+    }
+
+    @PostConstruct
+    public void init() {
+        rotateIfDue();
+    }
+
+    @Override
+    public SigningKey signingKey() {
+        return snapshot.signingKey(System.currentTimeMillis());
+    }
+
+    @Override
+    public PublicKey verificationKey(String keyId) {
+        return snapshot.publicKeys.get(keyId);
+    }
+
+    /**
+     * Published keys in JWK form, for the JWKS endpoint
+     */
+    public List<Map<String, Object>> getJwks() {
+        return snapshot.jwks;
+    }
+
+    /**
+     * Create the next key when the current one is due, then reload the snapshot
+     * Also picks up keys created by other auth-service instances
+     */
+    @Scheduled(fixedDelayString = "${jwt.keys.check-interval:60000}", initialDelayString = "${jwt.keys.check-interval:60000}")
+    public void rotateIfDue() {
+        try {
+            LocalDateTime now = LocalDateTime.now(ZoneOffset.UTC);
+            List<JwtSigningKey> keys = signingKeyRepository.findPublishedKeys(now);
+
+            JwtSigningKey newest = keys.isEmpty() ? null : keys.get(0);
+            if (newest == null) {
+                // Nothing to sign with: the first key is active immediately
+                keys = createKey(now, keys);
+            } else if (!newest.getActivatesAt().isAfter(now)
+                    && !newest.getActivatesAt().plusNanos((rotationIntervalMillis - prePublishMillis) * 1_000_000L).isAfter(now)) {
+                keys = createKey(now.plusNanos(prePublishMillis * 1_000_000L), keys);
+            }
+
+            snapshot = KeySnapshot.of(keys);
+        } catch (Exception e) {
+            // Keep signing with the last snapshot; the next check retries
+            log.error("JWT signing key check failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Store a new key activating at the given time and schedule the retirement of the keys it supersedes
+     */
+    private List<JwtSigningKey> createKey(LocalDateTime activatesAt, List<JwtSigningKey> existing) throws GeneralSecurityException {
+        KeyPair keyPair = KeyPairGenerator.getInstance(KEY_ALGORITHM).generateKeyPair();
+        Base64.Encoder encoder = Base64.getEncoder();
+        JwtSigningKey key = JwtSigningKey.builder()
+                .keyId(UUID.randomUUID().toString())
+                .algorithm(Ed25519Jwk.ALGORITHM)
+                .publicKey(encoder.encodeToString(keyPair.getPublic().getEncoded()))
+                .privateKey(encoder.encodeToString(keyPair.getPrivate().getEncoded()))
+                .activatesAt(activatesAt)
+                .build();
+
+        LocalDateTime retiresAt = activatesAt.plusNanos(maxTokenLifetimeMillis * 1_000_000L);
+        List<JwtSigningKey> toSave = new ArrayList<>();
+        for (JwtSigningKey previous : existing) {
+            if (previous.getRetiresAt() == null) {
+                previous.setRetiresAt(retiresAt);
+                toSave.add(previous);
+            }
+        }
+        toSave.add(key);
+        signingKeyRepository.saveAll(toSave);
+        log.info("Created JWT signing key {} activating at {}", key.getKeyId(), activatesAt);
+
+        List<JwtSigningKey> keys = new ArrayList<>(existing.size() + 1);
+        keys.add(key);
+        keys.addAll(existing);
+        return keys;
+    }
+
+    /**
+     * Decoded keys, newest activation first
+     */
+    private record KeySnapshot(List<ActiveKey> keys, Map<String, PublicKey> publicKeys, List<Map<String, Object>> jwks) {
+
+        static final KeySnapshot EMPTY = new KeySnapshot(List.of(), Map.of(), List.of());
+
+        static KeySnapshot of(List<JwtSigningKey> entities) throws GeneralSecurityException {
+            KeyFactory keyFactory = KeyFactory.getInstance(KEY_ALGORITHM);
+            Base64.Decoder decoder = Base64.getDecoder();
+            List<ActiveKey> keys = new ArrayList<>(entities.size());
+            Map<String, PublicKey> publicKeys = new HashMap<>();
+            List<Map<String, Object>> jwks = new ArrayList<>(entities.size());
+
+            for (JwtSigningKey entity : entities) {
+                PublicKey publicKey = keyFactory.generatePublic(new X509EncodedKeySpec(decoder.decode(entity.getPublicKey())));
+                SigningKey signingKey = new SigningKey(entity.getKeyId(),
+                        keyFactory.generatePrivate(new PKCS8EncodedKeySpec(decoder.decode(entity.getPrivateKey()))));
+                keys.add(new ActiveKey(entity.getActivatesAt().toInstant(ZoneOffset.UTC).toEpochMilli(), signingKey));
+                publicKeys.put(entity.getKeyId(), publicKey);
+                jwks.add(Ed25519Jwk.toJwk(entity.getKeyId(), publicKey));
+            }
+            return new KeySnapshot(List.copyOf(keys), Map.copyOf(publicKeys), List.copyOf(jwks));
+        }
+
+        /**
+         * Newest key that has already activated
+         */
+        SigningKey signingKey(long nowMillis) {
+            for (ActiveKey key : keys) {
+                if (key.activatesAt <= nowMillis) {
+                    return key.signingKey;
+                }
+            }
+            return null;
+        }
+    }
+
+    private record ActiveKey(long activatesAt, SigningKey signingKey) {
+    }
+}
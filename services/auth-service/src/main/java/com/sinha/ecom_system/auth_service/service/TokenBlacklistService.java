@@ -1,11 +1,28 @@
 package com.sinha.ecom_system.auth_service.service;
 
+import com.sinha.ecom_system.common.config.JwtProperties;
+import com.sinha.ecom_system.common.config.TokenBloomProperties;
+import com.sinha.ecom_system.common.contants.CommonConstants;
+import com.sinha.ecom_system.common.dto.SessionRevocationEvent;
+import com.sinha.ecom_system.common.dto.TokenRevocationEvent;
+import com.sinha.ecom_system.common.util.RotatingBloomFilter;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.core.types.Expiration;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -14,20 +31,46 @@ import java.util.concurrent.TimeUnit;
  * Manages invalidated JWT access tokens to prevent reuse after logout
  * Tokens are stored in Redis with TTL matching their expiry time
  * Redis automatically removes tokens when they naturally expire
+ * Each revocation is also published so gateways can update their near-cache
+ * and added to a rotating Bloom filter (Redis bitmaps, one per expiry bucket)
+ * that gateways replicate to skip Redis for tokens that were never revoked
+ * 
+ * Revoking all sessions of a user is a single per-user watermark: gateways
+ * reject that user's access tokens issued before it
  * 
  * Key format: "token:blacklist:{tokenId}"
+ * Watermark: "token:revoked-before:{authId}"
+ * Bloom bucket: "token:bloom:{bucketIndex}"
+ * Channel: "token:revocations", "token:session-revocations"
  */
 @Service
 @Slf4j
 public class TokenBlacklistService {
 
-    private static final String BLACKLIST_PREFIX = "token:blacklist:";
+    private static final String BLACKLIST_PREFIX = CommonConstants.TOKEN_BLACKLIST_PREFIX;
+    private static final String REVOKED_BEFORE_PREFIX = CommonConstants.TOKEN_REVOKED_BEFORE_PREFIX;
+
+    // Raise the watermark (never lower it) and publish the change
+    private static final RedisScript<Long> REVOKE_SESSIONS_SCRIPT = new DefaultRedisScript<>(
+            "local current = tonumber(redis.call('GET', KEYS[1]) or '0') " +
+            "if tonumber(ARGV[1]) <= current then return 0 end " +
+            "redis.call('SET', KEYS[1], ARGV[1], 'PX', ARGV[2]) " +
+            "redis.call('PUBLISH', ARGV[3], ARGV[4]) " +
+            "return 1", Long.class);
     
     private final RedisTemplate<String, String> redisTemplate;
+    private final TokenBloomProperties bloomProperties;
+    private final RotatingBloomFilter bloomFilter;  // Only used for offsets and bucket math
+    private final long accessTokenExpiryMillis;
 
     @Autowired
-    public TokenBlacklistService(RedisTemplate<String, String> redisTemplate) {
+    public TokenBlacklistService(RedisTemplate<String, String> redisTemplate,
+                                 TokenBloomProperties bloomProperties,
+                                 JwtProperties jwtProperties) {
         this.redisTemplate = redisTemplate;
+        this.bloomProperties = bloomProperties;
+        this.bloomFilter = new RotatingBloomFilter(bloomProperties, jwtProperties.getAccessTokenExpiry());
+        this.accessTokenExpiryMillis = jwtProperties.getAccessTokenExpiry();
     }
 
     /**
@@ -38,15 +81,79 @@ public class TokenBlacklistService {
      * @param expiryDate The expiration date of the token
      */
     public void blacklistToken(String tokenId, Date expiryDate) {
-        String key = BLACKLIST_PREFIX + tokenId;
-        long ttl = expiryDate.getTime() - System.currentTimeMillis();
-        
-        if (ttl > 0) {
-            redisTemplate.opsForValue().set(key, "blacklisted", ttl, TimeUnit.MILLISECONDS);
-            System.out.println("Token {} added to blacklist with TTL: {} ms" + tokenId + " " + ttl);
-        } else {
-            System.out.println("Token {} is already expired, not adding to blacklist" + tokenId);
+        blacklistTokens(Map.of(tokenId, expiryDate.getTime()));
+    }
+
+    /**
+     * Blacklist several tokens in one pipelined round trip
+     * (blacklist keys, Bloom bits and revocation messages for all of them)
+     * 
+     * @param tokenExpiries JWT ID -> expiry (epoch millis); already expired tokens are skipped
+     * @return number of tokens blacklisted
+     */
+    public int blacklistTokens(Map<String, Long> tokenExpiries) {
+        long now = System.currentTimeMillis();
+        Map<String, Long> live = new HashMap<>();
+        tokenExpiries.forEach((tokenId, expiresAt) -> {
+            if (expiresAt > now) {
+                live.put(tokenId, expiresAt);
+            }
+        });
+        if (live.isEmpty()) {
+            log.debug("No unexpired tokens to blacklist");
+            return 0;
+        }
+
+        byte[] channel = CommonConstants.TOKEN_REVOCATION_CHANNEL.getBytes(StandardCharsets.UTF_8);
+        byte[] value = "blacklisted".getBytes(StandardCharsets.UTF_8);
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            live.forEach((tokenId, expiresAt) -> {
+                byte[] key = (BLACKLIST_PREFIX + tokenId).getBytes(StandardCharsets.UTF_8);
+                connection.stringCommands().set(key, value,
+                        Expiration.milliseconds(expiresAt - now), RedisStringCommands.SetOption.upsert());
+                if (bloomProperties.isEnabled()) {
+                    addToBloomFilter(connection, tokenId, expiresAt);
+                }
+                connection.publish(channel,
+                        new TokenRevocationEvent(tokenId, expiresAt).toMessage().getBytes(StandardCharsets.UTF_8));
+            });
+            return null;
+        });
+        log.debug("Blacklisted {} tokens", live.size());
+        return live.size();
+    }
+
+    /**
+     * Revoke every access token of a user issued before the given time with one write
+     * The watermark only moves forward, expires once every token it covers has
+     * expired, and is published so gateways can update their near-cache
+     * 
+     * @param authId The user (token subject)
+     * @param revokedBefore Epoch millis, compared with the iat_ms claim
+     * @return true if the watermark moved forward
+     */
+    public boolean revokeSessionsBefore(UUID authId, long revokedBefore) {
+        Long updated = redisTemplate.execute(REVOKE_SESSIONS_SCRIPT,
+                List.of(REVOKED_BEFORE_PREFIX + authId),
+                Long.toString(revokedBefore),
+                Long.toString(accessTokenExpiryMillis),
+                CommonConstants.SESSION_REVOCATION_CHANNEL,
+                new SessionRevocationEvent(authId, revokedBefore).toMessage());
+        log.debug("Sessions of user {} revoked before {}", authId, revokedBefore);
+        return updated != null && updated == 1L;
+    }
+
+    /**
+     * Set the token's bits in the Redis bitmap of its expiry bucket (queued on the caller's pipeline)
+     * The bucket key expires once every token in it has expired
+     */
+    private void addToBloomFilter(RedisConnection connection, String tokenId, long expiresAt) {
+        long bucketIndex = bloomFilter.bucketIndex(expiresAt);
+        byte[] bucketKey = (CommonConstants.TOKEN_BLOOM_PREFIX + bucketIndex).getBytes(StandardCharsets.UTF_8);
+        for (long offset : bloomFilter.offsets(tokenId)) {
+            connection.stringCommands().setBit(bucketKey, offset, true);
         }
+        connection.keyCommands().pExpireAt(bucketKey, bloomFilter.bucketExpiresAt(bucketIndex));
     }
 
     /**
@@ -60,7 +167,7 @@ public class TokenBlacklistService {
         Boolean exists = redisTemplate.hasKey(key);
         
         if (Boolean.TRUE.equals(exists)) {
-            System.out.println("Token {} is blacklisted" + tokenId);
+            log.debug("Token {} is blacklisted", tokenId);
             return true;
         }
         
@@ -75,7 +182,7 @@ public class TokenBlacklistService {
     public void removeFromBlacklist(String tokenId) {
         String key = BLACKLIST_PREFIX + tokenId;
         redisTemplate.delete(key);
-        System.out.println("Token {} removed from blacklist" + tokenId);
+        log.info("Token {} removed from blacklist", tokenId);
     }
 
     /**
@@ -0,0 +1,196 @@
+package com.sinha.ecom_system.auth_service.service;
+
+import com.sinha.ecom_system.auth_service.model.TokenRevocationOutbox;
+import com.sinha.ecom_system.auth_service.repository.TokenRevocationOutboxRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token Revocation Service
+ * Gets access token revocations into the Redis blacklist without blocking the caller
+ *
+ * - revocations requested inside a transaction are sent after it commits, so
+ *   no database connection is held while Redis is written
+ * - each batch goes out as one pipelined write (see TokenBlacklistService);
+ *   revoking all of a user's sessions is a single watermark write
+ * - failures are retried with exponential backoff up to max-attempts
+ * - batches that still fail are stored in token_revocation_outbox and
+ *   relayed by a scheduled job once Redis is reachable again
+ *
+ * Metrics: auth.revocation.tokens{result=sent|outboxed}, auth.revocation.retries
+ */
+@Service
+@Slf4j
+public class TokenRevocationService {
+
+    private final TokenBlacklistService tokenBlacklistService;
+    private final TokenRevocationOutboxRepository outboxRepository;
+    private final ScheduledThreadPoolExecutor executor;
+    private final int maxAttempts;
+    private final long initialBackoffMillis;
+    private final int relayBatchSize;
+
+    private final Counter sentTokens;
+    private final Counter outboxedTokens;
+    private final Counter retries;
+
+    @Autowired
+    public TokenRevocationService(TokenBlacklistService tokenBlacklistService,
+                                  TokenRevocationOutboxRepository outboxRepository,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${token-revocation.max-attempts:3}") int maxAttempts,
+                                  @Value("${token-revocation.initial-backoff:200}") long initialBackoffMillis,
+                                  @Value("${token-revocation.relay.batch-size:500}") int relayBatchSize) {
+        this.tokenBlacklistService = tokenBlacklistService;
+        this.outboxRepository = outboxRepository;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoffMillis = initialBackoffMillis;
+        this.relayBatchSize = relayBatchSize;
+        this.executor = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "token-revocation");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.sentTokens = meterRegistry.counter("auth.revocation.tokens", "result", "sent");
+        this.outboxedTokens = meterRegistry.counter("auth.revocation.tokens", "result", "outboxed");
+        this.retries = meterRegistry.counter("auth.revocation.retries");
+    }
+
+    /**
+     * Blacklist access tokens (JWT ID -> expiry, epoch millis) once the current transaction, if any, commits
+     */
+    public void revoke(Map<String, Long> tokenExpiries) {
+        if (tokenExpiries.isEmpty()) {
+            return;
+        }
+        Map<String, Long> tokens = Map.copyOf(tokenExpiries);
+        afterCommit(() -> executor.execute(() -> send(
+                () -> sentTokens.increment(tokenBlacklistService.blacklistTokens(tokens)),
+                () -> writeToOutbox(toOutboxRows(tokens)),
+                1)));
+    }
+
+    /**
+     * Revoke every access token of a user issued so far (logout from all devices, token theft)
+     * One watermark write instead of one blacklist entry per token
+     */
+    public void revokeAllAccessTokens(UUID authId) {
+        // Exact time: access tokens carry their issue time in millis (iat_ms), so a login
+        // later in this same second stays valid; gateways revoke ties (issued at == watermark)
+        long revokedBefore = System.currentTimeMillis();
+        Runnable write = () -> tokenBlacklistService.revokeSessionsBefore(authId, revokedBefore);
+        Runnable giveUp = () -> writeToOutbox(List.of(TokenRevocationOutbox.builder()
+                .authId(authId)
+                .expiresAt(revokedBefore)
+                .build()));
+        afterCommit(() -> executor.execute(() -> send(write, giveUp, 1)));
+        log.info("Revoking all sessions of user {} issued before {}", authId, revokedBefore);
+    }
+
+    private void afterCommit(Runnable task) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    task.run();
+                }
+            });
+        } else {
+            task.run();
+        }
+    }
+
+    private void send(Runnable write, Runnable giveUp, int attempt) {
+        try {
+            write.run();
+        } catch (Exception e) {
+            if (attempt < maxAttempts && !executor.isShutdown()) {
+                retries.increment();
+                long backoff = initialBackoffMillis << (attempt - 1);
+                log.warn("Token revocation failed (attempt {}), retrying in {} ms: {}", attempt, backoff, e.getMessage());
+                executor.schedule(() -> send(write, giveUp, attempt + 1), backoff, TimeUnit.MILLISECONDS);
+            } else {
+                log.error("Token revocation failed after {} attempts, storing in outbox: {}", attempt, e.getMessage());
+                giveUp.run();
+            }
+        }
+    }
+
+    private List<TokenRevocationOutbox> toOutboxRows(Map<String, Long> tokens) {
+        List<TokenRevocationOutbox> rows = new ArrayList<>(tokens.size());
+        tokens.forEach((tokenId, expiresAt) -> rows.add(TokenRevocationOutbox.builder()
+                .tokenId(tokenId)
+                .expiresAt(expiresAt)
+                .build()));
+        return rows;
+    }
+
+    private void writeToOutbox(List<TokenRevocationOutbox> rows) {
+        try {
+            outboxRepository.saveAll(rows);
+            outboxedTokens.increment(rows.size());
+        } catch (Exception e) {
+            log.error("Failed to store {} token revocations in outbox: {}", rows.size(), e.getMessage());
+        }
+    }
+
+    /**
+     * Move pending outbox rows into the Redis blacklist
+     * Rows for tokens that have expired meanwhile are dropped; relaying the
+     * same row from two instances is harmless (blacklisting is idempotent,
+     * session watermarks only move forward)
+     */
+    @Scheduled(fixedDelayString = "${token-revocation.relay.interval:10000}")
+    public void relayOutbox() {
+        try {
+            List<TokenRevocationOutbox> rows;
+            do {
+                rows = outboxRepository.findOldest(PageRequest.of(0, relayBatchSize));
+                if (rows.isEmpty()) {
+                    return;
+                }
+                Map<String, Long> tokens = new HashMap<>();
+                for (TokenRevocationOutbox row : rows) {
+                    if (row.isSessionRevocation()) {
+                        tokenBlacklistService.revokeSessionsBefore(row.getAuthId(), row.getExpiresAt());
+                    } else {
+                        tokens.put(row.getTokenId(), row.getExpiresAt());
+                    }
+                }
+                sentTokens.increment(tokenBlacklistService.blacklistTokens(tokens));
+                outboxRepository.deleteAllInBatch(rows);
+                log.info("Relayed {} token revocations from outbox", rows.size());
+            } while (rows.size() == relayBatchSize);
+        } catch (Exception e) {
+            // Redis still unavailable; rows stay for the next run
+            log.debug("Token revocation outbox relay failed: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        // Let queued sends and pending retries finish
+        executor.shutdown();
+        if (!executor.awaitTermination(5, TimeUnit.SECONDS)) {
+            log.warn("Token revocation sends still pending at shutdown: {}", executor.shutdownNow().size());
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package com.sinha.ecom_system.auth_service.service;
+
+import com.sinha.ecom_system.auth_service.repository.UserProfileRepository;
+import com.sinha.ecom_system.common.contants.CommonConstants;
+import com.sinha.ecom_system.common.dto.UserChangedEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.stream.Consumer;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.connection.stream.PendingMessage;
+import org.springframework.data.redis.connection.stream.PendingMessages;
+import org.springframework.data.redis.connection.stream.ReadOffset;
+import org.springframework.data.redis.connection.stream.RecordId;
+import org.springframework.data.redis.connection.stream.StreamOffset;
+import org.springframework.data.redis.connection.stream.StreamReadOptions;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.stream.StreamListener;
+import org.springframework.data.redis.stream.StreamMessageListenerContainer;
+import org.springframework.data.redis.stream.StreamMessageListenerContainer.StreamMessageListenerContainerOptions;
+import org.springframework.data.redis.stream.StreamMessageListenerContainer.StreamReadRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * User Event Consumer
+ * Keeps the user_profiles projection in sync with user-service through the user events stream
+ *
+ * - consumer group "auth-service": each event is handled by one auth-service instance
+ * - an event is acknowledged only after it was written; a failed write is
+ *   logged and left pending instead of stopping the subscription
+ * - read errors (Redis down, failover) never cancel the subscription, it keeps polling
+ * - pending entries idle for longer than user-events.consumer.reclaim-idle
+ *   (failed writes, or entries of an instance that died) are claimed and
+ *   retried every user-events.consumer.reclaim-interval, not only on start
+ * - writes are version-guarded upserts, so redelivery and reordering are harmless
+ *
+ * Stream: "user:events"
+ */
+@Service
+@Slf4j
+public class UserEventConsumer implements StreamListener<String, MapRecord<String, String, String>> {
+
+    private static final String GROUP = "auth-service";
+
+    private final StringRedisTemplate redisTemplate;
+    private final RedisConnectionFactory connectionFactory;
+    private final UserProfileRepository userProfileRepository;
+    private final Consumer consumer;
+    private final boolean enabled;
+    private final Duration reclaimIdle;
+
+    private StreamMessageListenerContainer<String, MapRecord<String, String, String>> container;
+
+    @Autowired
+    public UserEventConsumer(StringRedisTemplate redisTemplate,
+                             RedisConnectionFactory connectionFactory,
+                             UserProfileRepository userProfileRepository,
+                             @Value("${eureka.instance.instance-id:${spring.application.name}}") String consumerName,
+                             @Value("${user-events.consumer.enabled:true}") boolean enabled,
+                             @Value("${user-events.consumer.reclaim-idle:60000}") long reclaimIdleMillis) {
+        this.redisTemplate = redisTemplate;
+        this.connectionFactory = connectionFactory;
+        this.userProfileRepository = userProfileRepository;
+        this.consumer = Consumer.from(GROUP, consumerName);
+        this.enabled = enabled;
+        this.reclaimIdle = Duration.ofMillis(reclaimIdleMillis);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            createGroupIfMissing();
+            replayPending();
+        } catch (Exception e) {
+            log.warn("User events stream setup failed, continuing with live events only: {}", e.getMessage());
+        }
+
+        container = StreamMessageListenerContainer.create(connectionFactory,
+                StreamMessageListenerContainerOptions.builder()
+                        .pollTimeout(Duration.ofSeconds(2))
+                        .batchSize(100)
+                        .build());
+        // receive() would cancel the subscription on the first read error; keep polling instead
+        container.register(StreamReadRequest
+                        .builder(StreamOffset.create(CommonConstants.USER_EVENTS_STREAM, ReadOffset.lastConsumed()))
+                        .consumer(consumer)
+                        .autoAcknowledge(false)
+                        .cancelOnError(e -> false)
+                        .errorHandler(e -> log.warn("User events stream read failed: {}", e.getMessage()))
+                        .build(),
+                this);
+        container.start();
+    }
+
+    @Override
+    public void onMessage(MapRecord<String, String, String> record) {
+        UserChangedEvent event = UserChangedEvent.fromFields(record.getValue());
+        if (event == null) {
+            log.warn("Skipping invalid user event {}", record.getId());
+        } else {
+            try {
+                userProfileRepository.upsert(event.getUserId(), event.getFirstName(), event.getLastName(),
+                        event.getEmail(), event.getMobileNumber(), event.getDob(),
+                        event.getUserStatus() != null ? event.getUserStatus().name() : null,
+                        event.getVersion());
+            } catch (Exception e) {
+                // Not acknowledged: stays pending and is retried by reclaimPending()
+                log.warn("Failed to apply user event {} for user {}: {}",
+                        record.getId(), event.getUserId(), e.getMessage());
+                return;
+            }
+        }
+        redisTemplate.opsForStream().acknowledge(GROUP, record);
+    }
+
+    /**
+     * Claim pending entries of the group that have been idle for longer than
+     * reclaim-idle (this instance's failed writes, or entries delivered to an
+     * instance that died) and process them again
+     */
+    @Scheduled(fixedDelayString = "${user-events.consumer.reclaim-interval:30000}",
+            initialDelayString = "${user-events.consumer.reclaim-interval:30000}")
+    @SuppressWarnings("unchecked")
+    public void reclaimPending() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            PendingMessages pending = redisTemplate.opsForStream()
+                    .pending(CommonConstants.USER_EVENTS_STREAM, GROUP, Range.unbounded(), 100);
+            RecordId[] idle = pending.stream()
+                    .filter(message -> message.getElapsedTimeSinceLastDelivery().compareTo(reclaimIdle) >= 0)
+                    .map(PendingMessage::getId)
+                    .toArray(RecordId[]::new);
+            if (idle.length == 0) {
+                return;
+            }
+            // XCLAIM re-checks the idle time, so an entry another instance just claimed is skipped
+            List<MapRecord<String, Object, Object>> claimed = redisTemplate.opsForStream()
+                    .claim(CommonConstants.USER_EVENTS_STREAM, GROUP, consumer.getName(), reclaimIdle, idle);
+            log.debug("Reclaimed {} pending user events", claimed.size());
+            for (MapRecord<String, Object, Object> record : claimed) {
+                onMessage((MapRecord<String, String, String>) (MapRecord<String, ?, ?>) record);
+            }
+        } catch (Exception e) {
+            log.warn("Reclaiming pending user events failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Create the consumer group (and the stream) on first start; reads from the
+     * start of the retained stream so the projection is backfilled
+     */
+    private void createGroupIfMissing() {
+        byte[] key = CommonConstants.USER_EVENTS_STREAM.getBytes(StandardCharsets.UTF_8);
+        try {
+            redisTemplate.execute((RedisCallback<String>) connection ->
+                    connection.streamCommands().xGroupCreate(key, GROUP, ReadOffset.from("0"), true));
+        } catch (Exception e) {
+            if (e.getMessage() == null || !e.getMessage().contains("BUSYGROUP")) {
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Process events this consumer received but never acknowledged (e.g. crashed mid-write)
+     * Reads past each batch, so entries whose write fails again stay pending for reclaimPending()
+     */
+    @SuppressWarnings("unchecked")
+    private void replayPending() {
+        String after = "0";
+        while (true) {
+            List<MapRecord<String, Object, Object>> pending = redisTemplate.opsForStream().read(consumer,
+                    StreamReadOptions.empty().count(100),
+                    StreamOffset.create(CommonConstants.USER_EVENTS_STREAM, ReadOffset.from(after)));
+            if (pending == null || pending.isEmpty()) {
+                return;
+            }
+            for (MapRecord<String, Object, Object> record : pending) {
+                onMessage((MapRecord<String, String, String>) (MapRecord<String, ?, ?>) record);
+            }
+            after = pending.get(pending.size() - 1).getId().getValue();
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (container != null) {
+            container.stop();
+        }
+    }
+}
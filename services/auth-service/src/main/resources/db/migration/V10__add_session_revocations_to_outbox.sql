@@ -0,0 +1,9 @@
+-- Outbox rows can also carry a session revocation (all access tokens of a user issued before a watermark)
+ALTER TABLE token_revocation_outbox
+ALTER COLUMN token_id DROP NOT NULL;
+
+ALTER TABLE token_revocation_outbox
+ADD COLUMN IF NOT EXISTS auth_id UUID;
+
+COMMENT ON COLUMN token_revocation_outbox.auth_id IS 'User whose sessions are revoked; set only when token_id is null';
+COMMENT ON COLUMN token_revocation_outbox.expires_at IS 'Token expiry (epoch millis), or the revoked-before watermark of a session revocation';
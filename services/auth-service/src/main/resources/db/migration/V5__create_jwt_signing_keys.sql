@@ -0,0 +1,20 @@
+-- Create jwt_signing_keys table
+CREATE TABLE IF NOT EXISTS jwt_signing_keys (
+    key_id          VARCHAR(64) PRIMARY KEY,
+    algorithm       VARCHAR(16) NOT NULL,
+    public_key      TEXT NOT NULL,
+    private_key     TEXT NOT NULL,
+    activates_at    TIMESTAMP NOT NULL,
+    retires_at      TIMESTAMP,
+    created_at      TIMESTAMP NOT NULL DEFAULT NOW()
+);
+
+CREATE INDEX IF NOT EXISTS idx_signing_keys_activates ON jwt_signing_keys(activates_at);
+
+-- Add comments for documentation
+COMMENT ON TABLE jwt_signing_keys IS 'Asymmetric JWT signing keys, published through the JWKS endpoint';
+COMMENT ON COLUMN jwt_signing_keys.key_id IS 'JWT kid header value';
+COMMENT ON COLUMN jwt_signing_keys.public_key IS 'Base64 X.509 encoded public key';
+COMMENT ON COLUMN jwt_signing_keys.private_key IS 'Base64 PKCS#8 encoded private key';
+COMMENT ON COLUMN jwt_signing_keys.activates_at IS 'From this time the key signs new tokens; published in JWKS before that';
+COMMENT ON COLUMN jwt_signing_keys.retires_at IS 'Set when superseded; removed from JWKS after every token it signed has expired';
@@ -0,0 +1,18 @@
+-- Create user_profiles table (local projection of user-service profiles)
+CREATE TABLE IF NOT EXISTS user_profiles (
+    user_id         UUID PRIMARY KEY,
+    first_name      VARCHAR(100),
+    last_name       VARCHAR(100),
+    email           VARCHAR(255),
+    mobile_number   VARCHAR(20),
+    dob             DATE,
+    user_status     VARCHAR(20),
+    version         BIGINT NOT NULL,
+    synced_at       TIMESTAMP NOT NULL DEFAULT NOW()
+);
+
+-- Add comments for documentation
+COMMENT ON TABLE user_profiles IS 'Read-only copy of user-service profiles, fed by the user:events stream';
+COMMENT ON COLUMN user_profiles.user_id IS 'users.id in user-service (auth_credentials.user_id)';
+COMMENT ON COLUMN user_profiles.version IS 'Change time in user-service (epoch millis); older events are ignored';
+COMMENT ON COLUMN user_profiles.synced_at IS 'When this row was last written from an event';
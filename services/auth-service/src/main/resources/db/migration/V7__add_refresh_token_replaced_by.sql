@@ -0,0 +1,5 @@
+-- Refresh token rotation: each token records the hash of the token that replaced it
+ALTER TABLE refresh_tokens
+ADD COLUMN IF NOT EXISTS replaced_by VARCHAR(255);
+
+COMMENT ON COLUMN refresh_tokens.replaced_by IS 'Hash of the refresh token issued when this one was rotated; presenting a replaced token again is treated as reuse';
@@ -0,0 +1,11 @@
+-- Keyset index for the chunked purge of expired refresh tokens (expires_at, id)
+CREATE INDEX IF NOT EXISTS idx_refresh_expires_id ON refresh_tokens(expires_at, id);
+
+-- Covered by idx_refresh_expires_id
+DROP INDEX IF EXISTS idx_refresh_expires;
+
+-- Not used by any query
+DROP INDEX IF EXISTS idx_refresh_revoked;
+
+-- Duplicate of the index behind the UNIQUE constraint on token_hash
+DROP INDEX IF EXISTS idx_refresh_token;
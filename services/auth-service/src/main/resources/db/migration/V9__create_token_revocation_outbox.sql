@@ -0,0 +1,14 @@
+-- Access token revocations that could not be written to Redis; relayed until Redis takes them
+CREATE TABLE IF NOT EXISTS token_revocation_outbox (
+    id              UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    token_id        VARCHAR(64) NOT NULL,
+    expires_at      BIGINT NOT NULL,
+    created_at      TIMESTAMP NOT NULL DEFAULT NOW()
+);
+
+CREATE INDEX IF NOT EXISTS idx_revocation_outbox_created ON token_revocation_outbox(created_at);
+
+-- Add comments for documentation
+COMMENT ON TABLE token_revocation_outbox IS 'Pending access token blacklist entries, drained into Redis by auth-service';
+COMMENT ON COLUMN token_revocation_outbox.token_id IS 'JWT ID (jti) of the revoked access token';
+COMMENT ON COLUMN token_revocation_outbox.expires_at IS 'Token expiry (epoch millis); rows past it are dropped without relaying';
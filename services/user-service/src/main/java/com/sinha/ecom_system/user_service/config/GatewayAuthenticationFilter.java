@@ -1,5 +1,9 @@
 package com.sinha.ecom_system.user_service.config;
 
+import com.sinha.ecom_system.common.contants.CommonConstants;
+import com.sinha.ecom_system.common.security.UserContext;
+import com.sinha.ecom_system.common.security.UserContextCodec;
+import com.sinha.ecom_system.common.util.PathTrie;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -18,21 +22,28 @@ import java.util.List;
  * Gateway Authentication Filter
  * Ensures requests come only from API Gateway
  * Validates the X-Gateway-Secret header
+ * Verifies the signed X-User-Context header (if present) and exposes it
+ * as the UserContext request attribute
  */
 @Component
 @Order(Ordered.HIGHEST_PRECEDENCE)
 @Slf4j
 public class GatewayAuthenticationFilter extends OncePerRequestFilter {
 
-    @Value("${api-gateway.secret-key}")
-    private String expectedSecret;
+    private final String expectedSecret;
+    private final UserContextCodec userContextCodec;
 
-    // Endpoints accessible directly (health checks, etc.)
-    private static final List<String> BYPASS_PATHS = List.of(
-            "/actuator/health",
-            "/actuator/info",
-            "/error"
-    );
+    private final PathTrie<Boolean> bypassPaths;
+
+    // Endpoints accessible directly (health checks, etc.); "/**" suffix matches sub-paths
+    public GatewayAuthenticationFilter(
+            @Value("${api-gateway.secret-key}") String expectedSecret,
+            @Value("${api-gateway.bypass-paths:/actuator/health/**,/actuator/info/**,/error/**}")
+            List<String> bypassPaths) {
+        this.expectedSecret = expectedSecret;
+        this.userContextCodec = new UserContextCodec(expectedSecret);
+        this.bypassPaths = PathTrie.of(bypassPaths);
+    }
 
     @Override
     protected void doFilterInternal(HttpServletRequest request,
@@ -65,12 +76,30 @@ public class GatewayAuthenticationFilter extends OncePerRequestFilter {
             return;
         }
 
+        // Signed user context from the gateway (authenticated routes only)
+        String userContextHeader = request.getHeader(CommonConstants.HEADER_USER_CONTEXT);
+        if (userContextHeader != null) {
+            UserContext userContext = userContextCodec.decode(userContextHeader);
+            if (userContext == null) {
+                log.warn("Invalid or expired user context for: {}", path);
+                response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+                response.setContentType("application/json");
+                response.getWriter().write(
+                        "{\"error\":\"Unauthorized\"," +
+                                "\"message\":\"Invalid user context.\"," +
+                                "\"status\":401}"
+                );
+                return;
+            }
+            request.setAttribute(UserContext.REQUEST_ATTR, userContext);
+        }
+
         // Valid gateway request - proceed
         log.debug("Valid gateway request to: {}", path);
         filterChain.doFilter(request, response);
     }
 
     private boolean shouldBypass(String path) {
-        return BYPASS_PATHS.stream().anyMatch(path::startsWith);
+        return bypassPaths.matches(path);
     }
 }
\ No newline at end of file
@@ -1,15 +1,22 @@
 package com.sinha.ecom_system.user_service.controller;
 
 import com.sinha.ecom_system.common.dto.*;
+import com.sinha.ecom_system.common.enums.KycStatus;
+import com.sinha.ecom_system.common.enums.Permission;
+import com.sinha.ecom_system.common.enums.TradingStatus;
 import com.sinha.ecom_system.common.enums.UserStatus;
+import com.sinha.ecom_system.common.security.UserContext;
 import com.sinha.ecom_system.user_service.Constants;
 import com.sinha.ecom_system.user_service.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 @RestController
@@ -35,6 +42,24 @@ public class UserController {
                         .build());
     }
 
+    @GetMapping("")
+    public ResponseEntity<ApiResponse<UserPageResponse>> listUsers(
+            @RequestAttribute(name = UserContext.REQUEST_ATTR, required = false) UserContext userContext,
+            @RequestParam(required = false) UserStatus status,
+            @RequestParam(required = false) KycStatus kycStatus,
+            @RequestParam(required = false) TradingStatus tradingStatus,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        requireAnyPermission(userContext, Permission.MANAGE_USERS, Permission.VIEW_REPORTS);
+        UserPageResponse page = userService.listUsers(status, kycStatus, tradingStatus, cursor, limit);
+        return ResponseEntity.status(HttpStatus.OK).body(ApiResponse.<UserPageResponse>builder()
+                .status(Constants.SUCCESS)
+                .message("Users fetched successfully.")
+                .data(page)
+                .timestamp(LocalDateTime.now())
+                .build());
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<ApiResponse<UserInfoResponse>> getUser(@PathVariable UUID id) throws Exception {
         UserInfoResponse userInfoResponse = userService.getUser(id);
@@ -46,6 +71,20 @@ public class UserController {
                 .build());
     }
 
+    @PostMapping("/batch-get")
+    public ResponseEntity<ApiResponse<Map<UUID, UserInfoResponse>>> getUsers(
+            @RequestAttribute(name = UserContext.REQUEST_ATTR, required = false) UserContext userContext,
+            @RequestBody UserBatchRequest body) {
+        requireAnyPermission(userContext, Permission.MANAGE_USERS, Permission.VIEW_REPORTS);
+        Map<UUID, UserInfoResponse> users = userService.getUsers(body.getUserIds() != null ? body.getUserIds() : List.of());
+        return ResponseEntity.status(HttpStatus.OK).body(ApiResponse.<Map<UUID, UserInfoResponse>>builder()
+                .status(Constants.SUCCESS)
+                .message("Users fetched successfully.")
+                .data(users)
+                .timestamp(LocalDateTime.now())
+                .build());
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<ApiResponse<UserInfoResponse>> updateUser(@PathVariable UUID id, @RequestBody UserInfoRequest body) throws Exception{
         UserInfoResponse userInfoResponse = userService.updateUser(id, body);
@@ -64,4 +103,21 @@ public class UserController {
         return ResponseEntity.status(HttpStatus.NO_CONTENT)
                 .body(MessageResponse.builder().build());
     }
+
+    /**
+     * 403 unless the caller holds one of the permissions
+     * Requests without a user context are service-to-service calls (gateway secret
+     * only); every gateway route to this service requires a token, so users always have one
+     */
+    private static void requireAnyPermission(UserContext userContext, Permission... permissions) {
+        if (userContext == null) {
+            return;
+        }
+        for (Permission permission : permissions) {
+            if (userContext.hasPermission(permission)) {
+                return;
+            }
+        }
+        throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Insufficient permissions");
+    }
 }
@@ -28,10 +28,10 @@ import java.util.UUID;
 @Entity
 @Table(name = "users", indexes = {
     @Index(name = "idx_users_email", columnList = "email"),
-    @Index(name = "idx_users_status", columnList = "user_status"),
-    @Index(name = "idx_users_kyc", columnList = "kyc_status"),
-    @Index(name = "idx_users_trading", columnList = "trading_status"),
-    @Index(name = "idx_users_created", columnList = "created_at")
+    @Index(name = "idx_users_created_id", columnList = "created_at DESC, id DESC"),
+    @Index(name = "idx_users_status_created_id", columnList = "user_status, created_at DESC, id DESC"),
+    @Index(name = "idx_users_kyc_created_id", columnList = "kyc_status, created_at DESC, id DESC"),
+    @Index(name = "idx_users_trading_created_id", columnList = "trading_status, created_at DESC, id DESC")
 })
 public class User {
 
@@ -0,0 +1,20 @@
+package com.sinha.ecom_system.user_service.repository;
+
+import com.sinha.ecom_system.common.dto.UserSummary;
+import com.sinha.ecom_system.common.enums.KycStatus;
+import com.sinha.ecom_system.common.enums.TradingStatus;
+import com.sinha.ecom_system.common.enums.UserStatus;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+public interface UserRepositoryCustom {
+
+    /**
+     * Users newest first, starting after (afterCreatedAt, afterId) when given
+     * Null filters are not applied
+     */
+    List<UserSummary> findPage(UserStatus userStatus, KycStatus kycStatus, TradingStatus tradingStatus,
+                               LocalDateTime afterCreatedAt, UUID afterId, int limit);
+}
@@ -0,0 +1,80 @@
+package com.sinha.ecom_system.user_service.repository;
+
+import com.sinha.ecom_system.common.dto.UserSummary;
+import com.sinha.ecom_system.common.enums.KycStatus;
+import com.sinha.ecom_system.common.enums.TradingStatus;
+import com.sinha.ecom_system.common.enums.UserStatus;
+import com.sinha.ecom_system.user_service.model.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Keyset (seek) pagination over users, ordered by (created_at, id) descending
+ *
+ * - each page starts strictly after the last row of the previous one, so the
+ *   cost of a page does not grow with its depth (no OFFSET)
+ * - only the filters that are set become part of the query, so Postgres can
+ *   pick the matching (filter, created_at, id) index
+ * - selects only the columns of UserSummary, not the whole entity
+ */
+public class UserRepositoryImpl implements UserRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<UserSummary> findPage(UserStatus userStatus, KycStatus kycStatus, TradingStatus tradingStatus,
+                                      LocalDateTime afterCreatedAt, UUID afterId, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<UserSummary> query = cb.createQuery(UserSummary.class);
+        Root<User> user = query.from(User.class);
+        Path<LocalDateTime> createdAt = user.get("createdAt");
+        Path<UUID> id = user.get("id");
+
+        List<Predicate> predicates = new ArrayList<>();
+        predicates.add(cb.isNotNull(createdAt));
+        if (userStatus != null) {
+            predicates.add(cb.equal(user.get("userStatus"), userStatus));
+        }
+        if (kycStatus != null) {
+            predicates.add(cb.equal(user.get("kycStatus"), kycStatus));
+        }
+        if (tradingStatus != null) {
+            predicates.add(cb.equal(user.get("tradingStatus"), tradingStatus));
+        }
+        if (afterCreatedAt != null && afterId != null) {
+            // (created_at, id) < (:createdAt, :id); the first condition gives the index scan its start
+            predicates.add(cb.lessThanOrEqualTo(createdAt, afterCreatedAt));
+            predicates.add(cb.or(
+                    cb.lessThan(createdAt, afterCreatedAt),
+                    cb.lessThan(id, afterId)));
+        }
+
+        query.select(cb.construct(UserSummary.class,
+                        id,
+                        user.get("firstName"),
+                        user.get("lastName"),
+                        user.get("email"),
+                        user.get("userStatus"),
+                        user.get("accountType"),
+                        user.get("kycStatus"),
+                        user.get("tradingStatus"),
+                        createdAt))
+                .where(predicates.toArray(new Predicate[0]))
+                .orderBy(cb.desc(createdAt), cb.desc(id));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+}
@@ -0,0 +1,295 @@
+package com.sinha.ecom_system.user_service.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.sinha.ecom_system.common.dto.UserInfoResponse;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * User Cache
+ * Two-level cache of serialized UserInfoResponse (JSON bytes) by user ID
+ *
+ * - level 1: Caffeine, per instance, bounded and short-lived
+ * - level 2: Redis, shared by all instances (optional, user-cache.redis.enabled)
+ * - entries are immutable bytes, so a cached response can never be modified
+ *   by a caller; each hit deserializes a fresh copy
+ * - evict() removes the user from both levels and publishes the ID on the
+ *   invalidation channel, so every other instance drops its local copy
+ * - a load that started before an eviction is not cached, so a slow read
+ *   cannot put back the value an update just replaced
+ * - across instances the same is enforced in Redis: evict() records the
+ *   user's new version (updatedAt, epoch micros) and Redis writes go through a
+ *   script that refuses a value older than it, so a slow load on another
+ *   instance cannot put the old user back before the invalidation reaches it
+ * - batch lookups read Redis with one MGET and write it back in one pipeline
+ *
+ * Key format: "user:cache:{userId}", "user:cache-version:{userId}" (latest evicted version)
+ * Channel: "user:cache-invalidations"
+ */
+@Component
+@Slf4j
+public class UserCache {
+
+    private static final String KEY_PREFIX = "user:cache:";
+    private static final String VERSION_PREFIX = "user:cache-version:";
+    private static final String INVALIDATION_CHANNEL = "user:cache-invalidations";
+
+    // SET the value unless a newer version was evicted: KEYS = value, version; ARGV = bytes, version, ttl millis
+    private static final byte[] SET_IF_CURRENT_SCRIPT = (
+            "local evicted = redis.call('GET', KEYS[2]) " +
+            "if evicted and tonumber(evicted) > tonumber(ARGV[2]) then return 0 end " +
+            "redis.call('SET', KEYS[1], ARGV[1], 'PX', ARGV[3]) " +
+            "return 1").getBytes(StandardCharsets.UTF_8);
+
+    // Raise the evicted version (never lower it) and drop the value: KEYS = value, version; ARGV = version, ttl millis
+    private static final RedisScript<Long> EVICT_SCRIPT = new DefaultRedisScript<>(
+            "local evicted = redis.call('GET', KEYS[2]) " +
+            "if not evicted or tonumber(evicted) < tonumber(ARGV[1]) then " +
+            "  redis.call('SET', KEYS[2], ARGV[1], 'PX', ARGV[2]) end " +
+            "redis.call('DEL', KEYS[1]) " +
+            "return 1", Long.class);
+
+    private final ObjectMapper objectMapper;
+    private final RedisTemplate<String, byte[]> redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final boolean redisEnabled;
+    private final Duration redisTtl;
+
+    private final Cache<UUID, byte[]> localCache;
+    // User ID -> time of its last eviction (nanoTime), kept long enough to outlive any load
+    private final Cache<UUID, Long> recentEvictions;
+
+    @Autowired
+    public UserCache(ObjectMapper objectMapper,
+                     RedisConnectionFactory connectionFactory,
+                     RedisMessageListenerContainer listenerContainer,
+                     @Value("${user-cache.local.max-size:100000}") long localMaxSize,
+                     @Value("${user-cache.local.ttl:60000}") long localTtlMillis,
+                     @Value("${user-cache.redis.enabled:true}") boolean redisEnabled,
+                     @Value("${user-cache.redis.ttl:600000}") long redisTtlMillis) {
+        this.objectMapper = objectMapper;
+        this.listenerContainer = listenerContainer;
+        this.redisEnabled = redisEnabled;
+        this.redisTtl = Duration.ofMillis(redisTtlMillis);
+
+        RedisTemplate<String, byte[]> template = new RedisTemplate<>();
+        template.setConnectionFactory(connectionFactory);
+        template.setKeySerializer(RedisSerializer.string());
+        template.setValueSerializer(RedisSerializer.byteArray());
+        template.afterPropertiesSet();
+        this.redisTemplate = template;
+
+        this.localCache = Caffeine.newBuilder()
+                .maximumSize(localMaxSize)
+                .expireAfterWrite(Duration.ofMillis(localTtlMillis))
+                .build();
+        this.recentEvictions = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(30))
+                .build();
+    }
+
+    @PostConstruct
+    public void subscribe() {
+        listenerContainer.addMessageListener((message, pattern) -> {
+            try {
+                UUID userId = UUID.fromString(new String(message.getBody()));
+                recentEvictions.put(userId, System.nanoTime());
+                localCache.invalidate(userId);
+            } catch (IllegalArgumentException e) {
+                log.warn("Ignoring invalid user cache invalidation: {}", new String(message.getBody()));
+            }
+        }, ChannelTopic.of(INVALIDATION_CHANNEL));
+    }
+
+    /**
+     * Time to pass to put() for a value about to be loaded from the database
+     */
+    public long loadStarted() {
+        return System.nanoTime();
+    }
+
+    /**
+     * Cached user, from memory or else from Redis; null on a miss
+     */
+    public UserInfoResponse get(UUID userId) {
+        byte[] bytes = localCache.getIfPresent(userId);
+        if (bytes == null && redisEnabled) {
+            bytes = getShared(userId);
+            if (bytes != null) {
+                localCache.put(userId, bytes);
+            }
+        }
+        return bytes != null ? deserialize(userId, bytes) : null;
+    }
+
+    /**
+     * Cached users among the given IDs; IDs not cached are absent from the result
+     */
+    public Map<UUID, UserInfoResponse> getAll(Collection<UUID> userIds) {
+        Map<UUID, byte[]> found = new HashMap<>(localCache.getAllPresent(userIds));
+        if (redisEnabled && found.size() < userIds.size()) {
+            List<UUID> missing = new ArrayList<>(userIds.size() - found.size());
+            for (UUID userId : userIds) {
+                if (!found.containsKey(userId)) {
+                    missing.add(userId);
+                }
+            }
+            List<byte[]> shared = getShared(missing);
+            for (int i = 0; i < shared.size(); i++) {
+                byte[] bytes = shared.get(i);
+                if (bytes != null) {
+                    localCache.put(missing.get(i), bytes);
+                    found.put(missing.get(i), bytes);
+                }
+            }
+        }
+
+        Map<UUID, UserInfoResponse> users = new HashMap<>(found.size());
+        found.forEach((userId, bytes) -> {
+            UserInfoResponse user = deserialize(userId, bytes);
+            if (user != null) {
+                users.put(userId, user);
+            }
+        });
+        return users;
+    }
+
+    /**
+     * Cache a user loaded from the database, unless it was evicted since the load began
+     */
+    public void put(UserInfoResponse user, long loadStartedAt) {
+        putAll(List.of(user), loadStartedAt);
+    }
+
+    /**
+     * Cache users loaded from the database, skipping any evicted since the load began
+     */
+    public void putAll(Collection<UserInfoResponse> users, long loadStartedAt) {
+        Map<UUID, byte[]> shared = new HashMap<>();
+        Map<UUID, Long> versions = new HashMap<>();
+        for (UserInfoResponse user : users) {
+            UUID userId = user.getUserId();
+            Long evictedAt = recentEvictions.getIfPresent(userId);
+            if (evictedAt != null && evictedAt - loadStartedAt >= 0) {
+                continue;
+            }
+            byte[] bytes;
+            try {
+                bytes = objectMapper.writeValueAsBytes(user);
+            } catch (Exception e) {
+                log.warn("Failed to serialize user {} for caching: {}", userId, e.getMessage());
+                continue;
+            }
+            localCache.put(userId, bytes);
+            shared.put(userId, bytes);
+            versions.put(userId, versionOf(user.getUpdatedAt()));
+        }
+        if (redisEnabled && !shared.isEmpty()) {
+            byte[] ttl = Long.toString(redisTtl.toMillis()).getBytes(StandardCharsets.UTF_8);
+            try {
+                redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                    shared.forEach((userId, bytes) -> connection.scriptingCommands().eval(
+                            SET_IF_CURRENT_SCRIPT, ReturnType.INTEGER, 2,
+                            (KEY_PREFIX + userId).getBytes(StandardCharsets.UTF_8),
+                            (VERSION_PREFIX + userId).getBytes(StandardCharsets.UTF_8),
+                            bytes,
+                            Long.toString(versions.get(userId)).getBytes(StandardCharsets.UTF_8),
+                            ttl));
+                    return null;
+                });
+            } catch (Exception e) {
+                log.warn("Failed to cache {} users in Redis: {}", shared.size(), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Drop a changed user here, in Redis and on every other instance
+     *
+     * @param updatedAt The user's updatedAt after the change; older values are no longer cached in Redis
+     */
+    public void evict(UUID userId, LocalDateTime updatedAt) {
+        recentEvictions.put(userId, System.nanoTime());
+        localCache.invalidate(userId);
+        try {
+            if (redisEnabled) {
+                redisTemplate.execute(EVICT_SCRIPT,
+                        List.of(KEY_PREFIX + userId, VERSION_PREFIX + userId),
+                        Long.toString(versionOf(updatedAt)).getBytes(StandardCharsets.UTF_8),
+                        Long.toString(redisTtl.toMillis()).getBytes(StandardCharsets.UTF_8));
+            }
+            redisTemplate.convertAndSend(INVALIDATION_CHANNEL, userId.toString());
+        } catch (Exception e) {
+            // Other instances catch up when their local entries expire (user-cache.local.ttl)
+            log.warn("Failed to publish user cache invalidation for {}: {}", userId, e.getMessage());
+        }
+    }
+
+    private byte[] getShared(UUID userId) {
+        try {
+            return redisTemplate.opsForValue().get(KEY_PREFIX + userId);
+        } catch (Exception e) {
+            log.warn("User cache Redis read failed for {}: {}", userId, e.getMessage());
+            return null;
+        }
+    }
+
+    private List<byte[]> getShared(List<UUID> userIds) {
+        List<String> keys = new ArrayList<>(userIds.size());
+        for (UUID userId : userIds) {
+            keys.add(KEY_PREFIX + userId);
+        }
+        try {
+            List<byte[]> values = redisTemplate.opsForValue().multiGet(keys);
+            return values != null ? values : List.of();
+        } catch (Exception e) {
+            log.warn("User cache Redis read failed for {} users: {}", userIds.size(), e.getMessage());
+            return List.of();
+        }
+    }
+
+    /**
+     * updatedAt as epoch micros (Postgres timestamp precision); 0 when unknown
+     */
+    private static long versionOf(LocalDateTime updatedAt) {
+        if (updatedAt == null) {
+            return 0;
+        }
+        return updatedAt.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + updatedAt.getNano() / 1_000;
+    }
+
+    private UserInfoResponse deserialize(UUID userId, byte[] bytes) {
+        try {
+            return objectMapper.readValue(bytes, UserInfoResponse.class);
+        } catch (Exception e) {
+            log.warn("Dropping unreadable cache entry for user {}: {}", userId, e.getMessage());
+            localCache.invalidate(userId);
+            return null;
+        }
+    }
+}
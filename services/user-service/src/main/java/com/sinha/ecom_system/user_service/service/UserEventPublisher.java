@@ -0,0 +1,59 @@
+package com.sinha.ecom_system.user_service.service;
+
+import com.sinha.ecom_system.common.contants.CommonConstants;
+import com.sinha.ecom_system.common.dto.UserChangedEvent;
+import com.sinha.ecom_system.user_service.model.User;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.RedisStreamCommands.XAddOptions;
+import org.springframework.data.redis.connection.stream.StreamRecords;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.ZoneOffset;
+
+/**
+ * User Event Publisher
+ * Appends a UserChangedEvent to the user events stream after every profile change,
+ * so other services (auth-service) keep local projections without calling user-service
+ *
+ * Publishing is best effort: a failure is logged and never fails the user change
+ * Stream: "user:events" (trimmed to about user-events.max-length entries)
+ */
+@Service
+@Slf4j
+public class UserEventPublisher {
+
+    private final StringRedisTemplate redisTemplate;
+    private final long maxLength;
+
+    @Autowired
+    public UserEventPublisher(StringRedisTemplate redisTemplate,
+                              @Value("${user-events.max-length:100000}") long maxLength) {
+        this.redisTemplate = redisTemplate;
+        this.maxLength = maxLength;
+    }
+
+    public void publishChanged(User user) {
+        UserChangedEvent event = UserChangedEvent.builder()
+                .userId(user.getId())
+                .firstName(user.getFirstName())
+                .lastName(user.getLastName())
+                .email(user.getEmail())
+                .mobileNumber(user.getMobileNumber())
+                .dob(user.getDob())
+                .userStatus(user.getUserStatus())
+                .version(user.getUpdatedAt() != null
+                        ? user.getUpdatedAt().toInstant(ZoneOffset.UTC).toEpochMilli()
+                        : System.currentTimeMillis())
+                .build();
+        try {
+            redisTemplate.opsForStream().add(
+                    StreamRecords.mapBacked(event.toFields()).withStreamKey(CommonConstants.USER_EVENTS_STREAM),
+                    XAddOptions.maxlen(maxLength).approximateTrimming(true));
+        } catch (Exception e) {
+            log.warn("Failed to publish change event for user {}: {}", user.getId(), e.getMessage());
+        }
+    }
+}
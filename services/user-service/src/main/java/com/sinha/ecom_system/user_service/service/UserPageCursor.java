@@ -0,0 +1,54 @@
+package com.sinha.ecom_system.user_service.service;
+
+import com.sinha.ecom_system.common.dto.UserSummary;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * User Page Cursor
+ * Keyset position of a user listing page: (createdAt, id) of its last row
+ *
+ * Opaque to callers: base64url (no padding) of "{createdAt}|{id}"
+ * The next page holds the rows strictly after this position in
+ * (created_at DESC, id DESC) order, so rows sharing a created_at are split by id
+ */
+record UserPageCursor(LocalDateTime createdAt, UUID id) {
+
+    private static final String SEPARATOR = "|";
+
+    static UserPageCursor of(UserSummary last) {
+        return new UserPageCursor(last.getCreatedAt(), last.getUserId());
+    }
+
+    String encode() {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((createdAt + SEPARATOR + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws ResponseStatusException 400 "Invalid cursor" if it was not produced by encode()
+     */
+    static UserPageCursor decode(String cursor) {
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = value.indexOf(SEPARATOR);
+            if (separator < 0) {
+                throw invalidCursor();
+            }
+            return new UserPageCursor(LocalDateTime.parse(value.substring(0, separator)),
+                    UUID.fromString(value.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw invalidCursor();
+        }
+    }
+
+    private static ResponseStatusException invalidCursor() {
+        return new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+    }
+}
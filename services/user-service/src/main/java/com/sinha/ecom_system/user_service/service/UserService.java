@@ -2,8 +2,13 @@ package com.sinha.ecom_system.user_service.service;
 
 import com.sinha.ecom_system.common.dto.UserInfoRequest;
 import com.sinha.ecom_system.common.dto.UserInfoResponse;
+import com.sinha.ecom_system.common.dto.UserPageResponse;
+import com.sinha.ecom_system.common.enums.KycStatus;
+import com.sinha.ecom_system.common.enums.TradingStatus;
 import com.sinha.ecom_system.common.enums.UserStatus;
 
+import java.util.Collection;
+import java.util.Map;
 import java.util.UUID;
 
 public interface UserService {
@@ -12,6 +17,11 @@ public interface UserService {
 
     UserInfoResponse getUser(UUID id) throws Exception;
 
+    Map<UUID, UserInfoResponse> getUsers(Collection<UUID> ids);
+
+    UserPageResponse listUsers(UserStatus userStatus, KycStatus kycStatus, TradingStatus tradingStatus,
+                               String cursor, Integer limit);
+
     UserInfoResponse updateUser(UUID id, UserInfoRequest body) throws Exception;
 
     void updateUserStatus(UUID id, UserStatus userStatus);
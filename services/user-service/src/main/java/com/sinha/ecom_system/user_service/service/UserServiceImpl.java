@@ -3,13 +3,26 @@ package com.sinha.ecom_system.user_service.service;
 import com.sinha.ecom_system.common.enums.RiskProfile;
 import com.sinha.ecom_system.common.dto.UserInfoRequest;
 import com.sinha.ecom_system.common.dto.UserInfoResponse;
+import com.sinha.ecom_system.common.dto.UserPageResponse;
+import com.sinha.ecom_system.common.dto.UserSummary;
+import com.sinha.ecom_system.common.enums.KycStatus;
+import com.sinha.ecom_system.common.enums.TradingStatus;
 import com.sinha.ecom_system.common.enums.UserStatus;
 import com.sinha.ecom_system.user_service.model.User;
 import com.sinha.ecom_system.user_service.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -17,10 +30,28 @@ import java.util.UUID;
 public class UserServiceImpl implements UserService {
 
     private UserRepository userRepository;
+    private UserEventPublisher userEventPublisher;
+    private UserCache userCache;
+    private int batchMaxIds;
+    private int batchChunkSize;
+    private int listDefaultLimit;
+    private int listMaxLimit;
 
     @Autowired
-    public UserServiceImpl(UserRepository userRepository) {
+    public UserServiceImpl(UserRepository userRepository,
+                           UserEventPublisher userEventPublisher,
+                           UserCache userCache,
+                           @Value("${user-batch.max-ids:500}") int batchMaxIds,
+                           @Value("${user-batch.chunk-size:200}") int batchChunkSize,
+                           @Value("${user-list.default-limit:50}") int listDefaultLimit,
+                           @Value("${user-list.max-limit:200}") int listMaxLimit) {
         this.userRepository = userRepository;
+        this.userEventPublisher = userEventPublisher;
+        this.userCache = userCache;
+        this.batchMaxIds = batchMaxIds;
+        this.batchChunkSize = batchChunkSize;
+        this.listDefaultLimit = listDefaultLimit;
+        this.listMaxLimit = listMaxLimit;
     }
 
     @Override
@@ -46,58 +77,105 @@ public class UserServiceImpl implements UserService {
 
         // Persist to database (ID auto-generated)
         userModel = userRepository.save(userModel);
+        userEventPublisher.publishChanged(userModel);
 
         // Return auth response with tokens and user info
-        return UserInfoResponse.builder()
-                .userId(userModel.getId())
-                .firstName(userModel.getFirstName())
-                .lastName(userModel.getLastName())
-                .email(userModel.getEmail())
-                .mobileNumber(userModel.getMobileNumber())
-                .dob(userModel.getDob())
-                .gender(userModel.getGender())
-                .nationality(userModel.getNationality())
-                .userStatus(userModel.getUserStatus())
-                .accountType(userModel.getAccountType())
-                .kycStatus(userModel.getKycStatus())
-                .kycVerifiedAt(userModel.getKycVerifiedAt())
-                .kycVerifiedBy(userModel.getKycVerifiedBy())
-                .tradingStatus(userModel.getTradingStatus())
-                .riskProfile(userModel.getRiskProfile())
-                .createdAt(userModel.getCreatedAt())
-                .updatedAt(userModel.getUpdatedAt())
-                .lastActiveAt(userModel.getLastActiveAt())
-                .deletedAt(userModel.getDeletedAt())
-                .build();
+        return toResponse(userModel);
     }
 
 
     @Override
     public UserInfoResponse getUser(UUID id) throws Exception {
+        UserInfoResponse cached = userCache.get(id);
+        if (cached != null) {
+            return cached;
+        }
+
+        long loadStartedAt = userCache.loadStarted();
         Optional<User> optionalUser = userRepository.getUserById(id);
 
         User userModel = optionalUser.orElseThrow(() -> new Exception("User not found"));
 
-        return UserInfoResponse.builder()
-                .userId(userModel.getId())
-                .firstName(userModel.getFirstName())
-                .lastName(userModel.getLastName())
-                .email(userModel.getEmail())
-                .mobileNumber(userModel.getMobileNumber())
-                .dob(userModel.getDob())
-                .gender(userModel.getGender())
-                .nationality(userModel.getNationality())
-                .userStatus(userModel.getUserStatus())
-                .accountType(userModel.getAccountType())
-                .kycStatus(userModel.getKycStatus())
-                .kycVerifiedAt(userModel.getKycVerifiedAt())
-                .kycVerifiedBy(userModel.getKycVerifiedBy())
-                .tradingStatus(userModel.getTradingStatus())
-                .riskProfile(userModel.getRiskProfile())
-                .createdAt(userModel.getCreatedAt())
-                .updatedAt(userModel.getUpdatedAt())
-                .lastActiveAt(userModel.getLastActiveAt())
-                .deletedAt(userModel.getDeletedAt())
+        UserInfoResponse response = toResponse(userModel);
+        userCache.put(response, loadStartedAt);
+        return response;
+    }
+
+
+    /**
+     * Look up many users at once: cache hits first, then the rest from the
+     * database in IN-list chunks of user-batch.chunk-size
+     * Unknown IDs are left out of the result; the map keeps the request order
+     */
+    @Override
+    public Map<UUID, UserInfoResponse> getUsers(Collection<UUID> ids) {
+        LinkedHashSet<UUID> userIds = new LinkedHashSet<>(ids);
+        userIds.remove(null);
+        if (userIds.size() > batchMaxIds) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "At most " + batchMaxIds + " user IDs can be requested at once");
+        }
+        if (userIds.isEmpty()) {
+            return Map.of();
+        }
+
+        Map<UUID, UserInfoResponse> found = userCache.getAll(userIds);
+        List<UUID> missing = new ArrayList<>(userIds.size() - found.size());
+        for (UUID userId : userIds) {
+            if (!found.containsKey(userId)) {
+                missing.add(userId);
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            long loadStartedAt = userCache.loadStarted();
+            List<UserInfoResponse> loaded = new ArrayList<>(missing.size());
+            for (int from = 0; from < missing.size(); from += batchChunkSize) {
+                List<UUID> chunk = missing.subList(from, Math.min(from + batchChunkSize, missing.size()));
+                for (User user : userRepository.findAllById(chunk)) {
+                    UserInfoResponse response = toResponse(user);
+                    loaded.add(response);
+                    found.put(user.getId(), response);
+                }
+            }
+            userCache.putAll(loaded, loadStartedAt);
+        }
+
+        Map<UUID, UserInfoResponse> users = new LinkedHashMap<>(found.size());
+        for (UUID userId : userIds) {
+            UserInfoResponse user = found.get(userId);
+            if (user != null) {
+                users.put(userId, user);
+            }
+        }
+        return users;
+    }
+
+
+    /**
+     * One page of users, newest first, optionally filtered
+     * The cursor is opaque to callers: the (createdAt, id) of the last row returned
+     */
+    @Override
+    public UserPageResponse listUsers(UserStatus userStatus, KycStatus kycStatus, TradingStatus tradingStatus,
+                                      String cursor, Integer limit) {
+        int pageSize = limit == null ? listDefaultLimit : Math.max(1, Math.min(limit, listMaxLimit));
+
+        UserPageCursor after = cursor != null && !cursor.isBlank() ? UserPageCursor.decode(cursor) : null;
+
+        // One extra row tells whether another page follows
+        List<UserSummary> users = userRepository.findPage(userStatus, kycStatus, tradingStatus,
+                after != null ? after.createdAt() : null, after != null ? after.id() : null, pageSize + 1);
+
+        String nextCursor = null;
+        if (users.size() > pageSize) {
+            users = users.subList(0, pageSize);
+            nextCursor = UserPageCursor.of(users.get(pageSize - 1)).encode();
+        }
+
+        return UserPageResponse.builder()
+                .users(users)
+                .nextCursor(nextCursor)
                 .build();
     }
 
@@ -149,34 +227,41 @@ public class UserServiceImpl implements UserService {
 
         // Save and return the updated user
         User updatedUser = userRepository.save(existingUser);
+        userCache.evict(id, updatedUser.getUpdatedAt());
+        userEventPublisher.publishChanged(updatedUser);
 
-        return UserInfoResponse.builder()
-                .userId(updatedUser.getId())
-                .firstName(updatedUser.getFirstName())
-                .lastName(updatedUser.getLastName())
-                .email(updatedUser.getEmail())
-                .mobileNumber(updatedUser.getMobileNumber())
-                .dob(updatedUser.getDob())
-                .gender(updatedUser.getGender())
-                .nationality(updatedUser.getNationality())
-                .userStatus(updatedUser.getUserStatus())
-                .accountType(updatedUser.getAccountType())
-                .kycStatus(updatedUser.getKycStatus())
-                .kycVerifiedAt(updatedUser.getKycVerifiedAt())
-                .kycVerifiedBy(updatedUser.getKycVerifiedBy())
-                .tradingStatus(updatedUser.getTradingStatus())
-                .riskProfile(updatedUser.getRiskProfile())
-                .createdAt(updatedUser.getCreatedAt())
-                .updatedAt(updatedUser.getUpdatedAt())
-                .lastActiveAt(updatedUser.getLastActiveAt())
-                .deletedAt(updatedUser.getDeletedAt())
-                .build();
+        return toResponse(updatedUser);
     }
 
     @Override
     public void updateUserStatus(UUID id, UserStatus status) {
-        userRepository.updateUserStatus(id, status, LocalDateTime.now());
+        LocalDateTime updatedAt = LocalDateTime.now();
+        userRepository.updateUserStatus(id, status, updatedAt);
+        userCache.evict(id, updatedAt);
+        userRepository.getUserById(id).ifPresent(userEventPublisher::publishChanged);
     }
-}
-
 
+    private UserInfoResponse toResponse(User userModel) {
+        return UserInfoResponse.builder()
+                .userId(userModel.getId())
+                .firstName(userModel.getFirstName())
+                .lastName(userModel.getLastName())
+                .email(userModel.getEmail())
+                .mobileNumber(userModel.getMobileNumber())
+                .dob(userModel.getDob())
+                .gender(userModel.getGender())
+                .nationality(userModel.getNationality())
+                .userStatus(userModel.getUserStatus())
+                .accountType(userModel.getAccountType())
+                .kycStatus(userModel.getKycStatus())
+                .kycVerifiedAt(userModel.getKycVerifiedAt())
+                .kycVerifiedBy(userModel.getKycVerifiedBy())
+                .tradingStatus(userModel.getTradingStatus())
+                .riskProfile(userModel.getRiskProfile())
+                .createdAt(userModel.getCreatedAt())
+                .updatedAt(userModel.getUpdatedAt())
+                .lastActiveAt(userModel.getLastActiveAt())
+                .deletedAt(userModel.getDeletedAt())
+                .build();
+    }
+}
@@ -0,0 +1,11 @@
+-- Keyset indexes for the user listing (newest first, by created_at then id)
+CREATE INDEX IF NOT EXISTS idx_users_created_id ON users(created_at DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_users_status_created_id ON users(user_status, created_at DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_users_kyc_created_id ON users(kyc_status, created_at DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_users_trading_created_id ON users(trading_status, created_at DESC, id DESC);
+
+-- Covered by the indexes above (same leading column)
+DROP INDEX IF EXISTS idx_users_created;
+DROP INDEX IF EXISTS idx_users_status;
+DROP INDEX IF EXISTS idx_users_kyc;
+DROP INDEX IF EXISTS idx_users_trading;
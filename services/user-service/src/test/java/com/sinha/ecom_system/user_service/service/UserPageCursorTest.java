@@ -0,0 +1,155 @@
+package com.sinha.ecom_system.user_service.service;
+
+import com.sinha.ecom_system.common.dto.UserPageResponse;
+import com.sinha.ecom_system.common.dto.UserSummary;
+import com.sinha.ecom_system.user_service.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class UserPageCursorTest {
+
+    private static final LocalDateTime SAME_TIME = LocalDateTime.of(2025, 3, 1, 12, 0, 0, 123_456_000);
+
+    // Postgres orders uuid by its bytes, i.e. both halves unsigned (UUID.compareTo is signed)
+    private static final Comparator<UUID> PG_UUID_ORDER = Comparator
+            .comparing(UUID::getMostSignificantBits, Long::compareUnsigned)
+            .thenComparing(UUID::getLeastSignificantBits, Long::compareUnsigned);
+
+    // Listing order: created_at DESC, id DESC
+    private static final Comparator<UserSummary> LISTING_ORDER = Comparator
+            .comparing(UserSummary::getCreatedAt)
+            .thenComparing(UserSummary::getUserId, PG_UUID_ORDER)
+            .reversed();
+
+    @Test
+    void cursorRoundTrips() {
+        UUID id = UUID.randomUUID();
+        UserPageCursor cursor = new UserPageCursor(SAME_TIME, id);
+
+        UserPageCursor decoded = UserPageCursor.decode(cursor.encode());
+
+        assertThat(decoded.createdAt()).isEqualTo(SAME_TIME);
+        assertThat(decoded.id()).isEqualTo(id);
+    }
+
+    @Test
+    void cursorKeepsWholeSecondTimestamps() {
+        LocalDateTime onTheMinute = LocalDateTime.of(2025, 3, 1, 12, 0);
+        UUID id = UUID.randomUUID();
+
+        assertThat(UserPageCursor.decode(new UserPageCursor(onTheMinute, id).encode()).createdAt())
+                .isEqualTo(onTheMinute);
+    }
+
+    @Test
+    void cursorIsUrlSafe() {
+        String encoded = new UserPageCursor(SAME_TIME, UUID.randomUUID()).encode();
+
+        assertThat(encoded.matches("[A-Za-z0-9_-]+")).isTrue();
+    }
+
+    @Test
+    void invalidCursorsAreRejectedAsBadRequest() {
+        assertBadRequest("not base64 !");
+        assertBadRequest(encodeRaw("2025-03-01T12:00"));
+        assertBadRequest(encodeRaw("yesterday|" + UUID.randomUUID()));
+        assertBadRequest(encodeRaw("2025-03-01T12:00|not-a-uuid"));
+    }
+
+    @Test
+    void pagesSplitRowsWithEqualCreatedAtWithoutGapsOrDuplicates() {
+        List<UserSummary> rows = new ArrayList<>();
+        rows.add(summary("ffffffff-0000-0000-0000-000000000001", SAME_TIME));   // negative msb in Java
+        rows.add(summary("80000000-0000-0000-0000-000000000000", SAME_TIME));
+        rows.add(summary("7fffffff-ffff-ffff-ffff-ffffffffffff", SAME_TIME));
+        rows.add(summary("00000000-0000-0000-0000-000000000002", SAME_TIME));
+        rows.add(summary("00000000-0000-0000-0000-000000000001", SAME_TIME));
+        rows.add(summary("12345678-0000-0000-0000-000000000000", SAME_TIME.plusNanos(1000)));
+        rows.add(summary("12345678-0000-0000-0000-000000000000", SAME_TIME.minusSeconds(1)));
+        UserServiceImpl service = serviceOver(rows);
+
+        for (int pageSize = 1; pageSize <= rows.size() + 1; pageSize++) {
+            List<UserSummary> seen = new ArrayList<>();
+            String cursor = null;
+            int pages = 0;
+            do {
+                UserPageResponse page = service.listUsers(null, null, null, cursor, pageSize);
+                assertThat(page.getUsers().size() <= pageSize).isTrue();
+                seen.addAll(page.getUsers());
+                cursor = page.getNextCursor();
+                pages++;
+            } while (cursor != null && pages <= rows.size());
+
+            assertThat(seen).containsExactly(rows.stream().sorted(LISTING_ORDER).toArray(UserSummary[]::new));
+        }
+    }
+
+    @Test
+    void lastFullPageHasNoNextCursor() {
+        List<UserSummary> rows = List.of(
+                summary("00000000-0000-0000-0000-000000000001", SAME_TIME),
+                summary("00000000-0000-0000-0000-000000000002", SAME_TIME));
+
+        UserPageResponse page = serviceOver(rows).listUsers(null, null, null, null, 2);
+
+        assertThat(page.getUsers()).hasSize(2);
+        assertThat(page.getNextCursor()).isNull();
+    }
+
+    /**
+     * UserServiceImpl over a repository that applies the same keyset predicate as
+     * UserRepositoryImpl.findPage: (created_at, id) < (cursor) in listing order
+     */
+    private static UserServiceImpl serviceOver(List<UserSummary> rows) {
+        UserRepository repository = mock(UserRepository.class);
+        when(repository.findPage(any(), any(), any(), any(), any(), anyInt())).thenAnswer(invocation -> {
+            LocalDateTime afterCreatedAt = invocation.getArgument(3);
+            UUID afterId = invocation.getArgument(4);
+            int limit = invocation.getArgument(5);
+            return rows.stream()
+                    .filter(row -> afterCreatedAt == null
+                            || row.getCreatedAt().isBefore(afterCreatedAt)
+                            || (row.getCreatedAt().isEqual(afterCreatedAt)
+                                && PG_UUID_ORDER.compare(row.getUserId(), afterId) < 0))
+                    .sorted(LISTING_ORDER)
+                    .limit(limit)
+                    .toList();
+        });
+        return new UserServiceImpl(repository, null, null, 500, 200, 50, 200);
+    }
+
+    private static void assertBadRequest(String cursor) {
+        assertThatThrownBy(() -> UserPageCursor.decode(cursor))
+                .isInstanceOfSatisfying(ResponseStatusException.class, e -> {
+                    assertThat(e.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+                    assertThat(e.getReason()).isEqualTo("Invalid cursor");
+                });
+    }
+
+    private static UserSummary summary(String id, LocalDateTime createdAt) {
+        return UserSummary.builder()
+                .userId(UUID.fromString(id))
+                .createdAt(createdAt)
+                .build();
+    }
+
+    private static String encodeRaw(String value) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+}